@@ -0,0 +1,48 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.model.UseCaseDefinition;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A loaded runbook catalogue and the queries to run against it
+ */
+@State(Scope.Benchmark)
+public class CatalogueState {
+
+    @Param({Catalogues.REAL, "10", "100", "1000"})
+    public String catalogue;
+
+    RunbookRegistry.Snapshot snapshot;
+    String[] queries;
+    UseCaseDefinition[] useCases;
+    List<Map<String, String>> entities;
+
+    @Setup
+    public void setUp() {
+        Catalogues.Catalogue loaded = Catalogues.load(catalogue);
+        snapshot = loaded.snapshot();
+        RunbookEntityExtractor extractor = new RunbookEntityExtractor();
+
+        // The same number of queries for every catalogue size, so scores compare per query
+        List<String> queryList = new ArrayList<>();
+        List<UseCaseDefinition> useCaseList = new ArrayList<>();
+        entities = new ArrayList<>();
+        for (Map.Entry<String, String> query : loaded.queries().entrySet()) {
+            UseCaseDefinition useCase = snapshot.getUseCase(query.getKey());
+            if (useCase != null && queryList.size() < Catalogues.QUERIES.size()) {
+                queryList.add(query.getValue());
+                useCaseList.add(useCase);
+                entities.add(extractor.extract(query.getValue(), useCase.getExtraction()));
+            }
+        }
+        queries = queryList.toArray(String[]::new);
+        useCases = useCaseList.toArray(UseCaseDefinition[]::new);
+    }
+}
@@ -0,0 +1,100 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.corpus.RunbookCorpusGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Runbook catalogues for benchmarks: the runbooks shipped in the application jar, or a synthetic
+ * catalogue of a given size
+ */
+final class Catalogues {
+
+    static final String REAL = "real";
+
+    /**
+     * Queries for the shipped runbooks, keyed by the runbook they should classify as
+     */
+    static final Map<String, String> QUERIES = Map.of(
+        "CANCEL_CASE", "cancel case 2025123P6732",
+        "CLEAR_STORAGE_UNIT", "clear storage unit SU-1234",
+        "CREATE_WORKPOOL_ENTRY", "create workpool entry Microtomy for sample BC123456 with lab code LAB1",
+        "DELETE_WORKPOOL_ENTRY", "delete workpool entry Microtomy for sample BC123456 with lab code LAB1",
+        "RECONCILE_STORAGE_UNIT_OCCUPIED_COUNT", "reconcile occupied count for storage unit SU-1234",
+        "UPDATE_SAMPLE_BARCODE", "update sample barcode from BC123456 to BC654321",
+        "UPDATE_SAMPLE_STATUS", "update sample status for BC123456 to Completed - Microtomy",
+        "UPDATE_STAIN_NAME", "update stain name for slide BC123456 to Unstained"
+    );
+
+    /**
+     * A loaded catalogue and a query for each runbook it has queries for, keyed by runbook id
+     */
+    record Catalogue(RunbookRegistry.Snapshot snapshot, Map<String, String> queries) {
+    }
+
+    private Catalogues() {
+    }
+
+    /**
+     * Load a catalogue: {@value #REAL} for the shipped runbooks, otherwise the number of runbooks to
+     * generate with {@link RunbookCorpusGenerator}
+     */
+    static Catalogue load(String catalogue) {
+        if (REAL.equals(catalogue)) {
+            return new Catalogue(loadFrom("classpath:runbooks/"), QUERIES);
+        }
+        RunbookCorpusGenerator.Corpus corpus = RunbookCorpusGenerator.generate(RunbookCorpusGenerator.Options.builder()
+            .runbooks(Integer.parseInt(catalogue))
+            .queriesPerRunbook(1)
+            .ambiguity(0)
+            .build());
+        Map<String, String> queries = new LinkedHashMap<>();
+        corpus.getQueries().forEach(query -> queries.putIfAbsent(query.getExpectedTaskId(), query.getQuery()));
+        try {
+            Path directory = Files.createTempDirectory("runbook-catalogue-");
+            try {
+                corpus.writeTo(directory);
+                return new Catalogue(loadFrom(directory.toUri().toString()), queries);
+            } finally {
+                delete(directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static RunbookRegistry.Snapshot loadFrom(String location) {
+        RunbookRegistry registry = new RunbookRegistry();
+        try {
+            var locationField = RunbookRegistry.class.getDeclaredField("runbookLocation");
+            locationField.setAccessible(true);
+            locationField.set(registry, location.endsWith("/") ? location : location + "/");
+
+            var enabledField = RunbookRegistry.class.getDeclaredField("enabled");
+            enabledField.setAccessible(true);
+            enabledField.set(registry, true);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot configure runbook registry", e);
+        }
+        registry.loadRunbooks();
+        if (registry.getSnapshot().isEmpty()) {
+            throw new IllegalStateException("No runbooks loaded from " + location);
+        }
+        return registry.getSnapshot();
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
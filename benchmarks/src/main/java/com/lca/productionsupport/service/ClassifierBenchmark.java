@@ -0,0 +1,47 @@
+package com.lca.productionsupport.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Classifier#classify(String, RunbookRegistry.Snapshot)} for each classification strategy over
+ * each catalogue
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassifierBenchmark {
+
+    @Param({RunbookClassifier.STRATEGY, Bm25Classifier.STRATEGY})
+    public String strategy;
+
+    private Classifier classifier;
+
+    @Setup
+    public void setUp() {
+        RunbookRegistry registry = new RunbookRegistry();
+        classifier = Bm25Classifier.STRATEGY.equals(strategy) ? new Bm25Classifier(registry) : new RunbookClassifier(registry);
+    }
+
+    @Benchmark
+    public void classify(CatalogueState state, Blackhole blackhole) {
+        for (String query : state.queries) {
+            blackhole.consume(classifier.classify(query, state.snapshot));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.lca.productionsupport.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RunbookEntityExtractor#extract} for each query against the extraction config of its runbook
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityExtractorBenchmark {
+
+    private final RunbookEntityExtractor extractor = new RunbookEntityExtractor();
+
+    @Benchmark
+    public void extract(CatalogueState state, Blackhole blackhole) {
+        for (int i = 0; i < state.queries.length; i++) {
+            blackhole.consume(extractor.extract(state.queries[i], state.useCases[i].getExtraction()));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.lca.productionsupport.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ErrorMessageTranslator} over typical downstream errors, with the translation cache
+ * enabled and disabled (maximum weight 0) to separate pattern matching from cache lookups
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorMessageTranslatorBenchmark {
+
+    private static final String[] ERRORS = {
+        "Connection refused: localhost/127.0.0.1:8091",
+        "API Error: 404 Not Found {\"message\":\"Case 2025123P6732 not found\"}",
+        "API Error: 500 Internal Server Error {\"error\":\"NullPointerException\"}",
+        "Did not observe any item or terminal signal within 30000ms in 'flatMap' (and no fallback has been configured)",
+        "Unexpected end-of-input in VALUE_STRING"
+    };
+
+    @Param({"2000000", "0"})
+    public long cacheWeight;
+
+    private ErrorMessageTranslator translator;
+    private Throwable connectionError;
+
+    @Setup
+    public void setUp() {
+        translator = new ErrorMessageTranslator(new SimpleMeterRegistry(), cacheWeight, Duration.ofMinutes(10));
+        translator.init();
+        connectionError = new IllegalStateException("Request failed",
+            new ConnectException("Connection refused: localhost/127.0.0.1:8091"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        translator.shutdown();
+    }
+
+    @Benchmark
+    public void translate(Blackhole blackhole) {
+        for (String error : ERRORS) {
+            blackhole.consume(translator.translate(error));
+        }
+    }
+
+    @Benchmark
+    public ErrorMessageTranslator.TranslationResult translateException() {
+        return translator.translateException(connectionError);
+    }
+
+    @Benchmark
+    public String extractApiErrorMessage() {
+        return translator.extractApiErrorMessage(ERRORS[1]);
+    }
+}
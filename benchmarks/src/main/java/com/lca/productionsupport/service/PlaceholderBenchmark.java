@@ -0,0 +1,83 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.model.StepExecutionRequest;
+import com.lca.productionsupport.template.RequestBodyTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The placeholder resolvers used while executing a step: path, header, message and request body templates
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceholderBenchmark {
+
+    private static final String PATH = "/lims-api/workpool/{workpool_name}/sample/{sample_barcode}/lab/{lab_code}";
+    private static final String HEADER = "{api_user}@{lab_id}/{discipline_name} ({time_zone}, {role_name})";
+    private static final String MESSAGE = "Audit Log entry was created by {modifiedBy} for {sample_barcode} and status was changed to {status}";
+
+    private StepExecutionService stepExecutionService;
+    private RequestBodyTemplate bodyTemplate;
+    private Map<String, String> entities;
+    private Map<String, String> responseValues;
+    private StepExecutionRequest request;
+
+    @Setup
+    public void setUp() {
+        stepExecutionService = new StepExecutionService(null, null, new RunbookAdapter(), null, null, null, null);
+        entities = new LinkedHashMap<>();
+        entities.put("workpool_name", "Histology");
+        entities.put("sample_barcode", "BC123456");
+        entities.put("lab_code", "LAB1");
+        entities.put("status", "Completed - Microtomy");
+        responseValues = Map.of("modifiedBy", "jdoe");
+        request = StepExecutionRequest.builder()
+            .customHeaders(Map.of("Api-User", "jdoe", "Lab-Id", "LAB1", "Discipline-Name", "AP",
+                "Time-Zone", "UTC", "Role-Name", "Production Support"))
+            .build();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("barcode", "{sample_barcode}");
+        body.put("status", "{status}");
+        body.put("labCode", "{lab_code}");
+        body.put("comment", "Moved to {workpool_name} by production support");
+        body.put("items", List.of(Map.of("barcode", "{sample_barcode}", "quantity", 1)));
+        bodyTemplate = RequestBodyTemplate.compile(body);
+    }
+
+    @Benchmark
+    public String resolvePath() {
+        return stepExecutionService.resolvePlaceholders(PATH, entities);
+    }
+
+    @Benchmark
+    public String resolveHeader() {
+        return stepExecutionService.resolveHeaderPlaceholders(HEADER, request);
+    }
+
+    @Benchmark
+    public String resolveMessage() {
+        return stepExecutionService.replacePlaceholdersInMessage(MESSAGE, responseValues, entities);
+    }
+
+    @Benchmark
+    public byte[] resolveBody() {
+        return bodyTemplate.toJsonBytes(entities);
+    }
+}
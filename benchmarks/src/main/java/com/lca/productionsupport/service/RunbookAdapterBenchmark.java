@@ -0,0 +1,35 @@
+package com.lca.productionsupport.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RunbookAdapter#toOperationalResponse} for each runbook with the entities extracted from its query
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunbookAdapterBenchmark {
+
+    private final RunbookAdapter adapter = new RunbookAdapter();
+
+    @Benchmark
+    public void toOperationalResponse(CatalogueState state, Blackhole blackhole) {
+        for (int i = 0; i < state.useCases.length; i++) {
+            blackhole.consume(adapter.toOperationalResponse(state.useCases[i], state.entities.get(i)));
+        }
+    }
+}
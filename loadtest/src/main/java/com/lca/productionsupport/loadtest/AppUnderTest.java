@@ -0,0 +1,142 @@
+package com.lca.productionsupport.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The application, started in its own JVM so the load generator and stub do not share its threads or
+ * heap, and read through its actuator metrics endpoint
+ */
+final class AppUnderTest implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+    private static final Pattern JAVA_VERSION = Pattern.compile("version \"(\\d+)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Process process;
+    private final String baseUrl;
+
+    AppUnderTest(LoadTestOptions options, String downstreamUrl, Path log) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(options.appJar)) {
+            throw new IllegalStateException(options.appJar + " not found, build it first: mvn clean install -DskipTests");
+        }
+        if (options.mode == LoadTestOptions.Mode.VIRTUAL && javaVersion(options.java) < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, pass one with --java=/path/to/jdk21/bin/java");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(options.java);
+        command.addAll(options.jvmArgs);
+        command.add("-jar");
+        command.add(options.appJar.toString());
+        command.add("--server.port=" + port);
+        command.add("--downstream-services.services.ap-services.base-url=" + downstreamUrl);
+        command.add("--slow-log.file=" + log.resolveSibling(log.getFileName() + ".slow.json"));
+        command.add("--spring.threads.virtual.enabled=" + (options.mode == LoadTestOptions.Mode.VIRTUAL));
+        command.addAll(options.appArgs);
+
+        Files.createDirectories(log.getParent());
+        this.process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        this.baseUrl = "http://localhost:" + port;
+        awaitHealthy(log);
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Current value of an actuator gauge, e.g. jvm.threads.live or jvm.memory.used?tag=area:heap
+     */
+    double metric(String nameAndTags) {
+        return statistic(nameAndTags, "VALUE");
+    }
+
+    /**
+     * A statistic of an actuator meter, e.g. TOTAL_TIME of jvm.gc.pause
+     */
+    double statistic(String nameAndTags, String statistic) {
+        try {
+            HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + nameAndTags)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                // Meters such as jvm.gc.pause only exist once something was recorded
+                return 0;
+            }
+            for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+                if (statistic.equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitHealthy(Path log) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/health")).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        close();
+        throw new IllegalStateException("Application not healthy after " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    private static int javaVersion(String java) throws IOException, InterruptedException {
+        Process version = new ProcessBuilder(java, "-version").redirectErrorStream(true).start();
+        String output = new String(version.getInputStream().readAllBytes());
+        version.waitFor();
+        Matcher matcher = JAVA_VERSION.matcher(output);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.lca.productionsupport.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Sends requests to one endpoint at a fixed arrival rate (an open workload: a slow response does not
+ * delay the next request). Latency is measured from when a request was due to be sent, not when it
+ * was, so a stalled generator or client shows up as latency instead of hiding it. Only requests due
+ * after the warmup are recorded.
+ */
+final class ArrivalRateDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long HIGHEST_MICROS = REQUEST_TIMEOUT.toNanos() / 1_000 * 2;
+
+    private final String endpoint;
+    private final int rate;
+    private final HttpClient client;
+    private final LongFunction<HttpRequest.Builder> requests;
+    private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong httpErrors = new AtomicLong();
+    private final AtomicLong unsuccessful = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    /**
+     * @param requests builds the i-th request, the driver sets the timeout
+     */
+    ArrivalRateDriver(String endpoint, int rate, HttpClient client, LongFunction<HttpRequest.Builder> requests) {
+        this.endpoint = endpoint;
+        this.rate = rate;
+        this.client = client;
+        this.requests = requests;
+    }
+
+    /**
+     * Start sending; requests due in [startNanos + warmup, startNanos + warmup + duration) are measured
+     */
+    void start(long startNanos, Duration warmup, Duration duration) {
+        if (rate <= 0) {
+            finished.countDown();
+            return;
+        }
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long measureFrom = startNanos + warmup.toNanos();
+        long endNanos = measureFrom + duration.toNanos();
+        Thread thread = new Thread(() -> {
+            for (long i = 0; ; i++) {
+                long due = startNanos + i * intervalNanos;
+                if (due >= endNanos) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                send(i, due, due >= measureFrom);
+            }
+            finished.countDown();
+        }, "driver-" + endpoint);
+        thread.start();
+    }
+
+    private void send(long i, long due, boolean measured) {
+        HttpRequest request = requests.apply(i).timeout(REQUEST_TIMEOUT).build();
+        inFlight.incrementAndGet();
+        if (measured) {
+            sent.incrementAndGet();
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            latencyMicros.recordValue(Math.min((System.nanoTime() - due) / 1_000, HIGHEST_MICROS));
+            if (error != null || response.statusCode() >= 300) {
+                httpErrors.incrementAndGet();
+            } else {
+                completed.incrementAndGet();
+                // Step executions report a failed downstream call in the body with status 200
+                if (response.body().contains("\"success\":false")) {
+                    unsuccessful.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait for the last request to be sent and for in-flight requests to finish
+     */
+    void awaitCompletion() throws InterruptedException {
+        finished.await();
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    int rate() {
+        return rate;
+    }
+
+    long sent() {
+        return sent.get();
+    }
+
+    long completed() {
+        return completed.get();
+    }
+
+    long httpErrors() {
+        return httpErrors.get();
+    }
+
+    long unsuccessful() {
+        return unsuccessful.get();
+    }
+
+    Histogram latencyMicros() {
+        return latencyMicros;
+    }
+}
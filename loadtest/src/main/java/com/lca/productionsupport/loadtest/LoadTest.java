@@ -0,0 +1,255 @@
+package com.lca.productionsupport.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load test: starts a stub ap-services and the application, drives /process and
+ * /execute-step at fixed arrival rates, samples the application's threads, heap, CPU and GC, and writes
+ * one JSON result per run plus a summary table of all runs (results/README.md) so runs can be compared
+ * across modes and commits.
+ */
+public final class LoadTest {
+
+    private static final String SUMMARY_FILE = "README.md";
+
+    /**
+     * /process queries, one or more for each shipped runbook
+     */
+    private static final List<String> QUERIES = List.of(
+        "please cancel case 2025123P6732",
+        "clear storage unit SU-1234",
+        "create workpool entry Microtomy for sample BC123456 with lab code LAB1",
+        "delete workpool entry Microtomy for sample BC123456 with lab code LAB1",
+        "reconcile occupied count for storage unit SU-1234",
+        "update sample barcode from BC123456 to BC654321",
+        "update sample status for BC123456 to Completed - Microtomy",
+        "update stain name for slide BC123456 to Unstained",
+        "abort case 2024123P6731",
+        "change sample status for BC654321 to Pending"
+    );
+
+    private static final String STEP_REQUEST = """
+        {"taskId":"CANCEL_CASE","stepNumber":%d,"downstreamService":"ap-services",\
+        "entities":{"case_id":"2025123P6732"},"userId":"loadtest@example.com"}""";
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && args[0].equals("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(1);
+            return;
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(options.results);
+        Path appLog = Path.of("loadtest/target/logs", options.name + ".log");
+
+        try (StubDownstream stub = new StubDownstream(options.stubMedian, options.stubP99, options.stubErrorRate, options.stubResponseSize);
+             AppUnderTest app = new AppUnderTest(options, stub.baseUrl(), appLog)) {
+            System.out.printf("%s: stub at %s, application at %s (log %s)%n", options.name, stub.baseUrl(), app.baseUrl(), appLog);
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            List<ArrivalRateDriver> drivers = List.of(
+                new ArrivalRateDriver("process", options.processRate, client,
+                    i -> post(app, "/api/v1/process", "{\"query\":\"" + QUERIES.get((int) (i % QUERIES.size()))
+                        + "\",\"userId\":\"loadtest@example.com\"}")),
+                // Alternate the PATCH procedure step and the GET verification step
+                new ArrivalRateDriver("execute-step", options.stepRate, client,
+                    i -> post(app, "/api/v1/execute-step", STEP_REQUEST.formatted(i % 2 == 0 ? 3 : 4))));
+
+            long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+            drivers.forEach(driver -> driver.start(start, options.warmup, options.duration));
+            System.out.printf("Warming up for %ss, then measuring for %ss%n", options.warmup.toSeconds(), options.duration.toSeconds());
+
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            ResourceSampler sampler = new ResourceSampler(app);
+            long measureFrom = start + options.warmup.toNanos();
+            scheduler.schedule(sampler::begin, measureFrom - System.nanoTime(), TimeUnit.NANOSECONDS);
+            scheduler.scheduleAtFixedRate(sampler::sample, measureFrom - System.nanoTime(), 1_000_000_000L, TimeUnit.NANOSECONDS);
+            scheduler.schedule(sampler::end, measureFrom + options.duration.toNanos() - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+            for (ArrivalRateDriver driver : drivers) {
+                driver.awaitCompletion();
+            }
+            sampler.awaitEnd();
+            scheduler.shutdownNow();
+
+            ObjectNode result = result(drivers, sampler, stub);
+            Path resultFile = options.results.resolve(options.name + ".json");
+            objectMapper.writeValue(resultFile.toFile(), result);
+            writeSummary();
+            System.out.println(objectMapper.writeValueAsString(result.path("endpoints")));
+            System.out.println("Result written to " + resultFile);
+        }
+    }
+
+    private static HttpRequest.Builder post(AppUnderTest app, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(app.baseUrl() + path))
+            .header("Content-Type", "application/json")
+            .header("Role-Name", "Production Support")
+            .header("Api-User", "loadtest")
+            .header("Lab-Id", "LAB1")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private ObjectNode result(List<ArrivalRateDriver> drivers, ResourceSampler sampler, StubDownstream stub) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("name", options.name);
+        result.put("mode", options.mode.name().toLowerCase());
+        result.put("timestamp", Instant.now().toString());
+
+        ObjectNode host = result.putObject("host");
+        host.put("cpus", Runtime.getRuntime().availableProcessors());
+        host.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        host.put("java", appJavaVersion());
+
+        ObjectNode config = result.putObject("config");
+        config.put("warmupSeconds", options.warmup.toSeconds());
+        config.put("durationSeconds", options.duration.toSeconds());
+        config.put("jvmArgs", String.join(" ", options.jvmArgs));
+        config.put("appArgs", String.join(" ", options.appArgs));
+        ObjectNode stubConfig = config.putObject("stub");
+        stubConfig.put("latencyMedianMs", options.stubMedian.toMillis());
+        stubConfig.put("latencyP99Ms", options.stubP99.toMillis());
+        stubConfig.put("errorRate", options.stubErrorRate);
+        stubConfig.put("responseBytes", options.stubResponseSize);
+
+        ObjectNode endpoints = result.putObject("endpoints");
+        double seconds = options.duration.toMillis() / 1000.0;
+        for (ArrivalRateDriver driver : drivers) {
+            if (driver.rate() <= 0) {
+                continue;
+            }
+            ObjectNode endpoint = endpoints.putObject(driver.endpoint());
+            endpoint.put("targetRate", driver.rate());
+            endpoint.put("sent", driver.sent());
+            endpoint.put("completed", driver.completed());
+            endpoint.put("httpErrors", driver.httpErrors());
+            endpoint.put("unsuccessful", driver.unsuccessful());
+            endpoint.put("throughput", round(driver.completed() / seconds));
+            Histogram latency = driver.latencyMicros();
+            ObjectNode latencyMs = endpoint.putObject("latencyMs");
+            latencyMs.put("p50", millis(latency.getValueAtPercentile(50)));
+            latencyMs.put("p90", millis(latency.getValueAtPercentile(90)));
+            latencyMs.put("p99", millis(latency.getValueAtPercentile(99)));
+            latencyMs.put("p999", millis(latency.getValueAtPercentile(99.9)));
+            latencyMs.put("max", millis(latency.getMaxValue()));
+            latencyMs.put("mean", round(latency.getMean() / 1000));
+        }
+
+        result.set("app", sampler.toJson(objectMapper));
+
+        ObjectNode stubResult = result.putObject("stub");
+        stubResult.put("requests", stub.requests());
+        stubResult.put("errors", stub.errors());
+        return result;
+    }
+
+    /**
+     * Version of the JVM running the application, from its JDK's release file when it is not this JVM
+     */
+    private String appJavaVersion() {
+        if (options.java.equals(Path.of(System.getProperty("java.home"), "bin", "java").toString())) {
+            return System.getProperty("java.version");
+        }
+        Path release = Path.of(options.java).toAbsolutePath().getParent().resolveSibling("release");
+        try {
+            for (String line : Files.readAllLines(release)) {
+                if (line.startsWith("JAVA_VERSION=")) {
+                    return line.substring("JAVA_VERSION=".length()).replace("\"", "");
+                }
+            }
+        } catch (IOException e) {
+            // Fall through to the executable path
+        }
+        return options.java;
+    }
+
+    /**
+     * Rewrite the summary table from every result file in the results directory
+     */
+    private void writeSummary() throws IOException {
+        List<JsonNode> results = new ArrayList<>();
+        try (Stream<Path> files = Files.list(options.results)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".json")).sorted().toList()) {
+                results.add(objectMapper.readTree(file.toFile()));
+            }
+        }
+        StringBuilder summary = new StringBuilder("""
+            # Load test results
+
+            Generated by the load test harness (see the Load Testing section of the top-level README); one row per
+            endpoint per run. Latency is measured from when each request was due, in milliseconds. Threads and heap
+            are the application's live threads and used heap, sampled every second while measuring. Compare modes
+            between runs on the same Java version and host.
+
+            | Run | Mode | Java | Host CPUs | Endpoint | Target rps | Throughput | p50 | p99 | p99.9 | Max | HTTP errors | Threads (max) | Heap MB (max) | CPU (avg) | Stub latency (p50/p99) |
+            |-----|------|------|----------:|----------|-----------:|-----------:|----:|----:|------:|----:|------------:|--------------:|--------------:|----------:|------------------------|
+            """);
+        for (JsonNode result : results) {
+            JsonNode app = result.path("app");
+            JsonNode stub = result.path("config").path("stub");
+            for (Map.Entry<String, JsonNode> endpoint : iterable(result.path("endpoints"))) {
+                JsonNode values = endpoint.getValue();
+                JsonNode latency = values.path("latencyMs");
+                summary.append(String.format("| %s | %s | %s | %d | %s | %d | %s | %s | %s | %s | %s | %d | %d | %s | %s | %dms/%dms |%n",
+                    result.path("name").asText(), result.path("mode").asText(), result.path("host").path("java").asText(),
+                    result.path("host").path("cpus").asInt(),
+                    endpoint.getKey(),
+                    values.path("targetRate").asInt(), values.path("throughput").asText(),
+                    latency.path("p50").asText(), latency.path("p99").asText(), latency.path("p999").asText(),
+                    latency.path("max").asText(), values.path("httpErrors").asLong(),
+                    app.path("threadsLiveMax").asInt(), app.path("heapUsedMaxMb").asInt(),
+                    app.path("cpuAvg").asText(), stub.path("latencyMedianMs").asLong(), stub.path("latencyP99Ms").asLong()));
+            }
+        }
+        Files.writeString(options.results.resolve(SUMMARY_FILE), summary);
+    }
+
+    private static Iterable<Map.Entry<String, JsonNode>> iterable(JsonNode node) {
+        return node::fields;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,120 @@
+package com.lca.productionsupport.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from {@code --name=value} arguments
+ */
+final class LoadTestOptions {
+
+    /**
+     * How the application serves requests
+     */
+    enum Mode {
+        /** Tomcat platform thread pool (the default configuration) */
+        BLOCKING,
+        /** Tomcat on virtual threads (spring.threads.virtual.enabled, needs Java 21+) */
+        VIRTUAL
+    }
+
+    static final String USAGE = """
+        Usage: java -jar loadtest/target/loadtest.jar [--name=value ...]
+          --name               run name, used for the result file       (default: <mode>-<process-rate>p-<step-rate>s)
+          --mode               blocking | virtual                       (default: blocking)
+          --process-rate       /process requests per second             (default: 50)
+          --step-rate          /execute-step requests per second        (default: 50)
+          --warmup             warmup before measuring, e.g. 15s        (default: 15s)
+          --duration           measured run length, e.g. 60s            (default: 60s)
+          --stub-median        stub latency median                      (default: 20ms)
+          --stub-p99           stub latency 99th percentile (lognormal) (default: 200ms)
+          --stub-error-rate    fraction of stub responses that are 500s (default: 0.01)
+          --stub-response-size stub response body size in bytes         (default: 2048)
+          --app-jar            application jar                          (default: target/production-support-1.0.0-SNAPSHOT-exec.jar)
+          --java               java executable for the application      (default: this JVM's)
+          --jvm-args           application JVM arguments                (default: -Xms512m -Xmx512m)
+          --app-args           extra application arguments, space separated
+          --results            directory for result files               (default: loadtest/results)
+        """;
+
+    Mode mode = Mode.BLOCKING;
+    String name;
+    int processRate = 50;
+    int stepRate = 50;
+    Duration warmup = Duration.ofSeconds(15);
+    Duration duration = Duration.ofSeconds(60);
+    Duration stubMedian = Duration.ofMillis(20);
+    Duration stubP99 = Duration.ofMillis(200);
+    double stubErrorRate = 0.01;
+    int stubResponseSize = 2048;
+    Path appJar = Path.of("target/production-support-1.0.0-SNAPSHOT-exec.jar");
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    List<String> jvmArgs = List.of("-Xms512m", "-Xmx512m");
+    List<String> appArgs = List.of();
+    Path results = Path.of("loadtest/results");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            switch (entry.getKey()) {
+                case "name" -> options.name = value;
+                case "mode" -> options.mode = Mode.valueOf(value.toUpperCase());
+                case "process-rate" -> options.processRate = Integer.parseInt(value);
+                case "step-rate" -> options.stepRate = Integer.parseInt(value);
+                case "warmup" -> options.warmup = duration(value);
+                case "duration" -> options.duration = duration(value);
+                case "stub-median" -> options.stubMedian = duration(value);
+                case "stub-p99" -> options.stubP99 = duration(value);
+                case "stub-error-rate" -> options.stubErrorRate = Double.parseDouble(value);
+                case "stub-response-size" -> options.stubResponseSize = Integer.parseInt(value);
+                case "app-jar" -> options.appJar = Path.of(value);
+                case "java" -> options.java = value;
+                case "jvm-args" -> options.jvmArgs = split(value);
+                case "app-args" -> options.appArgs = split(value);
+                case "results" -> options.results = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + entry.getKey());
+            }
+        }
+        if (options.name == null) {
+            options.name = options.mode.name().toLowerCase() + "-" + options.processRate + "p-" + options.stepRate + "s";
+        }
+        if (options.stubP99.compareTo(options.stubMedian) < 0) {
+            throw new IllegalArgumentException("--stub-p99 must not be below --stub-median");
+        }
+        return options;
+    }
+
+    /**
+     * Parse 500ms, 15s or 2m
+     */
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Expected a duration like 500ms, 15s or 2m but got " + value);
+        };
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : new ArrayList<>(Arrays.asList(value.trim().split("\\s+")));
+    }
+}
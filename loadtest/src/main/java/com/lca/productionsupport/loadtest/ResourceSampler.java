@@ -0,0 +1,87 @@
+package com.lca.productionsupport.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the application's threads, heap, CPU and GC pauses over the measured part of a run
+ */
+final class ResourceSampler {
+
+    private static final String HEAP = "jvm.memory.used?tag=area:heap";
+    private static final String GC_PAUSE = "jvm.gc.pause";
+    private static final double MB = 1024 * 1024;
+
+    private final AppUnderTest app;
+    private final CountDownLatch ended = new CountDownLatch(1);
+    private volatile boolean sampling;
+    private int samples;
+    private double threadsMax;
+    private double threadsSum;
+    private double heapMax;
+    private double heapSum;
+    private double cpuSum;
+    private double gcPausesAtStart;
+    private double gcPauseSecondsAtStart;
+    private double gcPauses;
+    private double gcPauseSeconds;
+    private double threadsPeak;
+
+    ResourceSampler(AppUnderTest app) {
+        this.app = app;
+    }
+
+    synchronized void begin() {
+        gcPausesAtStart = app.statistic(GC_PAUSE, "COUNT");
+        gcPauseSecondsAtStart = app.statistic(GC_PAUSE, "TOTAL_TIME");
+        sampling = true;
+    }
+
+    synchronized void sample() {
+        if (!sampling) {
+            return;
+        }
+        double threads = app.metric("jvm.threads.live");
+        double heap = app.metric(HEAP);
+        threadsMax = Math.max(threadsMax, threads);
+        threadsSum += threads;
+        heapMax = Math.max(heapMax, heap);
+        heapSum += heap;
+        cpuSum += app.metric("process.cpu.usage");
+        samples++;
+    }
+
+    synchronized void end() {
+        sampling = false;
+        try {
+            gcPauses = app.statistic(GC_PAUSE, "COUNT") - gcPausesAtStart;
+            gcPauseSeconds = app.statistic(GC_PAUSE, "TOTAL_TIME") - gcPauseSecondsAtStart;
+            threadsPeak = app.metric("jvm.threads.peak");
+        } finally {
+            ended.countDown();
+        }
+    }
+
+    void awaitEnd() throws InterruptedException {
+        if (!ended.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Resource sampling did not finish");
+        }
+    }
+
+    synchronized ObjectNode toJson(ObjectMapper objectMapper) {
+        ObjectNode app = objectMapper.createObjectNode();
+        app.put("samples", samples);
+        app.put("threadsLiveMax", (int) threadsMax);
+        app.put("threadsLiveAvg", samples > 0 ? Math.round(threadsSum / samples) : 0);
+        app.put("threadsPeak", (int) threadsPeak);
+        app.put("heapUsedMaxMb", Math.round(heapMax / MB));
+        app.put("heapUsedAvgMb", samples > 0 ? Math.round(heapSum / samples / MB) : 0);
+        app.put("cpuAvg", samples > 0 ? Math.round(cpuSum / samples * 1000) / 1000.0 : 0);
+        app.put("gcPauses", (long) gcPauses);
+        app.put("gcPauseMs", Math.round(gcPauseSeconds * 1000));
+        return app;
+    }
+}
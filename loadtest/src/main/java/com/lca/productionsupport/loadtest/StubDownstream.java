@@ -0,0 +1,86 @@
+package com.lca.productionsupport.loadtest;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for ap-services: answers every request with a JSON body of a fixed size after a lognormal
+ * delay (given median and 99th percentile), failing a fraction of requests with a 500. Delays are
+ * scheduled on the event loop, so the stub itself never runs out of threads.
+ */
+final class StubDownstream implements AutoCloseable {
+
+    // 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final double medianNanos;
+    private final double sigma;
+    private final String body;
+    private final String errorBody;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final DisposableServer server;
+
+    StubDownstream(Duration median, Duration p99, double errorRate, int responseSize) {
+        this.medianNanos = median.toNanos();
+        this.sigma = median.isZero() ? 0 : Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        this.body = pad("{\"id\":\"2025123P6732\",\"status\":\"Canceled\",\"modifiedBy\":\"loadtest\",\"padding\":\"", responseSize);
+        this.errorBody = "{\"message\":\"Internal server error\"}";
+        this.server = HttpServer.create()
+            .host("localhost")
+            .port(0)
+            .handle((request, response) -> request.receive().then()
+                .then(Mono.delay(latency()))
+                .then(Mono.defer(() -> {
+                    requests.incrementAndGet();
+                    boolean fail = ThreadLocalRandom.current().nextDouble() < errorRate;
+                    if (fail) {
+                        errors.incrementAndGet();
+                    }
+                    return response.status(fail ? HttpResponseStatus.INTERNAL_SERVER_ERROR : HttpResponseStatus.OK)
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just(fail ? errorBody : body))
+                        .then();
+                })))
+            .bindNow();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    private Duration latency() {
+        if (medianNanos == 0) {
+            return Duration.ZERO;
+        }
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Duration.ofNanos((long) (medianNanos * Math.exp(sigma * gaussian)));
+    }
+
+    private static String pad(String prefix, int size) {
+        StringBuilder json = new StringBuilder(prefix);
+        while (json.length() < size - 2) {
+            json.append('x');
+        }
+        return json.append("\"}").toString();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
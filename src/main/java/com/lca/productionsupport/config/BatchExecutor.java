@@ -0,0 +1,15 @@
+package com.lca.productionsupport.config;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The bounded batch pool (see {@link BatchProcessingConfig}). Wrapped rather than exposed as an
+ * Executor bean: Spring Boot only creates applicationTaskExecutor, which runs Spring MVC async
+ * responses such as the NDJSON and SSE streams, when the context has no Executor bean.
+ */
+public record BatchExecutor(ExecutorService executorService) {
+
+    public void shutdown() {
+        executorService.shutdown();
+    }
+}
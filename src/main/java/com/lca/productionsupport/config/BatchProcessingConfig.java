@@ -0,0 +1,41 @@
+package com.lca.productionsupport.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded executor for batch request processing
+ */
+@Slf4j
+@Configuration
+public class BatchProcessingConfig {
+
+    /**
+     * Fixed-size pool (defaults to one thread per core, classification is CPU-bound) with a bounded queue.
+     * When the queue is full the submitting thread runs the task itself, which throttles new batches.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BatchExecutor batchExecutor(
+            @Value("${batch.threads:0}") int threads,
+            @Value("${batch.queue-capacity:1000}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        log.info("Initializing batch executor with {} threads and queue capacity {}", poolSize, queueCapacity);
+        
+        return new BatchExecutor(new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("batch-"),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        ));
+    }
+}
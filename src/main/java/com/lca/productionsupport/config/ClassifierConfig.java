@@ -0,0 +1,39 @@
+package com.lca.productionsupport.config;
+
+import com.lca.productionsupport.service.Bm25Classifier;
+import com.lca.productionsupport.service.Classifier;
+import com.lca.productionsupport.service.FuzzyMatchingClassifier;
+import com.lca.productionsupport.service.RunbookClassifier;
+import com.lca.productionsupport.service.RunbookRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Query classification strategy
+ */
+@Slf4j
+@Configuration
+public class ClassifierConfig {
+
+    /**
+     * keyword: keyword and synonym hit counting (default); bm25: BM25 over the catalogue's term statistics.
+     * With fuzzy matching, misspelled query words are corrected to runbook vocabulary first.
+     */
+    @Bean
+    public Classifier classifier(
+            @Value("${classification.strategy:keyword}") String strategy,
+            @Value("${classification.fuzzy-matching:true}") boolean fuzzyMatching,
+            RunbookRegistry runbookRegistry) {
+        log.info("Initializing {} classifier (fuzzy matching {})", strategy, fuzzyMatching ? "on" : "off");
+
+        Classifier classifier = switch (strategy) {
+            case "keyword" -> new RunbookClassifier(runbookRegistry);
+            case "bm25" -> new Bm25Classifier(runbookRegistry);
+            default -> throw new IllegalArgumentException(
+                "Unknown classification.strategy '" + strategy + "', expected keyword or bm25");
+        };
+        return fuzzyMatching ? new FuzzyMatchingClassifier(classifier, runbookRegistry) : classifier;
+    }
+}
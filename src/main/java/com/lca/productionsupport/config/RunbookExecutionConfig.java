@@ -0,0 +1,34 @@
+package com.lca.productionsupport.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for server-side runbook executions streamed over SSE
+ */
+@Slf4j
+@Configuration
+public class RunbookExecutionConfig {
+
+    /**
+     * Separate from the batch executor: steps block on downstream calls, so this pool is sized by the
+     * number of concurrent executions rather than by cores. Executions beyond the queue are rejected.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public RunbookExecutor runbookExecutionExecutor(
+            @Value("${runbook-execution.threads:16}") int threads,
+            @Value("${runbook-execution.queue-capacity:100}") int queueCapacity) {
+        log.info("Initializing runbook execution executor with {} threads and queue capacity {}", threads, queueCapacity);
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("runbook-exec-");
+        executor.initialize();
+        return new RunbookExecutor(executor);
+    }
+}
@@ -0,0 +1,15 @@
+package com.lca.productionsupport.config;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * The pool runbook executions run on (see {@link RunbookExecutionConfig}). Wrapped rather than
+ * exposed as an Executor bean, which would stop Spring Boot creating applicationTaskExecutor for
+ * Spring MVC async responses (see {@link BatchExecutor}).
+ */
+public record RunbookExecutor(ThreadPoolTaskExecutor taskExecutor) {
+
+    public void shutdown() {
+        taskExecutor.shutdown();
+    }
+}
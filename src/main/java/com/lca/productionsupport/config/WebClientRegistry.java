@@ -1,12 +1,24 @@
 package com.lca.productionsupport.config;
 
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.ClientRequestObservationConvention;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Registry for managing multiple WebClient instances for different downstream services
@@ -15,11 +27,30 @@ import java.util.Map;
 @Component
 public class WebClientRegistry {
     
+    /**
+     * Request attribute with the runbook path a request's URI was resolved from, e.g.
+     * /lims-api/case/{case_id}/cancel. It becomes the http.client.requests uri tag and the client span's uri,
+     * instead of the resolved path that has one value per case or barcode.
+     */
+    public static final String PATH_TEMPLATE_ATTRIBUTE = WebClientRegistry.class.getName() + ".pathTemplate";
+    
+    private static final ClientRequestObservationConvention PATH_TEMPLATE_CONVENTION = new DefaultClientRequestObservationConvention() {
+        @Override
+        protected KeyValue uri(ClientRequestObservationContext context) {
+            Optional<Object> pathTemplate = context.getRequest() != null
+                ? context.getRequest().attribute(PATH_TEMPLATE_ATTRIBUTE) : Optional.empty();
+            return pathTemplate.map(template -> KeyValue.of("uri", template.toString())).orElseGet(() -> super.uri(context));
+        }
+    };
+    
     private final Map<String, WebClient> webClients = new HashMap<>();
+    private final List<ConnectionProvider> connectionProviders = new ArrayList<>();
     private final DownstreamServiceProperties serviceProperties;
+    private final ObservationRegistry observationRegistry;
     
-    public WebClientRegistry(DownstreamServiceProperties serviceProperties) {
+    public WebClientRegistry(DownstreamServiceProperties serviceProperties, ObservationRegistry observationRegistry) {
         this.serviceProperties = serviceProperties;
+        this.observationRegistry = observationRegistry;
         initializeWebClients();
     }
     
@@ -31,14 +62,30 @@ public class WebClientRegistry {
             log.info("Initializing WebClient for service: {} with base URL: {}", 
                     serviceName, config.getBaseUrl());
             
+            // Dedicated connection pool per service, with reactor.netty.connection.provider.* gauges
+            // (tagged name=<service>) published to the global Micrometer registry
+            ConnectionProvider connectionProvider = ConnectionProvider.builder(serviceName)
+                .metrics(true)
+                .build();
+            connectionProviders.add(connectionProvider);
+            
             WebClient webClient = WebClient.builder()
                 .baseUrl(config.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                // Each call is observed as a client span; the W3C traceparent header is injected from it
+                .observationRegistry(observationRegistry)
+                .observationConvention(PATH_TEMPLATE_CONVENTION)
                 .build();
             
             webClients.put(serviceName, webClient);
         });
     }
     
+    @PreDestroy
+    public void shutdown() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+    
     /**
      * Get WebClient for a specific service
      * @param serviceName The name of the service (e.g., "ap-services")
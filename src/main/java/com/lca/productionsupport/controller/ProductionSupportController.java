@@ -1,12 +1,19 @@
 package com.lca.productionsupport.controller;
 
+import com.lca.productionsupport.model.BatchOperationalRequest;
+import com.lca.productionsupport.model.BatchOperationalResponse;
 import com.lca.productionsupport.model.OperationalRequest;
 import com.lca.productionsupport.model.OperationalResponse;
 import com.lca.productionsupport.model.OperationalResponse.RunbookStep;
+import com.lca.productionsupport.model.RunbookExecutionRequest;
 import com.lca.productionsupport.model.StepExecutionRequest;
+import com.lca.productionsupport.model.StepExecutionEvent;
 import com.lca.productionsupport.model.StepExecutionResponse;
 import com.lca.productionsupport.model.TaskInfo;
+import com.lca.productionsupport.service.BatchProcessingService;
+import com.lca.productionsupport.service.NdjsonProcessingService;
 import com.lca.productionsupport.service.ProductionSupportOrchestrator;
+import com.lca.productionsupport.service.RunbookExecutionService;
 import com.lca.productionsupport.service.StepExecutionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,13 +22,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +50,9 @@ public class ProductionSupportController {
 
     private final ProductionSupportOrchestrator orchestrator;
     private final StepExecutionService stepExecutionService;
+    private final BatchProcessingService batchProcessingService;
+    private final NdjsonProcessingService ndjsonProcessingService;
+    private final RunbookExecutionService runbookExecutionService;
     
     @Operation(
         summary = "Get Available Tasks",
@@ -86,7 +101,7 @@ public class ProductionSupportController {
         )
         @Valid @RequestBody OperationalRequest request
     ) {
-        log.info("Received request: {}", request.getQuery());
+        log.debug("Received request: {}", request.getQuery());
         
         OperationalResponse response = orchestrator.processRequest(request);
         
@@ -97,6 +112,80 @@ public class ProductionSupportController {
         return ResponseEntity.ok(response);
     }
     
+    @Operation(
+        summary = "Process Batch of Natural Language Queries",
+        description = "Classifies and extracts entities for a list of queries in one call. Requests are processed in parallel " +
+                     "against the same runbook snapshot and responses are returned in request order. " +
+                     "Authentication handled by API Gateway."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully processed the batch",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = BatchOperationalResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request - requests are required (at most 1000) and each query is required",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+        )
+    })
+    @PostMapping("/process/batch")
+    public ResponseEntity<BatchOperationalResponse> processBatch(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Batch of operational requests",
+            required = true,
+            content = @Content(schema = @Schema(implementation = BatchOperationalRequest.class))
+        )
+        @Valid @RequestBody BatchOperationalRequest request
+    ) {
+        long startTime = System.currentTimeMillis();
+        log.info("Received batch of {} requests", request.getRequests().size());
+        
+        List<OperationalResponse> responses = batchProcessingService.processBatch(request.getRequests());
+        
+        return ResponseEntity.ok(BatchOperationalResponse.builder()
+            .responses(responses)
+            .durationMs(System.currentTimeMillis() - startTime)
+            .build());
+    }
+    
+    @Operation(
+        summary = "Stream Natural Language Queries (NDJSON)",
+        description = "Classifies and extracts entities for a newline-delimited JSON stream of requests. " +
+                     "Each input line is one OperationalRequest and produces one OperationalResponse line, in input order. " +
+                     "Responses are streamed while the request is still being read, so arbitrarily large inputs run in bounded memory. " +
+                     "Invalid lines produce an UNKNOWN response with a warning instead of failing the stream. " +
+                     "Authentication handled by API Gateway."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Stream of OperationalResponse lines",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = OperationalResponse.class)
+            )
+        )
+    })
+    @PostMapping(
+        value = "/process/stream",
+        consumes = MediaType.APPLICATION_NDJSON_VALUE,
+        produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> processStream(HttpServletRequest httpRequest) throws IOException {
+        log.info("Received NDJSON stream request");
+        InputStream input = httpRequest.getInputStream();
+        StreamingResponseBody body = output -> ndjsonProcessingService.process(input, output);
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+    
     @Operation(
         summary = "Execute Runbook Step",
         description = "Execute a specific step from a runbook. This will make the actual API call to the downstream service and return the result. " +
@@ -142,7 +231,7 @@ public class ProductionSupportController {
         @RequestHeader(value = "Time-Zone", required = false) String timeZone,
         @RequestHeader(value = "accept", required = false) String accept
     ) {
-        log.info("Executing step {} for task {} with role: {}, Api-User: {}", 
+        log.debug("Executing step {} for task {} with role: {}, Api-User: {}", 
                 request.getStepNumber(), request.getTaskId(), roleName, apiUser);
         
         // Set the user role from header if not already set in request body
@@ -151,20 +240,9 @@ public class ProductionSupportController {
         }
         
         // Collect custom headers from API Gateway to forward to downstream service
-        Map<String, String> customHeaders = new HashMap<>();
-        addHeaderIfPresent(customHeaders, "Api-User", apiUser);
-        addHeaderIfPresent(customHeaders, "Lab-Id", labId);
-        addHeaderIfPresent(customHeaders, "Discipline-Name", disciplineName);
-        addHeaderIfPresent(customHeaders, "Time-Zone", timeZone);
-        addHeaderIfPresent(customHeaders, "Role-Name", roleName);
-        addHeaderIfPresent(customHeaders, "accept", accept);
-        
-        // Log Api-User specifically for debugging
-        if (apiUser != null && !apiUser.isEmpty()) {
-            log.info("Added Api-User to customHeaders: {}", apiUser);
-        }
+        Map<String, String> customHeaders = collectGatewayHeaders(apiUser, labId, disciplineName, timeZone, roleName, accept);
         
-        log.debug("Custom headers map: {}", customHeaders);
+        log.atDebug().setMessage("Forwarding gateway headers").addKeyValue("headers", customHeaders::keySet).log();
 
         request.setCustomHeaders(customHeaders);
 
@@ -173,6 +251,75 @@ public class ProductionSupportController {
         return ResponseEntity.ok(response);
     }
     
+    @Operation(
+        summary = "Execute Runbook (SSE)",
+        description = "Execute all steps of a runbook server-side and stream step lifecycle events as server-sent events: " +
+                     "queued, started, downstream-sent, verified, failed and a final completed event, each with timing. " +
+                     "Steps run in order up to the first step that is not auto-executable, where the stream ends with an " +
+                     "awaiting-approval event; that step and the rest are executed one by one after approval. " +
+                     "A failed step is handled by its errorHandling.onFailure (abort, continue, alert or rollback). " +
+                     "Authentication handled by API Gateway."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Stream of step lifecycle events",
+            content = @Content(
+                mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                schema = @Schema(implementation = StepExecutionEvent.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request - taskId is required",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+        )
+    })
+    @PostMapping(value = "/execute-runbook", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter executeRunbook(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Runbook execution request with task details and required entities",
+            required = true,
+            content = @Content(schema = @Schema(implementation = RunbookExecutionRequest.class))
+        )
+        @Valid @RequestBody RunbookExecutionRequest request,
+        @Parameter(description = "User role from API Gateway header")
+        @RequestHeader(value = "Role-Name", required = false) String roleName,
+        @Parameter(description = "API User from API Gateway header")
+        @RequestHeader(value = "Api-User", required = false) String apiUser,
+        @Parameter(description = "Lab ID from API Gateway header")
+        @RequestHeader(value = "Lab-Id", required = false) String labId,
+        @Parameter(description = "Discipline Name from API Gateway header")
+        @RequestHeader(value = "Discipline-Name", required = false) String disciplineName,
+        @Parameter(description = "Time Zone from API Gateway header")
+        @RequestHeader(value = "Time-Zone", required = false) String timeZone
+    ) {
+        log.debug("Executing runbook for task {} with role: {}, Api-User: {}", request.getTaskId(), roleName, apiUser);
+        
+        if (roleName != null && !roleName.isEmpty()) {
+            request.setUserRole(roleName);
+        }
+        // Downstream calls always return JSON, the client's accept header is text/event-stream
+        request.setCustomHeaders(collectGatewayHeaders(apiUser, labId, disciplineName, timeZone, roleName, null));
+        
+        return runbookExecutionService.execute(request);
+    }
+    
+    /**
+     * Collect custom headers from API Gateway to forward to downstream service
+     */
+    private Map<String, String> collectGatewayHeaders(String apiUser, String labId, String disciplineName,
+                                                      String timeZone, String roleName, String accept) {
+        Map<String, String> customHeaders = new HashMap<>();
+        addHeaderIfPresent(customHeaders, "Api-User", apiUser);
+        addHeaderIfPresent(customHeaders, "Lab-Id", labId);
+        addHeaderIfPresent(customHeaders, "Discipline-Name", disciplineName);
+        addHeaderIfPresent(customHeaders, "Time-Zone", timeZone);
+        addHeaderIfPresent(customHeaders, "Role-Name", roleName);
+        addHeaderIfPresent(customHeaders, "accept", accept);
+        return customHeaders;
+    }
+    
     /**
      * Helper method to add header to map if value is not null and not empty
      */
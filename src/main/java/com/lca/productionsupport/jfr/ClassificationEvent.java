@@ -0,0 +1,41 @@
+package com.lca.productionsupport.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one classification run of a {@link com.lca.productionsupport.service.Classifier}
+ */
+@Name("com.lca.productionsupport.Classification")
+@Label("Runbook Classification")
+@Category({"Production Support", "Classification"})
+@Description("Scoring of a query against the loaded runbooks")
+@StackTrace(false)
+public class ClassificationEvent extends Event {
+
+    @Label("Strategy")
+    @Description("Classification strategy, e.g. keyword or bm25")
+    public String strategy;
+
+    @Label("Query Length")
+    public int queryLength;
+
+    @Label("Candidates Scored")
+    @Description("Runbooks the query was scored against (fewer than loaded when ranking stopped early)")
+    public int candidatesScored;
+
+    @Label("Candidates Matched")
+    @Description("Runbooks with a score above zero")
+    public int candidatesMatched;
+
+    @Label("Winner")
+    @Description("Winning taskId, or UNKNOWN")
+    public String winner;
+
+    @Label("Score")
+    public double score;
+}
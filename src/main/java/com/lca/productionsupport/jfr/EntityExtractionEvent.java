@@ -0,0 +1,32 @@
+package com.lca.productionsupport.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the extraction of one entity by {@link com.lca.productionsupport.service.RunbookEntityExtractor}
+ */
+@Name("com.lca.productionsupport.EntityExtraction")
+@Label("Entity Extraction")
+@Category({"Production Support", "Classification"})
+@Description("Pattern matching for one entity of a runbook")
+@StackTrace(false)
+public class EntityExtractionEvent extends Event {
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("Query Length")
+    public int queryLength;
+
+    @Label("Patterns Tried")
+    public int patternsTried;
+
+    @Label("Matched Pattern Index")
+    @Description("Index of the pattern that produced the value, -1 if none did")
+    public int matchedPatternIndex;
+}
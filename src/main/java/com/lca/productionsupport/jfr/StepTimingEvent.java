@@ -0,0 +1,53 @@
+package com.lca.productionsupport.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one step executed by {@link com.lca.productionsupport.service.StepExecutionService}.
+ * The event duration covers the whole step; the downstream and verification timespans show how it splits.
+ */
+@Name("com.lca.productionsupport.StepExecution")
+@Label("Runbook Step Execution")
+@Category({"Production Support", "Step Execution"})
+@Description("Execution of one runbook step, including the downstream call")
+@StackTrace(false)
+public class StepTimingEvent extends Event {
+
+    @Label("Task Id")
+    public String taskId;
+
+    @Label("Step Number")
+    public int stepNumber;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Downstream Service")
+    public String downstreamService;
+
+    @Label("Downstream Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    public long downstreamLatency;
+
+    @Label("Verification Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long verificationTime;
+
+    @Label("Request Body Size")
+    @DataAmount(DataAmount.BYTES)
+    public long requestBodyBytes;
+
+    @Label("Response Body Length")
+    @Description("Response body length in characters")
+    public long responseBodyLength;
+
+    @Label("Success")
+    public boolean success;
+}
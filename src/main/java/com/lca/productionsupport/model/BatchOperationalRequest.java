@@ -0,0 +1,28 @@
+package com.lca.productionsupport.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch of operational requests processed in a single call
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationalRequest {
+    
+    /**
+     * Requests to process; responses are returned in the same order
+     */
+    @NotEmpty(message = "Requests are required and cannot be empty")
+    @Size(max = 1000, message = "A batch can contain at most 1000 requests")
+    private List<@Valid OperationalRequest> requests;
+}
@@ -0,0 +1,28 @@
+package com.lca.productionsupport.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Responses for a batch of operational requests
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationalResponse {
+    
+    /**
+     * One response per request, in request order
+     */
+    private List<OperationalResponse> responses;
+    
+    /**
+     * Time taken to process the whole batch in milliseconds
+     */
+    private Long durationMs;
+}
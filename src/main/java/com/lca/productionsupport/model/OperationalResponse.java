@@ -1,5 +1,6 @@
 package com.lca.productionsupport.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -27,6 +28,21 @@ public class OperationalResponse {
      */
     private String taskName;
     
+    /**
+     * The task's share of the ranked candidates' total classification score (0-1). Relative to the
+     * alternatives, not an absolute confidence: a lone weak match still gets 1.
+     * Absent when the task was given explicitly
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double share;
+    
+    /**
+     * Runner-up tasks with their shares, best first, for the UI to offer when the
+     * classification looks wrong; absent when the task was given explicitly
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Alternative> alternatives;
+    
     /**
      * Downstream service that handles this task
      */
@@ -47,6 +63,16 @@ public class OperationalResponse {
      */
     private List<String> warnings;
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Alternative {
+        private String taskId;
+        private String taskName;
+        private Double share;
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
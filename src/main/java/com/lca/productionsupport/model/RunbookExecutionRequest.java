@@ -0,0 +1,72 @@
+package com.lca.productionsupport.model;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Request to execute all steps of a runbook server-side
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunbookExecutionRequest {
+    
+    /**
+     * The task ID (CANCEL_CASE, UPDATE_CASE_STATUS)
+     */
+    @NotBlank(message = "Task ID is required")
+    private String taskId;
+    
+    /**
+     * Downstream service to route the requests to
+     */
+    @Builder.Default
+    private String downstreamService = "ap-services";
+    
+    /**
+     * Extracted entities (case_id, status, etc.)
+     */
+    private Map<String, String> entities;
+    
+    /**
+     * User ID making the request
+     */
+    private String userId;
+    
+    /**
+     * Authorization token for downstream API calls
+     */
+    private String authToken;
+    
+    /**
+     * User role extracted from API Gateway headers (e.g., "Production Support")
+     */
+    private String userRole;
+    
+    /**
+     * Custom headers from API Gateway to forward to downstream service
+     */
+    private Map<String, String> customHeaders;
+    
+    /**
+     * Build the request for one step of this runbook
+     */
+    public StepExecutionRequest toStepRequest(int stepNumber) {
+        return StepExecutionRequest.builder()
+            .taskId(taskId)
+            .downstreamService(downstreamService)
+            .stepNumber(stepNumber)
+            .entities(entities)
+            .userId(userId)
+            .authToken(authToken)
+            .userRole(userRole)
+            .customHeaders(customHeaders)
+            .build();
+    }
+}
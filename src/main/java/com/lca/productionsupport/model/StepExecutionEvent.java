@@ -0,0 +1,85 @@
+package com.lca.productionsupport.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lifecycle event of a step during server-side runbook execution (sent as a server-sent event)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StepExecutionEvent {
+    
+    public enum Type {
+        QUEUED("queued"),
+        STARTED("started"),
+        DOWNSTREAM_SENT("downstream-sent"),
+        VERIFIED("verified"),
+        FAILED("failed"),
+        AWAITING_APPROVAL("awaiting-approval"),
+        COMPLETED("completed");
+        
+        private final String eventName;
+        
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+        
+        /**
+         * SSE event name
+         */
+        public String getEventName() {
+            return eventName;
+        }
+    }
+    
+    private Type type;
+    
+    private String taskId;
+    
+    /**
+     * Step number, null for the COMPLETED event. For AWAITING_APPROVAL, the step that needs an
+     * operator's approval; the stream ends with that event.
+     */
+    private Integer stepNumber;
+    
+    private String stepType;
+    
+    private String stepDescription;
+    
+    /**
+     * Epoch milliseconds when the event was emitted
+     */
+    private Long timestamp;
+    
+    /**
+     * Milliseconds since the runbook execution started
+     */
+    private Long elapsedMs;
+    
+    /**
+     * Step duration (VERIFIED, FAILED) or total execution duration (COMPLETED)
+     */
+    private Long durationMs;
+    
+    /**
+     * Step response or error message
+     */
+    private String message;
+    
+    /**
+     * Full step result (VERIFIED, FAILED)
+     */
+    private StepExecutionResponse result;
+    
+    /**
+     * Whether every required step succeeded (COMPLETED)
+     */
+    private Boolean success;
+}
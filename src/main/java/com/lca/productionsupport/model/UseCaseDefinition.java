@@ -1,5 +1,6 @@
 package com.lca.productionsupport.model;
 
+import com.lca.productionsupport.template.RequestBodyTemplate;
 import lombok.Data;
 import java.util.List;
 import java.util.Map;
@@ -90,6 +91,12 @@ public class UseCaseDefinition {
         private VerificationConfig verification; // Configuration for verifying API response and generating stepResponse
         private String stepResponseMessage; // Template message for stepResponse when verification passes (e.g., "Audit Log entry was created by {modifiedBy} for {caseId} and status was changed to {status}")
         private String stepResponseErrorMessage; // Template message for stepResponse when verification fails (e.g., "Case cancellation verification failed for {case_id} and the current status is {status}")
+        private transient RequestBodyTemplate bodyTemplate; // Compiled body, set when the runbook is loaded (not read from YAML)
+        
+        public void setBody(Map<String, Object> body) {
+            this.body = body;
+            this.bodyTemplate = null;
+        }
     }
     
     @Data
@@ -0,0 +1,56 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.config.BatchExecutor;
+import com.lca.productionsupport.model.OperationalRequest;
+import com.lca.productionsupport.model.OperationalResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Processes batches of operational requests in parallel on the bounded batch executor
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchProcessingService {
+
+    private final ProductionSupportOrchestrator orchestrator;
+    private final RunbookRegistry runbookRegistry;
+    private final BatchExecutor batchExecutor;
+
+    /**
+     * Process all requests against one runbook snapshot and return the responses in request order
+     */
+    public List<OperationalResponse> processBatch(List<OperationalRequest> requests) {
+        // One snapshot for the whole batch, so a concurrent reload cannot mix runbook versions
+        RunbookRegistry.Snapshot snapshot = runbookRegistry.getSnapshot();
+        
+        List<CompletableFuture<OperationalResponse>> futures = new ArrayList<>(requests.size());
+        for (OperationalRequest request : requests) {
+            futures.add(CompletableFuture.supplyAsync(
+                () -> orchestrator.processRequest(request, snapshot), batchExecutor.executorService()));
+        }
+        
+        List<OperationalResponse> responses = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<OperationalResponse> future : futures) {
+                responses.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        
+        log.info("Processed batch of {} requests", responses.size());
+        return responses;
+    }
+}
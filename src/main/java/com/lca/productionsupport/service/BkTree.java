@@ -0,0 +1,198 @@
+package com.lca.productionsupport.service;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Burkhard-Keller tree over a word list for nearest-word lookups by edit distance. Each child
+ * sits at its distance from the parent, so by the triangle inequality a search within distance d of a
+ * node at distance n from the query only descends into children n-d..n+d instead of comparing the
+ * query with every word. Lookups work in per-thread buffers that grow to the largest word and tree
+ * seen, so they allocate nothing once warm.
+ */
+final class BkTree {
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final Node root;
+    private final int size;
+
+    private BkTree(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Build a tree over the distinct words (inserted in sorted order, so lookups are deterministic)
+     */
+    static BkTree of(Collection<String> words) {
+        Node root = null;
+        int size = 0;
+        for (String word : new TreeSet<>(words)) {
+            if (root == null) {
+                root = new Node(word);
+            } else {
+                root.add(word);
+            }
+            size++;
+        }
+        return new BkTree(root, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Closest word within maxDistance of the given word (the alphabetically first on ties), or null
+     */
+    String closest(String word, int maxDistance) {
+        if (root == null) {
+            return null;
+        }
+        Scratch scratch = SCRATCH.get();
+        // Each node is pushed at most once, so the stack never holds more than the tree
+        Node[] pending = scratch.pending(size);
+        int top = 0;
+        pending[top++] = root;
+        String best = null;
+        int bestDistance = maxDistance + 1;
+        while (top > 0) {
+            Node node = pending[--top];
+            pending[top] = null;
+            int distance = distance(word, node.word, scratch);
+            if (distance < bestDistance || (distance == bestDistance && best != null && node.word.compareTo(best) < 0)) {
+                best = node.word;
+                bestDistance = distance;
+            }
+            // Only children within the current search radius of the query's distance can improve on it
+            int radius = Math.min(maxDistance, bestDistance);
+            int from = Math.max(1, distance - radius);
+            int to = Math.min(node.children.length - 1, distance + radius);
+            for (int childDistance = from; childDistance <= to; childDistance++) {
+                Node child = node.children[childDistance];
+                if (child != null) {
+                    pending[top++] = child;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Damerau-Levenshtein distance: insertions, deletions, substitutions and transpositions of adjacent
+     * characters each count one edit ("cancle" is one edit from "cancel"). Unlike the restricted
+     * (optimal string alignment) variant this is a metric, which the tree's pruning relies on.
+     */
+    static int distance(String a, String b) {
+        return distance(a, b, SCRATCH.get());
+    }
+
+    private static int distance(String a, String b, Scratch scratch) {
+        int maxChar = 0;
+        for (int i = 0; i < a.length(); i++) {
+            maxChar = Math.max(maxChar, a.charAt(i));
+        }
+        for (int j = 0; j < b.length(); j++) {
+            maxChar = Math.max(maxChar, b.charAt(j));
+        }
+        // Last row in which each character was seen in a (all zero between calls)
+        int[] lastRow = scratch.lastRow(maxChar + 1);
+        int infinity = a.length() + b.length();
+        // (a.length() + 2) x (b.length() + 2) matrix, shifted by one: d[(i + 1) * width + j + 1] is the
+        // distance between the first i chars of a and the first j of b. Every cell read is written
+        // first, so a reused buffer needs no clearing.
+        int width = b.length() + 2;
+        int[] d = scratch.matrix((a.length() + 2) * width);
+        d[0] = infinity;
+        for (int i = 0; i <= a.length(); i++) {
+            d[(i + 1) * width] = infinity;
+            d[(i + 1) * width + 1] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[j + 1] = infinity;
+            d[width + j + 1] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            // Last column in this row where a and b matched
+            int lastMatchColumn = 0;
+            for (int j = 1; j <= b.length(); j++) {
+                int k = lastRow[b.charAt(j - 1)];
+                int l = lastMatchColumn;
+                int cost = 1;
+                if (a.charAt(i - 1) == b.charAt(j - 1)) {
+                    cost = 0;
+                    lastMatchColumn = j;
+                }
+                d[(i + 1) * width + j + 1] = Math.min(
+                    Math.min(d[i * width + j] + cost, d[(i + 1) * width + j] + 1),
+                    Math.min(d[i * width + j + 1] + 1, d[k * width + l] + (i - k - 1) + 1 + (j - l - 1)));
+            }
+            lastRow[a.charAt(i - 1)] = i;
+        }
+        for (int i = 0; i < a.length(); i++) {
+            lastRow[a.charAt(i)] = 0;
+        }
+        return d[(a.length() + 1) * width + b.length() + 1];
+    }
+
+    /**
+     * Per-thread lookup buffers, grown on demand
+     */
+    private static final class Scratch {
+        int[] matrix = new int[0];
+        int[] lastRow = new int[128];
+        Node[] pending = new Node[0];
+
+        int[] matrix(int length) {
+            if (matrix.length < length) {
+                matrix = new int[length];
+            }
+            return matrix;
+        }
+
+        int[] lastRow(int length) {
+            if (lastRow.length < length) {
+                lastRow = new int[length];
+            }
+            return lastRow;
+        }
+
+        Node[] pending(int length) {
+            if (pending.length < length) {
+                pending = new Node[length];
+            }
+            return pending;
+        }
+    }
+
+    private static final class Node {
+        final String word;
+        // Children by their distance from this node's word
+        Node[] children = new Node[0];
+
+        Node(String word) {
+            this.word = word;
+        }
+
+        void add(String word) {
+            Node node = this;
+            while (true) {
+                int distance = distance(word, node.word);
+                if (distance == 0) {
+                    return;
+                }
+                if (distance >= node.children.length) {
+                    Node[] grown = new Node[distance + 1];
+                    System.arraycopy(node.children, 0, grown, 0, node.children.length);
+                    node.children = grown;
+                }
+                if (node.children[distance] == null) {
+                    node.children[distance] = new Node(word);
+                    return;
+                }
+                node = node.children[distance];
+            }
+        }
+    }
+}
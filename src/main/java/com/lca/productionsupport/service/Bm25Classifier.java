@@ -0,0 +1,330 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.jfr.ClassificationEvent;
+import com.lca.productionsupport.model.UseCaseDefinition;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classifies queries with Okapi BM25 (the "bm25" classification strategy). Each runbook is a document
+ * made of the words of its keywords and synonyms (synonym words count half, as in the keyword scorer);
+ * term frequencies, document lengths and inverse document frequencies are computed once per runbook
+ * snapshot. Words shared by many runbooks ("case", "update") weigh less than distinctive ones ("stain"),
+ * and a word repeated across a runbook's keywords saturates instead of adding up.
+ *
+ * A runbook only competes when the query contains at least one word of its keywords; synonyms alone
+ * only add score. This replaces minConfidence, whose values are on the keyword scorer's scale.
+ */
+@Slf4j
+public class Bm25Classifier implements Classifier {
+
+    static final String STRATEGY = "bm25";
+
+    // Term frequency saturation and document length normalization
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final double SYNONYM_WEIGHT = 0.5;
+    // classifyMultiple returns every runbook scoring at least this fraction of the winner
+    static final double AMBIGUITY_RATIO = 0.8;
+
+    static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "the", "to", "for", "of", "from", "with", "in", "on", "at", "by", "and", "or", "is",
+        "please", "can", "could", "you", "i", "need", "me", "my", "it", "this", "that");
+
+    private final RunbookRegistry registry;
+    private volatile Index index;
+
+    public Bm25Classifier(RunbookRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String classify(String query) {
+        if (!registry.isEnabled()) {
+            log.debug("Runbook classification disabled, returning UNKNOWN");
+            return UNKNOWN;
+        }
+        return classify(query, registry.getSnapshot());
+    }
+
+    @Override
+    public Classification classify(NormalizedQuery query, RunbookRegistry.Snapshot snapshot, int k) {
+        if (snapshot.isEmpty()) {
+            return Classification.NONE;
+        }
+
+        ClassificationEvent event = new ClassificationEvent();
+        event.begin();
+
+        Index current = indexFor(snapshot);
+        Scores scores = current.score(query);
+        Classification classification = scores.top(current.ids, k);
+        String bestMatch = classification.winner();
+
+        if (event.shouldCommit()) {
+            event.strategy = STRATEGY;
+            event.queryLength = query.length();
+            event.candidatesScored = current.ids.length;
+            event.candidatesMatched = scores.touched;
+            event.winner = bestMatch;
+            event.score = classification.matches().isEmpty() ? 0.0 : classification.matches().get(0).score();
+            event.commit();
+        }
+
+        if (classification.matches().isEmpty()) {
+            log.atWarn().setMessage("No matching use case found").addKeyValue("query", query::text).log();
+            return classification;
+        }
+
+        log.atDebug().setMessage("Classified query")
+            .addKeyValue("taskId", bestMatch)
+            .addKeyValue("score", () -> classification.matches().get(0).score())
+            .log();
+
+        return classification;
+    }
+
+    @Override
+    public List<String> classifyMultiple(String query) {
+        if (!registry.isEnabled()) {
+            return List.of();
+        }
+        RunbookRegistry.Snapshot snapshot = registry.getSnapshot();
+        if (snapshot.isEmpty()) {
+            return List.of();
+        }
+
+        Index current = indexFor(snapshot);
+        List<Classification.Match> matches = current.score(NormalizedQuery.of(query)).top(current.ids, current.ids.length).matches();
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        double threshold = matches.get(0).score() * AMBIGUITY_RATIO;
+        return matches.stream()
+            .filter(match -> match.score() >= threshold)
+            .map(Classification.Match::taskId)
+            .toList();
+    }
+
+    /**
+     * Lowercase words of the query, without stop words, each once
+     */
+    static Set<String> tokenize(String text) {
+        NormalizedQuery normalized = NormalizedQuery.of(text);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (int t = 0; t < normalized.tokenCount(); t++) {
+            String token = normalized.token(t);
+            if (!STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Index indexFor(RunbookRegistry.Snapshot snapshot) {
+        Index current = index;
+        if (current == null || current.snapshot != snapshot) {
+            current = Index.build(snapshot);
+            index = current;
+        }
+        return current;
+    }
+
+    /**
+     * Per-term postings (weighted term frequency per runbook) and idf for one snapshot
+     */
+    static final class Index {
+        final RunbookRegistry.Snapshot snapshot;
+        final String[] ids;
+        // Looked up with the query's tokens in place
+        final TokenMap<Postings> postings;
+        private final ThreadLocal<Scores> scratch;
+
+        private Index(RunbookRegistry.Snapshot snapshot, String[] ids, Map<String, Postings> postings) {
+            this.snapshot = snapshot;
+            this.ids = ids;
+            this.postings = new TokenMap<>(postings);
+            int terms = postings.size();
+            scratch = ThreadLocal.withInitial(() -> new Scores(ids.length, terms));
+        }
+
+        static Index build(RunbookRegistry.Snapshot snapshot) {
+            List<UseCaseDefinition> useCases = new ArrayList<>(snapshot.getAllUseCases());
+            int documents = useCases.size();
+            String[] ids = new String[documents];
+            double[] lengths = new double[documents];
+            Map<String, double[]> frequencies = new HashMap<>();
+            Map<String, boolean[]> inKeywords = new HashMap<>();
+
+            for (int doc = 0; doc < documents; doc++) {
+                UseCaseDefinition useCase = useCases.get(doc);
+                ids[doc] = useCase.getUseCase().getId();
+                var classification = useCase.getClassification();
+                if (classification.getKeywords() != null) {
+                    for (String keyword : classification.getKeywords()) {
+                        for (String term : terms(keyword)) {
+                            frequencies.computeIfAbsent(term, t -> new double[documents])[doc] += 1.0;
+                            inKeywords.computeIfAbsent(term, t -> new boolean[documents])[doc] = true;
+                            lengths[doc] += 1.0;
+                        }
+                    }
+                }
+                if (classification.getSynonyms() != null) {
+                    for (List<String> synonyms : classification.getSynonyms().values()) {
+                        for (String synonym : synonyms) {
+                            for (String term : terms(synonym)) {
+                                frequencies.computeIfAbsent(term, t -> new double[documents])[doc] += SYNONYM_WEIGHT;
+                                lengths[doc] += SYNONYM_WEIGHT;
+                            }
+                        }
+                    }
+                }
+            }
+
+            double totalLength = 0;
+            for (double length : lengths) {
+                totalLength += length;
+            }
+            double averageLength = documents > 0 && totalLength > 0 ? totalLength / documents : 1.0;
+
+            // Precompute each posting's BM25 contribution, a query only sums them
+            Map<String, Postings> postings = new HashMap<>();
+            frequencies.forEach((term, tf) -> {
+                int df = 0;
+                for (double frequency : tf) {
+                    if (frequency > 0) {
+                        df++;
+                    }
+                }
+                double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+                int[] docs = new int[df];
+                double[] weights = new double[df];
+                boolean[] keyword = new boolean[df];
+                boolean[] termInKeywords = inKeywords.get(term);
+                int i = 0;
+                for (int doc = 0; doc < documents; doc++) {
+                    if (tf[doc] > 0) {
+                        double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                        docs[i] = doc;
+                        weights[i] = idf * tf[doc] * (K1 + 1) / (tf[doc] + norm);
+                        keyword[i] = termInKeywords != null && termInKeywords[doc];
+                        i++;
+                    }
+                }
+                postings.put(term, new Postings(postings.size(), docs, weights, keyword));
+            });
+            return new Index(snapshot, ids, postings);
+        }
+
+        /**
+         * Scores of the query's words (as split by {@link #tokenize}), each counted once. The scores are
+         * this thread's scratch, valid until its next query against this index.
+         */
+        Scores score(NormalizedQuery query) {
+            Scores scores = scratch.get();
+            scores.clear();
+            for (int t = 0; t < query.tokenCount(); t++) {
+                // Stop words have no postings
+                Postings posting = postings.get(query, t);
+                if (posting != null && scores.firstOccurrence(posting.term)) {
+                    for (int i = 0; i < posting.docs.length; i++) {
+                        scores.add(posting.docs[i], posting.weights[i], posting.keyword[i]);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        private static List<String> terms(String phrase) {
+            return new ArrayList<>(tokenize(phrase));
+        }
+    }
+
+    /**
+     * Runbooks containing a term, with the term's precomputed BM25 weight in each and whether it is a
+     * keyword word there
+     * @param term dense id of the term within its index
+     */
+    record Postings(int term, int[] docs, double[] weights, boolean[] keyword) {
+    }
+
+    /**
+     * Accumulated scores of one query, by runbook position in the index. Reused for the next query:
+     * clearing only resets the runbooks the previous query reached.
+     */
+    static final class Scores {
+        final double[] values;
+        final boolean[] competing;
+        // Positions with a score, in the order they were first reached
+        final int[] touchedDocs;
+        int touched;
+        // Query number in which each term was last seen
+        private final int[] termSeenAt;
+        private int query;
+        private TopK top;
+
+        Scores(int documents, int terms) {
+            values = new double[documents];
+            competing = new boolean[documents];
+            touchedDocs = new int[documents];
+            termSeenAt = new int[terms];
+        }
+
+        void clear() {
+            for (int i = 0; i < touched; i++) {
+                values[touchedDocs[i]] = 0;
+                competing[touchedDocs[i]] = false;
+            }
+            touched = 0;
+            if (++query == 0) {
+                Arrays.fill(termSeenAt, 0);
+                query = 1;
+            }
+        }
+
+        /**
+         * Whether this is the first time the current query has the term
+         */
+        boolean firstOccurrence(int term) {
+            if (termSeenAt[term] == query) {
+                return false;
+            }
+            termSeenAt[term] = query;
+            return true;
+        }
+
+        void add(int doc, double weight, boolean keyword) {
+            if (values[doc] == 0) {
+                touchedDocs[touched++] = doc;
+            }
+            values[doc] += weight;
+            if (keyword) {
+                competing[doc] = true;
+            }
+        }
+
+        /**
+         * The k highest scoring competing runbooks, only visiting runbooks the query reached
+         */
+        Classification top(String[] ids, int k) {
+            if (touched == 0) {
+                return Classification.NONE;
+            }
+            top = TopK.reuse(top, Math.min(k, touched));
+            for (int i = 0; i < touched; i++) {
+                int doc = touchedDocs[i];
+                if (competing[doc]) {
+                    top.offer(doc, values[doc]);
+                }
+            }
+            return Classification.of(ids, top);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.lca.productionsupport.service;
+
+import java.util.List;
+
+/**
+ * Ranked result of classifying a query: the best matching use cases, best first
+ * @param matches at most k matches; empty when nothing matched
+ */
+public record Classification(List<Match> matches) {
+
+    public static final Classification NONE = new Classification(List.of());
+
+    /**
+     * @param score the classifier's raw score (on its own scale)
+     * @param share share of the ranked matches' total score, 0-1; the shares of one classification add up
+     *              to 1. It is relative to the other matches, not a confidence: a single weak match has a
+     *              share of 1, and shares change with the number of matches ranked
+     */
+    public record Match(String taskId, double score, double share) {
+    }
+
+    /**
+     * Build a classification from (and empty) a top-k selection
+     * @param ids use case ids by index position
+     */
+    static Classification of(String[] ids, TopK top) {
+        int count = top.size();
+        if (count == 0) {
+            return NONE;
+        }
+        double total = top.total();
+        Match[] matches = new Match[count];
+        // The heap yields the worst first, so fill from the back
+        for (int i = count - 1; i >= 0; i--) {
+            matches[i] = new Match(ids[top.worst()], top.threshold(), top.threshold() / total);
+            top.removeWorst();
+        }
+        return new Classification(List.of(matches));
+    }
+
+    /**
+     * The best matching use case ID, or {@value Classifier#UNKNOWN}
+     */
+    public String winner() {
+        return matches.isEmpty() ? Classifier.UNKNOWN : matches.get(0).taskId();
+    }
+
+    public List<String> taskIds() {
+        return matches.stream().map(Match::taskId).toList();
+    }
+}
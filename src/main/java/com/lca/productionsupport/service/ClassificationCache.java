@@ -0,0 +1,66 @@
+package com.lca.productionsupport.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of classification results, keyed by the query template from {@link QueryTemplater}
+ * so queries that only differ in their entity values share one entry.
+ * Entries expire after a TTL and are never reused after a runbook reload.
+ * Hit/miss, eviction and size metrics are exported under the "classification" cache name.
+ */
+@Slf4j
+@Component
+public class ClassificationCache {
+
+    static final String CACHE_NAME = "classification";
+
+    private final Cache<CacheKey, Classification> cache;
+    private volatile long generation;
+
+    public ClassificationCache(
+            MeterRegistry meterRegistry,
+            @Value("${classification.cache.maximum-size:10000}") long maximumSize,
+            @Value("${classification.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Classification cache initialized (maximumSize: {}, expireAfterWrite: {})", maximumSize, expireAfterWrite);
+    }
+
+    /**
+     * Get the cached classification for a query template, classifying it on a miss
+     * @param snapshot runbook snapshot the classifier runs against
+     * @param template query template (see {@link QueryTemplater#template(NormalizedQuery)})
+     * @param classifier ranks the use cases matching the template
+     */
+    public Classification get(RunbookRegistry.Snapshot snapshot, String template, Function<String, Classification> classifier) {
+        long current = snapshot.getGeneration();
+        if (current > generation) {
+            // Runbooks were reloaded: drop everything computed against the old set
+            generation = current;
+            cache.invalidateAll();
+            log.info("Runbooks reloaded, classification cache invalidated");
+        }
+
+        return cache.get(new CacheKey(current, template), key -> classifier.apply(key.template()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private record CacheKey(long generation, String template) {
+    }
+}
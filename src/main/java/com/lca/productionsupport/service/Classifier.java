@@ -0,0 +1,46 @@
+package com.lca.productionsupport.service;
+
+import java.util.List;
+
+/**
+ * Strategy for matching a natural language query to a runbook. The implementation is selected by
+ * classification.strategy (see {@link com.lca.productionsupport.config.ClassifierConfig}).
+ */
+public interface Classifier {
+
+    String UNKNOWN = "UNKNOWN";
+
+    /**
+     * Classify a query against the current runbooks
+     * @return the best matching use case ID, or {@value #UNKNOWN}
+     */
+    String classify(String query);
+
+    /**
+     * Classify a query against a specific runbook snapshot
+     * @return the best matching use case ID, or {@value #UNKNOWN}
+     */
+    default String classify(String query, RunbookRegistry.Snapshot snapshot) {
+        return classify(query, snapshot, 1).winner();
+    }
+
+    /**
+     * Rank the best matching use cases for a query against a specific runbook snapshot in one
+     * scoring pass
+     * @param k maximum number of matches (the winner and k - 1 alternates)
+     */
+    default Classification classify(String query, RunbookRegistry.Snapshot snapshot, int k) {
+        return classify(NormalizedQuery.of(query), snapshot, k);
+    }
+
+    /**
+     * Rank the best matching use cases for an already normalized query (see
+     * {@link #classify(String, RunbookRegistry.Snapshot, int)})
+     */
+    Classification classify(NormalizedQuery query, RunbookRegistry.Snapshot snapshot, int k);
+
+    /**
+     * Return all use cases that match the query (for ambiguous cases)
+     */
+    List<String> classifyMultiple(String query);
+}
@@ -0,0 +1,71 @@
+package com.lca.productionsupport.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timer for downstream HTTP calls made by step execution, tagged by service, HTTP method,
+ * path template (the runbook path before placeholders are filled, to keep cardinality low),
+ * status class and error category.
+ */
+@Component
+public class DownstreamMetrics {
+
+    static final String REQUEST_TIMER = "downstream.requests";
+
+    static final String NONE = "none";
+    private static final int MAX_CAUSE_DEPTH = 10;
+
+    private final MeterRegistry meterRegistry;
+
+    public DownstreamMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Record a successful call
+     */
+    public void recordSuccess(String service, String method, String pathTemplate, long durationNanos) {
+        record(service, method, pathTemplate, "2xx", NONE, durationNanos);
+    }
+
+    /**
+     * Record a failed call
+     * @param errorCategory category from {@link ErrorMessageTranslator}
+     */
+    public void recordFailure(String service, String method, String pathTemplate, Throwable error,
+                              String errorCategory, long durationNanos) {
+        record(service, method, pathTemplate, statusClass(error), errorCategory != null ? errorCategory : NONE, durationNanos);
+    }
+
+    private void record(String service, String method, String pathTemplate, String status, String error, long durationNanos) {
+        Timer.builder(REQUEST_TIMER)
+            .description("Downstream calls made by runbook steps")
+            .tag("service", service)
+            .tag("method", method)
+            .tag("path", pathTemplate != null ? pathTemplate : NONE)
+            .tag("status", status)
+            .tag("error", error)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Status class of the downstream response in the cause chain ("4xx", "5xx"), or "none" when no
+     * response was received (connection errors, timeouts)
+     */
+    static String statusClass(Throwable error) {
+        Throwable t = error;
+        for (int depth = 0; t != null && depth < MAX_CAUSE_DEPTH; depth++, t = t.getCause()) {
+            if (t instanceof WebClientResponseException responseException) {
+                return (responseException.getStatusCode().value() / 100) + "xx";
+            }
+        }
+        return NONE;
+    }
+}
@@ -1,15 +1,38 @@
 package com.lca.productionsupport.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
 /**
@@ -19,19 +42,207 @@ import java.util.regex.Pattern;
 @Service
 public class ErrorMessageTranslator {
     
-    private ErrorMappingConfig config;
+    private static final int MAX_CAUSE_DEPTH = 10;
+    private static final String API_ERROR_PREFIX = "API Error: ";
+    
+    static final String TRANSLATION_CACHE_NAME = "error-translation";
+    static final String API_MESSAGE_CACHE_NAME = "api-error-message";
+    
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    
+    /**
+     * Downstream error texts repeat heavily during incidents, so each distinct text is
+     * pattern-matched / JSON-parsed once per TTL window.
+     * Error texts can be whole response bodies, so the caches are bounded by the total length
+     * of the cached texts rather than by entry count.
+     */
+    private final Cache<TranslationKey, TranslationResult> translationCache;
+    private final Cache<String, Optional<String>> apiMessageCache;
+    
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+    
+    /**
+     * Symlink a mounted ConfigMap swaps to publish an update
+     */
+    private static final Path CONFIG_MAP_DATA_LINK = Path.of("..data");
+    
+    /**
+     * Optional external error-messages.yaml, watched and reloaded on change
+     */
+    @Value("${error-translation.mappings-location:}")
+    private String mappingsLocation;
+    
+    @Value("${error-translation.watch-enabled:true}")
+    private boolean watchEnabled;
+    
+    /**
+     * Replaced as a whole on reload, never modified
+     */
+    private volatile CompiledMappings mappings;
+    private volatile WatchService watchService;
+    
+    public ErrorMessageTranslator(
+            MeterRegistry meterRegistry,
+            @Value("${error-translation.cache.maximum-weight:2000000}") long maximumWeight,
+            @Value("${error-translation.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        // The translation's technical details are the key itself
+        this.translationCache = Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .<TranslationKey, TranslationResult>weigher((key, result) -> key.text().length())
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        this.apiMessageCache = Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .<String, Optional<String>>weigher((text, message) -> text.length() + message.map(String::length).orElse(0))
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, translationCache, TRANSLATION_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, apiMessageCache, API_MESSAGE_CACHE_NAME);
+    }
     
     @PostConstruct
     public void init() {
+        Path externalFile = getExternalFile();
+        CompiledMappings compiled = null;
+        if (externalFile != null && Files.isRegularFile(externalFile)) {
+            try {
+                compiled = CompiledMappings.compile(loadConfig(externalFile).getErrorMappings());
+                if (compiled.size() == 0) {
+                    log.warn("Error message mappings file {} has no valid mappings, using classpath error-messages.yaml", externalFile);
+                    compiled = null;
+                } else {
+                    log.info("Loaded {} error message mappings from {}", compiled.size(), externalFile);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to load error message mappings from {}, using classpath error-messages.yaml: {}", externalFile, e.getMessage());
+            }
+        } else if (externalFile != null) {
+            log.warn("Error message mappings file {} not found, using classpath error-messages.yaml", externalFile);
+        }
+        
+        if (compiled == null) {
+            ErrorMappingConfig config;
+            try {
+                ClassPathResource resource = new ClassPathResource("error-messages.yaml");
+                config = YAML_MAPPER.readValue(resource.getInputStream(), ErrorMappingConfig.class);
+                log.info("Loaded {} error message mappings", config.getErrorMappings().size());
+            } catch (IOException e) {
+                log.error("Failed to load error-messages.yaml, using default fallback", e);
+                // Fallback to default configuration
+                config = getDefaultConfig();
+            }
+            compiled = CompiledMappings.compile(config.getErrorMappings());
+        }
+        swapMappings(compiled);
+        
+        if (externalFile != null && watchEnabled) {
+            startWatcher(externalFile);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                log.debug("Failed to close error message mappings watcher", e);
+            }
+        }
+    }
+    
+    /**
+     * Reload mappings from the external file.
+     * The new set is parsed and compiled first and then swapped in, so translations in flight keep using
+     * the old set and never see a partial one. If the file is missing or invalid the current set is kept.
+     * @return true if the mappings were replaced
+     */
+    public boolean reload() {
+        Path externalFile = getExternalFile();
+        if (externalFile == null) {
+            return false;
+        }
+        
+        try {
+            ErrorMappingConfig config = loadConfig(externalFile);
+            CompiledMappings compiled = CompiledMappings.compile(config.getErrorMappings());
+            if (compiled.size() == 0) {
+                log.warn("Error message mappings file {} has no valid mappings, keeping current mappings", externalFile);
+                return false;
+            }
+            swapMappings(compiled);
+            log.info("Reloaded {} error message mappings from {}", compiled.size(), externalFile);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to reload error message mappings from {}, keeping current mappings: {}", externalFile, e.getMessage());
+            return false;
+        }
+    }
+    
+    private void swapMappings(CompiledMappings compiled) {
+        mappings = compiled;
+        // Translations of the old mappings are keyed by its generation and never looked up again,
+        // this only frees them (a translation still in flight may be stored after it)
+        translationCache.invalidateAll();
+    }
+    
+    private Path getExternalFile() {
+        return mappingsLocation != null && !mappingsLocation.isBlank() ? Path.of(mappingsLocation) : null;
+    }
+    
+    private ErrorMappingConfig loadConfig(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            ErrorMappingConfig config = YAML_MAPPER.readValue(in, ErrorMappingConfig.class);
+            if (config == null || config.getErrorMappings() == null) {
+                throw new IOException("No errorMappings in " + file);
+            }
+            return config;
+        }
+    }
+    
+    /**
+     * Watch the directory of the external file and reload on changes, on a daemon thread.
+     * A mounted Kubernetes ConfigMap never changes the file itself: the file is a symlink into ..data,
+     * and an update atomically renames a new ..data symlink into place, so changes of ..data are reloaded too.
+     */
+    private void startWatcher(Path externalFile) {
+        Path directory = externalFile.toAbsolutePath().getParent();
+        Path fileName = externalFile.getFileName();
         try {
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-            ClassPathResource resource = new ClassPathResource("error-messages.yaml");
-            config = mapper.readValue(resource.getInputStream(), ErrorMappingConfig.class);
-            log.info("Loaded {} error message mappings", config.getErrorMappings().size());
+            WatchService service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchService = service;
+            
+            Thread watcher = new Thread(() -> watch(service, fileName), "error-messages-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            log.info("Watching {} for error message mapping changes", externalFile);
         } catch (IOException e) {
-            log.error("Failed to load error-messages.yaml, using default fallback", e);
-            // Fallback to default configuration
-            config = getDefaultConfig();
+            log.warn("Could not watch {} for changes, mappings will not be reloaded", externalFile, e);
+        }
+    }
+    
+    private void watch(WatchService service, Path fileName) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                        || fileName.equals(event.context()) || CONFIG_MAP_DATA_LINK.equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
         }
     }
     
@@ -49,21 +260,22 @@ public class ErrorMessageTranslator {
             );
         }
         
-        // Try to match against patterns
-        for (ErrorMapping mapping : config.getErrorMappings()) {
-            try {
-                Pattern pattern = Pattern.compile(mapping.getPattern(), Pattern.CASE_INSENSITIVE);
-                if (pattern.matcher(technicalError).find()) {
-                    log.debug("Matched error pattern: {} for error: {}", mapping.getPattern(), technicalError);
-                    return new TranslationResult(
-                        mapping.getUserMessage(),
-                        technicalError,
-                        mapping.getCategory()
-                    );
-                }
-            } catch (Exception e) {
-                log.warn("Invalid regex pattern: {}", mapping.getPattern(), e);
-            }
+        // The mappings read here are the ones the cached translation is made with
+        CompiledMappings current = mappings;
+        return translationCache.get(new TranslationKey(current.generation(), technicalError),
+            key -> translateByPattern(current, key.text()));
+    }
+    
+    private TranslationResult translateByPattern(CompiledMappings current, String technicalError) {
+        // First matching mapping wins
+        ErrorMapping mapping = current.match(technicalError);
+        if (mapping != null) {
+            log.debug("Matched error pattern: {} for error: {}", mapping.getPattern(), technicalError);
+            return new TranslationResult(
+                mapping.getUserMessage(),
+                technicalError,
+                mapping.getCategory()
+            );
         }
         
         // Fallback if no pattern matched
@@ -74,6 +286,86 @@ public class ErrorMessageTranslator {
         );
     }
     
+    /**
+     * Translate an exception to a user-friendly message.
+     * The exception types and HTTP status in the cause chain are looked up in the exceptions/statuses table
+     * first; only when nothing matches is the message matched against the patterns.
+     * @param error The exception thrown while executing a step
+     * @return Translation result, with the exception message as technical details
+     */
+    public TranslationResult translateException(Throwable error) {
+        if (error == null) {
+            return translate((String) null);
+        }
+        
+        String technicalError = error.getMessage() != null ? error.getMessage() : error.toString();
+        
+        Integer status = null;
+        Throwable t = error;
+        for (int depth = 0; t != null && depth < MAX_CAUSE_DEPTH; depth++, t = t.getCause()) {
+            ErrorMapping mapping = mappings.matchType(t.getClass());
+            if (mapping == null && t instanceof WebClientResponseException responseException) {
+                status = responseException.getStatusCode().value();
+                mapping = mappings.matchStatus(status);
+            }
+            if (mapping != null) {
+                log.debug("Matched error {} by type/status for error: {}", mapping.getCategory(), technicalError);
+                return new TranslationResult(mapping.getUserMessage(), technicalError, mapping.getCategory());
+            }
+        }
+        
+        if (status == null) {
+            return translate(technicalError);
+        }
+        
+        // Status is known but not mapped: status-specific patterns would only match digits inside the body
+        ErrorMapping mapping = mappings.matchExcludingStatusMappings(technicalError);
+        if (mapping != null) {
+            return new TranslationResult(mapping.getUserMessage(), technicalError, mapping.getCategory());
+        }
+        return new TranslationResult(
+            "An unexpected error occurred while processing your request.",
+            technicalError,
+            "UNKNOWN_ERROR"
+        );
+    }
+    
+    /**
+     * Extract the message field from an API error
+     * The API response is JSON with a "message" field
+     * Handles format: "API Error: {\"status\":404,\"message\":\"Accession Case not found\"}"
+     * or direct JSON: {"status":404,"message":"Accession Case not found"}
+     * Returns the message value, or null if not found
+     */
+    public String extractApiErrorMessage(String technicalDetails) {
+        if (technicalDetails == null || technicalDetails.isEmpty()) {
+            return null;
+        }
+        return apiMessageCache.get(technicalDetails, this::parseApiErrorMessage).orElse(null);
+    }
+    
+    private Optional<String> parseApiErrorMessage(String technicalDetails) {
+        try {
+            String jsonPart = technicalDetails;
+            
+            // Remove "API Error: " prefix if present (added in StepExecutionService.executeHttpRequest)
+            if (technicalDetails.startsWith(API_ERROR_PREFIX)) {
+                jsonPart = technicalDetails.substring(API_ERROR_PREFIX.length()).trim();
+            }
+            
+            // Parse JSON and extract message field (this is the actual API response)
+            JsonNode jsonNode = jsonMapper.readTree(jsonPart);
+            if (jsonNode.has("message") && jsonNode.get("message").isTextual()) {
+                return Optional.of(jsonNode.get("message").asText());
+            }
+        } catch (Exception e) {
+            // If parsing fails, return null (keep it simple)
+            log.debug("Could not extract API error message from responseBody: {}", technicalDetails, e);
+        }
+        
+        return Optional.empty();
+    }
+    
     /**
      * Default configuration used when YAML file cannot be loaded
      */
@@ -99,6 +391,122 @@ public class ErrorMessageTranslator {
         return defaultConfig;
     }
     
+    /**
+     * Error mappings with their patterns compiled once.
+     * Patterns are tried in order and the first one found anywhere in the text wins. Merging them into one
+     * regex (lookahead or indexed-group alternation) gave no measurable gain over this in
+     * ErrorMessageTranslatorBenchmark, so each pattern keeps its own precompiled Pattern.
+     */
+    static final class CompiledMappings {
+        
+        private static final AtomicLong GENERATIONS = new AtomicLong();
+        
+        private final long generation = GENERATIONS.incrementAndGet();
+        private final List<ErrorMapping> mappings;
+        private final List<Pattern> patterns;
+        private final Map<String, ErrorMapping> byExceptionType;
+        private final Map<Integer, ErrorMapping> byStatus;
+        private final Map<Class<?>, Optional<ErrorMapping>> resolvedTypes = new ConcurrentHashMap<>();
+        
+        private CompiledMappings(List<ErrorMapping> mappings, List<Pattern> patterns) {
+            this.mappings = mappings;
+            this.patterns = patterns;
+            
+            // First mapping listing a type or status wins, same as for patterns
+            Map<String, ErrorMapping> types = new HashMap<>();
+            Map<Integer, ErrorMapping> statuses = new HashMap<>();
+            for (ErrorMapping mapping : mappings) {
+                if (mapping.getExceptions() != null) {
+                    mapping.getExceptions().forEach(type -> types.putIfAbsent(type, mapping));
+                }
+                if (mapping.getStatuses() != null) {
+                    mapping.getStatuses().forEach(status -> statuses.putIfAbsent(status, mapping));
+                }
+            }
+            this.byExceptionType = Map.copyOf(types);
+            this.byStatus = Map.copyOf(statuses);
+        }
+        
+        /**
+         * @return a number identifying this set of mappings, increasing with each compile
+         */
+        long generation() {
+            return generation;
+        }
+        
+        static CompiledMappings compile(List<ErrorMapping> source) {
+            List<ErrorMapping> mappings = new ArrayList<>();
+            List<Pattern> patterns = new ArrayList<>();
+            for (ErrorMapping mapping : source != null ? source : List.<ErrorMapping>of()) {
+                try {
+                    patterns.add(Pattern.compile(mapping.getPattern(), Pattern.CASE_INSENSITIVE));
+                    mappings.add(mapping);
+                } catch (Exception e) {
+                    log.warn("Invalid regex pattern: {}", mapping.getPattern(), e);
+                }
+            }
+            
+            return new CompiledMappings(List.copyOf(mappings), List.copyOf(patterns));
+        }
+        
+        /**
+         * @return the first mapping whose pattern occurs in the text, or null
+         */
+        ErrorMapping match(String text) {
+            for (int i = 0; i < patterns.size(); i++) {
+                if (patterns.get(i).matcher(text).find()) {
+                    return mappings.get(i);
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * @return the mapping for the exception type or its nearest mapped superclass, or null
+         */
+        ErrorMapping matchType(Class<?> type) {
+            if (byExceptionType.isEmpty()) {
+                return null;
+            }
+            return resolvedTypes.computeIfAbsent(type, t -> {
+                for (Class<?> c = t; c != null; c = c.getSuperclass()) {
+                    ErrorMapping mapping = byExceptionType.get(c.getName());
+                    if (mapping != null) {
+                        return Optional.of(mapping);
+                    }
+                }
+                return Optional.empty();
+            }).orElse(null);
+        }
+        
+        ErrorMapping matchStatus(int status) {
+            return byStatus.get(status);
+        }
+        
+        /**
+         * Pattern match skipping mappings that declare statuses
+         */
+        ErrorMapping matchExcludingStatusMappings(String text) {
+            for (int i = 0; i < patterns.size(); i++) {
+                List<Integer> statuses = mappings.get(i).getStatuses();
+                if ((statuses == null || statuses.isEmpty()) && patterns.get(i).matcher(text).find()) {
+                    return mappings.get(i);
+                }
+            }
+            return null;
+        }
+        
+        int size() {
+            return mappings.size();
+        }
+    }
+    
+    /**
+     * Translation cache key: the error text and the generation of the mappings it was translated with
+     */
+    private record TranslationKey(long generation, String text) {
+    }
+    
     /**
      * Configuration class for error mappings
      */
@@ -115,6 +523,8 @@ public class ErrorMessageTranslator {
         private String pattern;
         private String userMessage;
         private String category;
+        private List<String> exceptions;
+        private List<Integer> statuses;
         
         public ErrorMapping() {}
         
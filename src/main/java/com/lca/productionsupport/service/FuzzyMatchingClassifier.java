@@ -0,0 +1,147 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.model.UseCaseDefinition;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo tolerance for another classifier: query words that are not in the runbook vocabulary (the words
+ * of all keywords and synonyms) are replaced by the closest vocabulary word within a small edit
+ * distance before the query is classified, so "cancle case" classifies like "cancel case". The
+ * vocabulary's {@link BkTree} is built once per runbook snapshot.
+ *
+ * Words shorter than {@value #MIN_WORD_LENGTH} letters, stop words and tokens containing digits
+ * (case numbers, barcodes, slot markers) are never corrected.
+ */
+@Slf4j
+public class FuzzyMatchingClassifier implements Classifier {
+
+    static final int MIN_WORD_LENGTH = 4;
+    // Words of at least this many letters may be two edits away, shorter ones one
+    static final int TWO_EDITS_LENGTH = 8;
+
+    private final Classifier delegate;
+    private final RunbookRegistry registry;
+    private volatile Vocabulary vocabulary;
+
+    public FuzzyMatchingClassifier(Classifier delegate, RunbookRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public String classify(String query) {
+        if (!registry.isEnabled()) {
+            return delegate.classify(query);
+        }
+        return classify(query, registry.getSnapshot());
+    }
+
+    @Override
+    public Classification classify(NormalizedQuery query, RunbookRegistry.Snapshot snapshot, int k) {
+        return delegate.classify(correct(query, snapshot), snapshot, k);
+    }
+
+    @Override
+    public List<String> classifyMultiple(String query) {
+        if (!registry.isEnabled()) {
+            return delegate.classifyMultiple(query);
+        }
+        return delegate.classifyMultiple(correct(NormalizedQuery.of(query), registry.getSnapshot()).text());
+    }
+
+    /**
+     * The lowercased query with misspelled words replaced, or the query itself when every word is known
+     */
+    NormalizedQuery correct(NormalizedQuery query, RunbookRegistry.Snapshot snapshot) {
+        Vocabulary current = vocabulary;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Vocabulary(snapshot);
+            vocabulary = current;
+        }
+        NormalizedQuery corrected = current.correct(query);
+        if (corrected != query) {
+            log.atDebug().setMessage("Corrected query")
+                .addKeyValue("query", query::text)
+                .addKeyValue("corrected", corrected::text)
+                .log();
+        }
+        return corrected;
+    }
+
+    /**
+     * Words of one snapshot's keywords and synonyms
+     */
+    static final class Vocabulary {
+        final RunbookRegistry.Snapshot snapshot;
+        final Set<String> words = new HashSet<>();
+        // Vocabulary and stop words, looked up with the query's tokens in place
+        private final TokenMap<Boolean> known;
+        final BkTree tree;
+
+        Vocabulary(RunbookRegistry.Snapshot snapshot) {
+            this.snapshot = snapshot;
+            for (UseCaseDefinition useCase : snapshot.getAllUseCases()) {
+                var classification = useCase.getClassification();
+                if (classification.getKeywords() != null) {
+                    classification.getKeywords().forEach(keyword -> words.addAll(Bm25Classifier.tokenize(keyword)));
+                }
+                if (classification.getSynonyms() != null) {
+                    classification.getSynonyms().values().forEach(synonyms ->
+                        synonyms.forEach(synonym -> words.addAll(Bm25Classifier.tokenize(synonym))));
+                }
+            }
+            Map<String, Boolean> knownWords = new HashMap<>();
+            words.forEach(word -> knownWords.put(word, Boolean.TRUE));
+            Bm25Classifier.STOP_WORDS.forEach(word -> knownWords.put(word, Boolean.TRUE));
+            known = new TokenMap<>(knownWords);
+            tree = BkTree.of(words.stream().filter(Vocabulary::correctable).toList());
+        }
+
+        NormalizedQuery correct(NormalizedQuery query) {
+            String lower = query.lower();
+            StringBuilder corrected = null;
+            int copied = 0;
+            for (int t = 0; t < query.tokenCount(); t++) {
+                int start = query.tokenStart(t);
+                int end = query.tokenEnd(t);
+                if (end - start < MIN_WORD_LENGTH || !query.isLetters(t) || known.containsKey(query, t)) {
+                    continue;
+                }
+                String replacement = tree.closest(query.token(t), end - start >= TWO_EDITS_LENGTH ? 2 : 1);
+                if (replacement != null) {
+                    if (corrected == null) {
+                        corrected = new StringBuilder(lower.length() + 8);
+                    }
+                    corrected.append(lower, copied, start).append(replacement);
+                    copied = end;
+                }
+            }
+            if (corrected == null) {
+                return query;
+            }
+            return NormalizedQuery.of(corrected.append(lower, copied, lower.length()).toString());
+        }
+
+        /**
+         * Long enough and letters only
+         */
+        private static boolean correctable(String word) {
+            if (word.length() < MIN_WORD_LENGTH) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c < 'a' || c > 'z') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.lca.productionsupport.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lca.productionsupport.config.BatchExecutor;
+import com.lca.productionsupport.model.OperationalRequest;
+import com.lca.productionsupport.model.OperationalResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Processes a stream of newline-delimited JSON OperationalRequests and writes one
+ * OperationalResponse per line, in input order.
+ * Lines are processed on the batch executor with a bounded number in flight, so memory stays
+ * bounded and a slow reader of the response slows down reading of the request (backpressure).
+ */
+@Slf4j
+@Service
+public class NdjsonProcessingService {
+
+    private final ProductionSupportOrchestrator orchestrator;
+    private final ExecutorService batchExecutor;
+    private final Validator validator;
+    private final int maxInFlight;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public NdjsonProcessingService(
+            ProductionSupportOrchestrator orchestrator,
+            BatchExecutor batchExecutor,
+            Validator validator,
+            @Value("${ndjson.max-in-flight:64}") int maxInFlight) {
+        this.orchestrator = orchestrator;
+        this.batchExecutor = batchExecutor.executorService();
+        this.validator = validator;
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * Read requests from the input until end of stream and write responses to the output
+     * @return number of lines processed
+     */
+    public long process(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        Deque<CompletableFuture<OperationalResponse>> inFlight = new ArrayDeque<>(maxInFlight);
+
+        long lineNumber = 0;
+        long processed = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            inFlight.addLast(submit(line, lineNumber));
+            processed++;
+
+            while (inFlight.size() >= maxInFlight) {
+                write(writer, inFlight.removeFirst().join());
+            }
+
+            // About to block on input: push out everything we have so far
+            if (!reader.ready()) {
+                drain(writer, inFlight);
+                writer.flush();
+            }
+        }
+
+        drain(writer, inFlight);
+        writer.flush();
+        log.info("Processed {} NDJSON requests", processed);
+        return processed;
+    }
+
+    private CompletableFuture<OperationalResponse> submit(String line, long lineNumber) {
+        OperationalRequest request;
+        try {
+            request = objectMapper.readValue(line, OperationalRequest.class);
+        } catch (IOException e) {
+            return CompletableFuture.completedFuture(invalidLineResponse(lineNumber, "Malformed JSON"));
+        }
+
+        Set<ConstraintViolation<OperationalRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.iterator().next().getMessage();
+            return CompletableFuture.completedFuture(invalidLineResponse(lineNumber, message));
+        }
+
+        return CompletableFuture.supplyAsync(() -> orchestrator.processRequest(request), batchExecutor);
+    }
+
+    private void drain(Writer writer, Deque<CompletableFuture<OperationalResponse>> inFlight) throws IOException {
+        while (!inFlight.isEmpty()) {
+            write(writer, inFlight.removeFirst().join());
+        }
+    }
+
+    private void write(Writer writer, OperationalResponse response) throws IOException {
+        writer.write(objectMapper.writeValueAsString(response));
+        writer.write('\n');
+    }
+
+    private OperationalResponse invalidLineResponse(long lineNumber, String message) {
+        return OperationalResponse.builder()
+            .taskId("UNKNOWN")
+            .taskName("Unknown")
+            .extractedEntities(Map.of())
+            .steps(OperationalResponse.StepGroups.builder().build())
+            .warnings(List.of("Invalid request on line " + lineNumber + ": " + message))
+            .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.lca.productionsupport.service;
+
+/**
+ * A query normalized once per request and shared by templating, classification, fuzzy matching and
+ * entity extraction: the original text, its lowercase form, a character class per position and the
+ * word tokens (runs of letters and digits) as offsets.
+ *
+ * Lowercasing is char by char, so an offset means the same character in the original and lowercase
+ * text, and stages can work on offsets instead of copying substrings.
+ */
+public final class NormalizedQuery {
+
+    // Character classes (ASCII letters and digits, as in the runbook vocabulary and extraction regexes)
+    static final byte SPACE = 0;
+    static final byte LETTER = 1;
+    static final byte DIGIT = 2;
+    static final byte UNDERSCORE = 3;
+    static final byte OTHER = 4;
+
+    public static final NormalizedQuery EMPTY = of("");
+
+    private final String text;
+    private final String lower;
+    private final byte[] classes;
+    private final int[] tokenStarts;
+    private final int[] tokenEnds;
+    // String.hashCode() of each token's lowercase text
+    private final int[] tokenHashes;
+    private final int tokens;
+
+    private NormalizedQuery(String text) {
+        this.text = text;
+        int length = text.length();
+        char[] lowerChars = new char[length];
+        classes = new byte[length];
+        // A query of n characters has at most (n + 1) / 2 tokens
+        int maxTokens = (length + 1) / 2;
+        tokenStarts = new int[maxTokens];
+        tokenEnds = new int[maxTokens];
+        tokenHashes = new int[maxTokens];
+        boolean changed = false;
+        int count = 0;
+        int start = -1;
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            char lowerChar = Character.toLowerCase(c);
+            lowerChars[i] = lowerChar;
+            changed |= lowerChar != c;
+            byte charClass = classOf(c);
+            classes[i] = charClass;
+            if (charClass == LETTER || charClass == DIGIT) {
+                if (start < 0) {
+                    start = i;
+                    hash = 0;
+                }
+                hash = 31 * hash + lowerChar;
+            } else if (start >= 0) {
+                count = addToken(count, start, i, hash);
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            count = addToken(count, start, length, hash);
+        }
+        lower = changed ? new String(lowerChars) : text;
+        tokens = count;
+    }
+
+    private int addToken(int count, int start, int end, int hash) {
+        tokenStarts[count] = start;
+        tokenEnds[count] = end;
+        tokenHashes[count] = hash;
+        return count + 1;
+    }
+
+    /**
+     * Normalize a query; null is treated as empty
+     */
+    public static NormalizedQuery of(String query) {
+        return new NormalizedQuery(query != null ? query : "");
+    }
+
+    private static byte classOf(char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+            return LETTER;
+        }
+        if (c >= '0' && c <= '9') {
+            return DIGIT;
+        }
+        if (c == '_') {
+            return UNDERSCORE;
+        }
+        // The characters java.util.regex matches as \s
+        if (c == ' ' || (c >= '\t' && c <= '\r')) {
+            return SPACE;
+        }
+        return OTHER;
+    }
+
+    /**
+     * The query as received
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * The query lowercased char by char (the same instance as {@link #text()} when already lowercase)
+     */
+    public String lower() {
+        return lower;
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    byte charClass(int index) {
+        return classes[index];
+    }
+
+    int tokenCount() {
+        return tokens;
+    }
+
+    int tokenStart(int token) {
+        return tokenStarts[token];
+    }
+
+    int tokenEnd(int token) {
+        return tokenEnds[token];
+    }
+
+    int tokenHash(int token) {
+        return tokenHashes[token];
+    }
+
+    /**
+     * Lowercase text of a token (a copy; lookups should use {@link TokenMap} instead)
+     */
+    String token(int token) {
+        return lower.substring(tokenStarts[token], tokenEnds[token]);
+    }
+
+    /**
+     * Whether every character of a token is a letter
+     */
+    boolean isLetters(int token) {
+        for (int i = tokenStarts[token]; i < tokenEnds[token]; i++) {
+            if (classes[i] != LETTER) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,82 @@
+package com.lca.productionsupport.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer timers for the stages of request orchestration (classify, extract, convert) and the
+ * request as a whole, with percentile histograms so latency can be aggregated across instances.
+ * Tagged by stage, taskId and outcome. taskId is always a loaded runbook id or UNKNOWN, never
+ * free text from the request, to keep cardinality bounded.
+ * Each stage is also traced as a span (a child of the current span, in scope until recorded)
+ * carrying the same tags.
+ */
+@Component
+public class OrchestrationMetrics {
+
+    static final String STAGE_TIMER = "production.support.stage";
+    static final String SPAN_PREFIX = "production-support.";
+
+    public static final String STAGE_CLASSIFY = "classify";
+    public static final String STAGE_EXTRACT = "extract";
+    public static final String STAGE_CONVERT = "convert";
+    public static final String STAGE_PROCESS = "process";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_UNKNOWN = "unknown";
+    public static final String OUTCOME_MISSING_ENTITIES = "missing_entities";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+
+    public OrchestrationMetrics(MeterRegistry meterRegistry, Tracer tracer) {
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+    }
+
+    /**
+     * A running stage: its timer sample and span
+     */
+    public static final class Stage {
+        private final String name;
+        private final Timer.Sample sample;
+        private final Span span;
+        private final Tracer.SpanInScope scope;
+
+        private Stage(String name, Timer.Sample sample, Span span, Tracer.SpanInScope scope) {
+            this.name = name;
+            this.sample = sample;
+            this.span = span;
+            this.scope = scope;
+        }
+    }
+
+    /**
+     * Start timing and tracing a stage. Must be recorded on the same thread, also when the stage throws
+     * (in a finally block): its span stays the current span until then.
+     */
+    public Stage start(String stage) {
+        Span span = tracer.nextSpan().name(SPAN_PREFIX + stage).start();
+        return new Stage(stage, Timer.start(meterRegistry), span, tracer.withSpan(span));
+    }
+
+    /**
+     * Stop the stage and record it
+     * @return duration of the stage in nanoseconds
+     */
+    public long record(Stage stage, String taskId, String outcome) {
+        stage.scope.close();
+        stage.span.tag("taskId", taskId).tag("outcome", outcome).end();
+        return stage.sample.stop(Timer.builder(STAGE_TIMER)
+            .description("Duration of request orchestration stages")
+            .tag("stage", stage.name)
+            .tag("taskId", taskId)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+}
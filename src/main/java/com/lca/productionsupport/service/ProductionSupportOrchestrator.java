@@ -6,9 +6,11 @@ import com.lca.productionsupport.model.OperationalResponse;
 import com.lca.productionsupport.model.TaskInfo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,68 +24,139 @@ import java.util.Map;
 public class ProductionSupportOrchestrator {
 
     private final RunbookRegistry runbookRegistry;
-    private final RunbookClassifier runbookClassifier;
+    private final Classifier classifier;
     private final RunbookEntityExtractor entityExtractor;
     private final RunbookAdapter runbookAdapter;
+    private final QueryTemplater queryTemplater;
+    private final ClassificationCache classificationCache;
+    private final OrchestrationMetrics orchestrationMetrics;
+    private final SlowRequestLog slowRequestLog;
+    
+    // Runner-up tasks returned with a classified response
+    @Value("${classification.alternatives:2}")
+    private int alternatives = 2;
     
     /**
      * Process an operational request and return next steps
      */
     public OperationalResponse processRequest(OperationalRequest request) {
-        log.info("Processing request: {} for downstream service: {}", 
-                request.getQuery(), request.getDownstreamService());
-        
-        // Step 1: Classify the request (or use explicit taskId if provided)
-        String taskId;
-        UseCaseDefinition useCase;
+        return processRequest(request, runbookRegistry.getSnapshot());
+    }
+    
+    /**
+     * Process an operational request against a specific runbook snapshot
+     */
+    public OperationalResponse processRequest(OperationalRequest request, RunbookRegistry.Snapshot snapshot) {
+        // Normalized once, shared by templating, classification and extraction
+        NormalizedQuery query = NormalizedQuery.of(request.getQuery());
+        log.debug("Processing request: {} for downstream service: {}", 
+                query, request.getDownstreamService());
         
-        if (request.getTaskId() != null && !request.getTaskId().isEmpty()) {
-            // Explicit task ID provided
-            taskId = request.getTaskId();
-            useCase = runbookRegistry.getUseCase(taskId);
+        OrchestrationMetrics.Stage processStage = orchestrationMetrics.start(OrchestrationMetrics.STAGE_PROCESS);
+        Map<String, Long> stageNanos = new LinkedHashMap<>();
+        String taskId = "UNKNOWN";
+        String outcome = OrchestrationMetrics.OUTCOME_ERROR;
+        OperationalResponse response = null;
+        try {
+            // Step 1: Classify the request (or use explicit taskId if provided)
+            UseCaseDefinition useCase;
+            Classification classification = null;
             
-            if (useCase == null) {
-                log.warn("No runbook found for explicit taskId: {}", taskId);
-                return buildUnknownResponse(request);
+            if (request.getTaskId() != null && !request.getTaskId().isEmpty()) {
+                // Explicit task ID provided
+                useCase = snapshot.getUseCase(request.getTaskId());
+                
+                if (useCase == null) {
+                    log.warn("No runbook found for explicit taskId: {}", request.getTaskId());
+                    outcome = OrchestrationMetrics.OUTCOME_UNKNOWN;
+                    response = buildUnknownResponse(request);
+                    return response;
+                }
+                taskId = request.getTaskId();
+            } else {
+                // Classify the query template (entity values replaced by slots), cached across requests
+                OrchestrationMetrics.Stage classifyStage = orchestrationMetrics.start(OrchestrationMetrics.STAGE_CLASSIFY);
+                String classifyOutcome = OrchestrationMetrics.OUTCOME_ERROR;
+                String classified;
+                try {
+                    NormalizedQuery template = queryTemplater.template(query);
+                    int k = 1 + Math.max(0, alternatives);
+                    classification = classificationCache.get(snapshot, template.text(), t -> classifier.classify(template, snapshot, k));
+                    classified = classification.winner();
+                    useCase = snapshot.getUseCase(classified);
+                    if (useCase != null) {
+                        taskId = classified;
+                    }
+                    classifyOutcome = useCase != null ? OrchestrationMetrics.OUTCOME_SUCCESS : OrchestrationMetrics.OUTCOME_UNKNOWN;
+                } finally {
+                    // Also on exceptions, so the stage's span ends and its scope is closed before the process scope
+                    stageNanos.put(OrchestrationMetrics.STAGE_CLASSIFY, orchestrationMetrics.record(classifyStage, taskId, classifyOutcome));
+                }
+                
+                if ("UNKNOWN".equals(classified)) {
+                    log.warn("Could not classify request: {}", query);
+                    outcome = OrchestrationMetrics.OUTCOME_UNKNOWN;
+                    response = buildUnknownResponse(request);
+                    return response;
+                }
+                
+                if (useCase == null) {
+                    log.warn("Classifier returned {}, but no runbook found", classified);
+                    outcome = OrchestrationMetrics.OUTCOME_UNKNOWN;
+                    response = buildUnknownResponse(request);
+                    return response;
+                }
             }
-        } else {
-            // Classify using runbook classifier
-            taskId = runbookClassifier.classify(request.getQuery());
             
-            if ("UNKNOWN".equals(taskId)) {
-                log.warn("Could not classify request: {}", request.getQuery());
-                return buildUnknownResponse(request);
+            // Step 2: Extract entities (always from the raw query)
+            OrchestrationMetrics.Stage extractStage = orchestrationMetrics.start(OrchestrationMetrics.STAGE_EXTRACT);
+            String extractOutcome = OrchestrationMetrics.OUTCOME_ERROR;
+            Map<String, String> entities;
+            boolean entitiesComplete;
+            try {
+                entities = entityExtractor.extract(
+                    query,
+                    useCase.getExtraction()
+                );
+                
+                // Step 3: Validate required entities
+                entitiesComplete = validateRequiredEntities(useCase, entities);
+                extractOutcome = entitiesComplete ? OrchestrationMetrics.OUTCOME_SUCCESS : OrchestrationMetrics.OUTCOME_MISSING_ENTITIES;
+            } finally {
+                stageNanos.put(OrchestrationMetrics.STAGE_EXTRACT, orchestrationMetrics.record(extractStage, taskId, extractOutcome));
+            }
+            if (!entitiesComplete) {
+                log.warn("Required entities not found for use case: {}", taskId);
+                // Still return response with warnings
             }
             
-            useCase = runbookRegistry.getUseCase(taskId);
+            // Step 4: Convert to OperationalResponse
+            OrchestrationMetrics.Stage convertStage = orchestrationMetrics.start(OrchestrationMetrics.STAGE_CONVERT);
+            String convertOutcome = OrchestrationMetrics.OUTCOME_ERROR;
+            try {
+                response = runbookAdapter.toOperationalResponse(useCase, entities);
+                if (classification != null) {
+                    response.setShare(classification.matches().get(0).share());
+                    response.setAlternatives(alternatives(classification, snapshot));
+                }
+                convertOutcome = OrchestrationMetrics.OUTCOME_SUCCESS;
+            } finally {
+                stageNanos.put(OrchestrationMetrics.STAGE_CONVERT, orchestrationMetrics.record(convertStage, taskId, convertOutcome));
+            }
             
-            if (useCase == null) {
-                log.warn("Classifier returned {}, but no runbook found", taskId);
-                return buildUnknownResponse(request);
+            // Override downstream service if specified in request
+            if (request.getDownstreamService() != null && !request.getDownstreamService().isEmpty()) {
+                response.setDownstreamService(request.getDownstreamService());
+            }
+            
+            outcome = entitiesComplete ? OrchestrationMetrics.OUTCOME_SUCCESS : OrchestrationMetrics.OUTCOME_MISSING_ENTITIES;
+            return response;
+        } finally {
+            long durationNanos = orchestrationMetrics.record(processStage, taskId, outcome);
+            if (slowRequestLog.isSlowProcess(durationNanos)) {
+                slowRequestLog.logProcess(taskId, outcome, request.getDownstreamService(), durationNanos, stageNanos, response);
             }
         }
-        
-        // Step 2: Extract entities
-        Map<String, String> entities = entityExtractor.extract(
-            request.getQuery(),
-            useCase.getExtraction()
-        );
-        
-        // Step 3: Validate required entities
-        if (!validateRequiredEntities(useCase, entities)) {
-            log.warn("Required entities not found for use case: {}", taskId);
-            // Still return response with warnings
-        }
-        
-        // Step 4: Convert to OperationalResponse
-        OperationalResponse response = runbookAdapter.toOperationalResponse(useCase, entities);
-        
-        // Override downstream service if specified in request
-        if (request.getDownstreamService() != null && !request.getDownstreamService().isEmpty()) {
-            response.setDownstreamService(request.getDownstreamService());
-        }
-        
-        return response;
     }
     
     /**
@@ -104,6 +177,24 @@ public class ProductionSupportOrchestrator {
         return true;
     }
     
+    /**
+     * Runner-up matches of a classification, with task names from the snapshot
+     */
+    private List<OperationalResponse.Alternative> alternatives(Classification classification, RunbookRegistry.Snapshot snapshot) {
+        List<OperationalResponse.Alternative> result = new ArrayList<>();
+        for (Classification.Match match : classification.matches().subList(1, classification.matches().size())) {
+            UseCaseDefinition useCase = snapshot.getUseCase(match.taskId());
+            if (useCase != null) {
+                result.add(OperationalResponse.Alternative.builder()
+                    .taskId(match.taskId())
+                    .taskName(useCase.getUseCase().getName())
+                    .share(match.share())
+                    .build());
+            }
+        }
+        return result;
+    }
+    
     /**
      * Build response for unknown/unclassified requests
      */
@@ -0,0 +1,171 @@
+package com.lca.productionsupport.service;
+
+import org.springframework.stereotype.Component;
+
+import static com.lca.productionsupport.service.NormalizedQuery.DIGIT;
+import static com.lca.productionsupport.service.NormalizedQuery.LETTER;
+import static com.lca.productionsupport.service.NormalizedQuery.SPACE;
+import static com.lca.productionsupport.service.NormalizedQuery.UNDERSCORE;
+
+/**
+ * Normalizes a query into a classification template by replacing entity-looking tokens
+ * (case numbers, barcodes, long numbers) with typed slots.
+ * e.g. "Cancel case 2025123P6732" and "cancel  case 2025999T1111" both become "cancel case <#1>",
+ * so they share one cached classification. Entity extraction still runs on the raw query.
+ *
+ * Slots are recognized in one scan over the query's character classes instead of one regex pass
+ * per slot type. A word is a run of ASCII letters, digits and underscores (what a regex word
+ * boundary separates), and a slot always covers whole words.
+ */
+@Component
+public class QueryTemplater {
+
+    /**
+     * Slot types, checked in order. Slot markers contain no letters so they can never
+     * match (or break) a runbook keyword or synonym during classification.
+     */
+    public enum SlotType {
+        /**
+         * Specimen barcode derived from a case number, e.g. 2025322P284448-A_1_1: a word starting with
+         * a case number directly followed by '-' or '_', up to the next character that is not a letter,
+         * digit, '-' or '_'
+         */
+        SPECIMEN_BARCODE("<#2>"),
+        /** Case number, e.g. 2025123P6732: 7+ digits, a letter and 4+ digits (as in cancel-case.yaml) */
+        CASE_NUMBER("<#1>"),
+        /** Short prefix followed by digits, e.g. BC123456: 1-3 letters and 4+ digits */
+        PREFIXED_ID("<#3>"),
+        /** Plain number with 4+ digits */
+        NUMBER("<#4>");
+
+        private final String marker;
+
+        SlotType(String marker) {
+            this.marker = marker;
+        }
+
+        public String getMarker() {
+            return marker;
+        }
+    }
+
+    /**
+     * Build the classification template for a query: entity-looking tokens replaced
+     * with slot markers, lowercased, whitespace trimmed and collapsed
+     */
+    public String template(String query) {
+        return template(NormalizedQuery.of(query)).text();
+    }
+
+    /**
+     * Build the classification template of an already normalized query (see {@link #template(String)}),
+     * itself normalized for the classifiers
+     */
+    public NormalizedQuery template(NormalizedQuery query) {
+        String text = query.text();
+        String lower = query.lower();
+        int from = 0;
+        int to = text.length();
+        // Same as String.trim(); slots never start or end with such characters
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+
+        StringBuilder template = new StringBuilder(to - from);
+        int i = from;
+        while (i < to) {
+            byte charClass = query.charClass(i);
+            if (charClass == SPACE) {
+                template.append(' ');
+                while (i < to && query.charClass(i) == SPACE) {
+                    i++;
+                }
+            } else if (!isWord(charClass)) {
+                template.append(lower.charAt(i++));
+            } else {
+                int end = i + 1;
+                while (end < to && isWord(query.charClass(end))) {
+                    end++;
+                }
+                int slotEnd = specimenBarcodeEnd(query, i, to);
+                SlotType slot = slotEnd > i ? SlotType.SPECIMEN_BARCODE : wordSlot(query, i, end);
+                if (slot == null) {
+                    template.append(lower, i, end);
+                    i = end;
+                } else {
+                    template.append(slot.marker);
+                    i = slot == SlotType.SPECIMEN_BARCODE ? slotEnd : end;
+                }
+            }
+        }
+        return NormalizedQuery.of(template.toString());
+    }
+
+    /**
+     * End of the specimen barcode starting at a word, or the word start if there is none
+     */
+    private static int specimenBarcodeEnd(NormalizedQuery query, int start, int to) {
+        int caseNumberEnd = caseNumberEnd(query, start, to);
+        if (caseNumberEnd < 0 || caseNumberEnd == to
+            || (query.text().charAt(caseNumberEnd) != '-' && query.charClass(caseNumberEnd) != UNDERSCORE)) {
+            return start;
+        }
+        int end = caseNumberEnd + 1;
+        while (end < to && (isWord(query.charClass(end)) || query.text().charAt(end) == '-')) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Slot a whole word fills, or null
+     */
+    private static SlotType wordSlot(NormalizedQuery query, int start, int end) {
+        if (caseNumberEnd(query, start, end) == end) {
+            return SlotType.CASE_NUMBER;
+        }
+        int letters = run(query, start, end, LETTER);
+        if (letters >= 1 && letters <= 3) {
+            int digits = run(query, start + letters, end, DIGIT);
+            if (digits >= 4 && start + letters + digits == end) {
+                return SlotType.PREFIXED_ID;
+            }
+        }
+        int digits = run(query, start, end, DIGIT);
+        if (digits >= 4 && start + digits == end) {
+            return SlotType.NUMBER;
+        }
+        return null;
+    }
+
+    /**
+     * End of the case number (7+ digits, a letter, 4+ digits) at a position, or -1 if there is none
+     */
+    private static int caseNumberEnd(NormalizedQuery query, int start, int to) {
+        int prefix = run(query, start, to, DIGIT);
+        int letter = start + prefix;
+        if (prefix < 7 || letter == to || query.charClass(letter) != LETTER) {
+            return -1;
+        }
+        int suffix = run(query, letter + 1, to, DIGIT);
+        return suffix >= 4 ? letter + 1 + suffix : -1;
+    }
+
+    /**
+     * Number of consecutive characters of a class from a position
+     */
+    private static int run(NormalizedQuery query, int start, int to, byte charClass) {
+        int end = start;
+        while (end < to && query.charClass(end) == charClass) {
+            end++;
+        }
+        return end - start;
+    }
+
+    private static boolean isWord(byte charClass) {
+        return charClass == LETTER || charClass == DIGIT || charClass == UNDERSCORE;
+    }
+}
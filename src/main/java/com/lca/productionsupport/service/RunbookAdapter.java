@@ -5,8 +5,7 @@ import com.lca.productionsupport.model.UseCaseDefinition.*;
 import com.lca.productionsupport.model.OperationalResponse;
 import com.lca.productionsupport.model.OperationalResponse.*;
 import com.lca.productionsupport.model.StepMethod;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lca.productionsupport.template.RequestBodyTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,8 +22,6 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class RunbookAdapter {
     
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    
     /**
      * Convert YAML runbook definition to OperationalResponse
      */
@@ -45,6 +42,29 @@ public class RunbookAdapter {
                 .build();
     }
     
+    /**
+     * Convert a single step for execution.
+     * Same as the steps in toOperationalResponse, except that the request body preview is not rendered;
+     * the body is sent from {@link #getBodyTemplate(StepDefinition)} instead.
+     */
+    public RunbookStep toExecutableStep(StepDefinition step, Map<String, String> entities) {
+        return convertStep(step, entities, false);
+    }
+    
+    /**
+     * Get the compiled request body template of a step. Runbooks are compiled when loaded;
+     * a step built elsewhere is compiled on first use and keeps its template.
+     * @return the template, or null if the step has no body
+     */
+    public RequestBodyTemplate getBodyTemplate(StepDefinition step) {
+        RequestBodyTemplate template = step.getBodyTemplate();
+        if (template == null) {
+            template = RequestBodyTemplate.compile(step.getBody());
+            step.setBodyTemplate(template);
+        }
+        return template;
+    }
+    
     private String getDownstreamService(UseCaseDefinition useCase) {
         if (useCase.getUseCase().getDownstreamService() != null) {
             return useCase.getUseCase().getDownstreamService();
@@ -59,7 +79,7 @@ public class RunbookAdapter {
         List<RunbookStep> rollback = new ArrayList<>();
         
         for (StepDefinition step : steps) {
-            RunbookStep runbookStep = convertStep(step, entities);
+            RunbookStep runbookStep = convertStep(step, entities, true);
             
             String stepType = step.getStepType();
             if (stepType == null) {
@@ -83,10 +103,10 @@ public class RunbookAdapter {
                 .build();
     }
     
-    private RunbookStep convertStep(StepDefinition step, Map<String, String> entities) {
+    private RunbookStep convertStep(StepDefinition step, Map<String, String> entities, boolean renderRequestBody) {
         // Replace placeholders in path and body
         String path = replacePlaceholders(step.getPath(), entities);
-        String requestBody = formatRequestBody(step.getBody(), entities);
+        String requestBody = renderRequestBody ? formatRequestBody(step, entities) : null;
         String description = replacePlaceholders(step.getDescription(), entities);
         String expectedResponse = replacePlaceholders(step.getExpectedResponse(), entities);
         
@@ -198,37 +218,13 @@ public class RunbookAdapter {
         return result;
     }
     
-    private String formatRequestBody(Map<String, Object> body, Map<String, String> entities) {
-        if (body == null || body.isEmpty()) {
+    private String formatRequestBody(StepDefinition step, Map<String, String> entities) {
+        RequestBodyTemplate template = getBodyTemplate(step);
+        if (template == null) {
             return null;
         }
         
-        try {
-            // Replace placeholders in body values
-            Map<String, Object> replacedBody = replacePlaceholdersInMap(body, entities);
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(replacedBody);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize request body", e);
-            return body.toString();
-        }
-    }
-    
-    private Map<String, Object> replacePlaceholdersInMap(Map<String, Object> map, Map<String, String> entities) {
-        Map<String, Object> result = new java.util.HashMap<>(map);
-        
-        for (Map.Entry<String, Object> entry : result.entrySet()) {
-            Object value = entry.getValue();
-            
-            if (value instanceof String) {
-                entry.setValue(replacePlaceholders((String) value, entities));
-            } else if (value instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> nestedMap = (Map<String, Object>) value;
-                entry.setValue(replacePlaceholdersInMap(nestedMap, entities));
-            }
-        }
-        
-        return result;
+        // Unresolved placeholders are kept as-is in the preview
+        return template.toJsonString(entities);
     }
 }
-
@@ -1,110 +1,260 @@
 package com.lca.productionsupport.service;
 
+import com.lca.productionsupport.jfr.ClassificationEvent;
 import com.lca.productionsupport.model.UseCaseDefinition;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
- * Classifies natural language queries using YAML runbook definitions
+ * Classifies natural language queries using YAML runbook definitions: each keyword contained in the
+ * query scores 1.0 and each synonym 0.5 (the "keyword" classification strategy).
+ *
+ * Runbooks are scored in order of their highest possible score (every keyword and synonym matching),
+ * so ranking the top k stops as soon as the remaining runbooks cannot beat the k-th score. Equal
+ * scores go to the runbook whose matched keywords and synonyms are longer in total (so "unlock" beats
+ * the "lock" it contains), then to the one with the lower highest possible score.
  */
 @Slf4j
-@Service
 @RequiredArgsConstructor
-public class RunbookClassifier {
-    
+public class RunbookClassifier implements Classifier {
+
+    static final String STRATEGY = "keyword";
+    static final double KEYWORD_SCORE = 1.0;
+    static final double SYNONYM_SCORE = 0.5;
+
     private final RunbookRegistry registry;
-    
+    private volatile Index index;
+
     /**
      * Classify a natural language query and return the best matching use case ID
      */
+    @Override
     public String classify(String query) {
-        if (!registry.isEnabled()) {
+        return classify(NormalizedQuery.of(query), registry.isEnabled(), registry.getAllUseCases(), 1).winner();
+    }
+
+    /**
+     * Rank the best matching use cases against a specific runbook snapshot
+     */
+    @Override
+    public Classification classify(NormalizedQuery query, RunbookRegistry.Snapshot snapshot, int k) {
+        return classify(query, !snapshot.isEmpty(), snapshot.getAllUseCases(), k);
+    }
+
+    private Classification classify(NormalizedQuery query, boolean enabled, Collection<UseCaseDefinition> useCases, int k) {
+        if (!enabled) {
             log.debug("Runbook classification disabled, returning UNKNOWN");
-            return "UNKNOWN";
+            return Classification.NONE;
         }
-        
-        log.debug("Classifying query: {}", query);
-        
-        String normalizedQuery = query.toLowerCase().trim();
-        
-        // Score each use case
-        Map<String, Double> scores = new HashMap<>();
-        
-        for (UseCaseDefinition useCase : registry.getAllUseCases()) {
-            double score = calculateScore(normalizedQuery, useCase);
-            if (score > 0) {
-                scores.put(useCase.getUseCase().getId(), score);
-                log.debug("Use case {} scored: {}", useCase.getUseCase().getId(), score);
-            }
+
+        ClassificationEvent event = new ClassificationEvent();
+        event.begin();
+
+        Ranking ranking = indexFor(useCases).rank(query.lower(), k);
+        Classification classification = ranking.classification();
+        String bestMatch = classification.winner();
+
+        if (event.shouldCommit()) {
+            event.strategy = STRATEGY;
+            event.queryLength = query.length();
+            event.candidatesScored = ranking.scored();
+            event.candidatesMatched = ranking.matched();
+            event.winner = bestMatch;
+            event.score = classification.matches().isEmpty() ? 0.0 : classification.matches().get(0).score();
+            event.commit();
+        }
+
+        if (classification.matches().isEmpty()) {
+            log.atWarn().setMessage("No matching use case found").addKeyValue("query", query::text).log();
+            return classification;
         }
-        
-        if (scores.isEmpty()) {
-            log.warn("No matching use case found for query: {}", query);
-            return "UNKNOWN";
+
+        log.atDebug().setMessage("Classified query")
+            .addKeyValue("taskId", bestMatch)
+            .addKeyValue("score", () -> classification.matches().get(0).score())
+            .addKeyValue("candidates", classification::matches)
+            .log();
+
+        return classification;
+    }
+
+    /**
+     * Return all use cases that match the query (for ambiguous cases), best first
+     */
+    @Override
+    public List<String> classifyMultiple(String query) {
+        if (!registry.isEnabled()) {
+            return Collections.emptyList();
         }
-        
-        // Get highest scoring use case
-        String bestMatch = scores.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse("UNKNOWN");
-        
-        log.info("Classified as: {} (score: {})", bestMatch, scores.get(bestMatch));
-        
-        return bestMatch;
+
+        Index current = indexFor(registry.getAllUseCases());
+        return current.rank(NormalizedQuery.of(query).lower(), current.ids.length).classification().taskIds();
     }
-    
-    private double calculateScore(String query, UseCaseDefinition useCase) {
-        double score = 0.0;
-        var classification = useCase.getClassification();
-        
-        // Check keywords
-        if (classification.getKeywords() != null) {
-            for (String keyword : classification.getKeywords()) {
-                if (query.contains(keyword.toLowerCase())) {
-                    score += 1.0;
+
+    private Index indexFor(Collection<UseCaseDefinition> useCases) {
+        Index current = index;
+        if (current == null || current.useCases != useCases) {
+            current = new Index(useCases);
+            index = current;
+        }
+        return current;
+    }
+
+    /**
+     * Lowercased keywords and synonyms of one runbook set, with each runbook's highest possible score.
+     * Runbooks and distinct phrases get dense positions, so scoring a query only touches arrays.
+     */
+    static final class Index {
+        final Collection<UseCaseDefinition> useCases;
+        final String[] ids;
+        // Distinct keywords and synonyms by phrase id
+        final String[] phrases;
+        // Phrase ids of each runbook's keywords and synonyms, with the score each adds
+        final int[][] phraseIds;
+        final double[][] weights;
+        final double[] minConfidence;
+        final double[] upperBounds;
+        private final ThreadLocal<Scratch> scratch;
+
+        Index(Collection<UseCaseDefinition> useCases) {
+            this.useCases = useCases;
+            // Order runbooks by ascending upper bound (catalogue order on ties): a position's bound
+            // never exceeds a later one's, and on full ties the earlier, more specific runbook wins
+            List<UseCaseDefinition> ordered = new ArrayList<>(useCases);
+            ordered.sort(Comparator.comparingDouble(Index::upperBound));
+
+            int size = ordered.size();
+            Map<String, Integer> phraseIndex = new LinkedHashMap<>();
+            ids = new String[size];
+            phraseIds = new int[size][];
+            weights = new double[size][];
+            minConfidence = new double[size];
+            upperBounds = new double[size];
+            for (int doc = 0; doc < size; doc++) {
+                UseCaseDefinition useCase = ordered.get(doc);
+                var classification = useCase.getClassification();
+                ids[doc] = useCase.getUseCase().getId();
+                List<String> keywords = classification.getKeywords() != null ? classification.getKeywords() : List.of();
+                List<String> synonyms = classification.getSynonyms() != null
+                    ? classification.getSynonyms().values().stream().flatMap(List::stream).toList()
+                    : List.of();
+                phraseIds[doc] = new int[keywords.size() + synonyms.size()];
+                weights[doc] = new double[phraseIds[doc].length];
+                int i = 0;
+                for (String keyword : keywords) {
+                    phraseIds[doc][i] = phraseIndex.computeIfAbsent(keyword.toLowerCase(), phrase -> phraseIndex.size());
+                    weights[doc][i++] = KEYWORD_SCORE;
                 }
+                for (String synonym : synonyms) {
+                    phraseIds[doc][i] = phraseIndex.computeIfAbsent(synonym.toLowerCase(), phrase -> phraseIndex.size());
+                    weights[doc][i++] = SYNONYM_SCORE;
+                }
+                minConfidence[doc] = classification.getMinConfidence() != null ? classification.getMinConfidence() : 0.0;
+                upperBounds[doc] = upperBound(useCase);
             }
+            phrases = phraseIndex.keySet().toArray(String[]::new);
+            int phraseCount = phrases.length;
+            scratch = ThreadLocal.withInitial(() -> new Scratch(phraseCount));
+        }
+
+        /**
+         * Score of a runbook when every keyword and synonym matches
+         */
+        private static double upperBound(UseCaseDefinition useCase) {
+            var classification = useCase.getClassification();
+            int keywords = classification.getKeywords() != null ? classification.getKeywords().size() : 0;
+            int synonyms = classification.getSynonyms() != null
+                ? classification.getSynonyms().values().stream().mapToInt(List::size).sum()
+                : 0;
+            return keywords * KEYWORD_SCORE + synonyms * SYNONYM_SCORE;
         }
-        
-        // Check synonyms
-        if (classification.getSynonyms() != null) {
-            for (Map.Entry<String, List<String>> entry : classification.getSynonyms().entrySet()) {
-                for (String synonym : entry.getValue()) {
-                    if (query.contains(synonym.toLowerCase())) {
-                        score += 0.5;
-                    }
+
+        Ranking rank(String normalizedQuery, int k) {
+            if (ids.length == 0) {
+                return new Ranking(Classification.NONE, 0, 0);
+            }
+            Scratch current = scratch.get();
+            current.nextQuery();
+            TopK top = current.top = TopK.reuse(current.top, Math.min(k, ids.length));
+            int scored = 0;
+            int matched = 0;
+            // Highest bounds first: once one cannot reach the k-th score, none of the rest can
+            for (int doc = ids.length - 1; doc >= 0; doc--) {
+                if (top.isFull() && upperBounds[doc] < top.threshold()) {
+                    break;
+                }
+                scored++;
+                double score = score(doc, normalizedQuery, current);
+                if (score > 0) {
+                    matched++;
+                    top.offer(doc, score, current.matchedLength);
                 }
             }
+            return new Ranking(Classification.of(ids, top), scored, matched);
         }
-        
-        // Apply minimum confidence threshold
-        Double minConfidence = classification.getMinConfidence();
-        if (minConfidence != null && score < minConfidence) {
-            return 0.0;
+
+        /**
+         * Sum of the weights of the runbook's phrases contained in the query; also leaves the total
+         * length of those phrases in the scratch for tie-breaks
+         */
+        private double score(int doc, String query, Scratch current) {
+            double score = 0.0;
+            int length = 0;
+            int[] docPhrases = phraseIds[doc];
+            for (int i = 0; i < docPhrases.length; i++) {
+                int phrase = docPhrases[i];
+                if (contains(query, phrase, current)) {
+                    score += weights[doc][i];
+                    length += phrases[phrase].length();
+                }
+            }
+            current.matchedLength = length;
+            // Apply minimum confidence threshold
+            return score < minConfidence[doc] ? 0.0 : score;
+        }
+
+        /**
+         * Whether the query contains a phrase, searching each phrase at most once per query
+         */
+        private boolean contains(String query, int phrase, Scratch current) {
+            if (current.checkedAt[phrase] != current.query) {
+                current.checkedAt[phrase] = current.query;
+                current.contained[phrase] = query.contains(phrases[phrase]);
+            }
+            return current.contained[phrase];
         }
-        
-        return score;
     }
-    
+
     /**
-     * Return all use cases that match the query (for ambiguous cases)
+     * Per-thread working state for ranking queries against one index, reused across queries
      */
-    public List<String> classifyMultiple(String query) {
-        if (!registry.isEnabled()) {
-            return Collections.emptyList();
+    private static final class Scratch {
+        // Query number in which each phrase was last searched for, and whether it was found
+        final int[] checkedAt;
+        final boolean[] contained;
+        int query;
+        TopK top;
+        int matchedLength;
+
+        Scratch(int phrases) {
+            checkedAt = new int[phrases];
+            contained = new boolean[phrases];
+        }
+
+        void nextQuery() {
+            if (++query == 0) {
+                Arrays.fill(checkedAt, 0);
+                query = 1;
+            }
         }
-        
-        String normalizedQuery = query.toLowerCase().trim();
-        
-        return registry.getAllUseCases().stream()
-            .filter(useCase -> calculateScore(normalizedQuery, useCase) > 0)
-            .map(useCase -> useCase.getUseCase().getId())
-            .collect(Collectors.toList());
     }
-}
 
+    /**
+     * @param scored runbooks scored before the ranking stopped
+     * @param matched scored runbooks with a score above zero
+     */
+    record Ranking(Classification classification, int scored, int matched) {
+    }
+}
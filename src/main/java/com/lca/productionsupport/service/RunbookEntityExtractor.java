@@ -1,25 +1,42 @@
 package com.lca.productionsupport.service;
 
+import com.lca.productionsupport.jfr.EntityExtractionEvent;
 import com.lca.productionsupport.model.UseCaseDefinition.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Extracts entities from natural language queries using regex patterns defined in YAML
+ * Extracts entities from natural language queries using regex patterns defined in YAML.
+ * Most patterns start with a literal word ("barcode\\s+..."); a pattern is only run when the
+ * lowercased query contains that word.
  */
 @Slf4j
 @Service
 public class RunbookEntityExtractor {
     
+    /**
+     * Compiled extraction patterns, keyed by pattern string (compiled once, reused across requests)
+     */
+    private final Map<String, CompiledPattern> compiledPatterns = new ConcurrentHashMap<>();
+    
     /**
      * Extract entities from query based on extraction configuration
      */
     public Map<String, String> extract(String query, ExtractionConfig config) {
+        return extract(NormalizedQuery.of(query), config);
+    }
+    
+    /**
+     * Extract entities from an already normalized query (see {@link #extract(String, ExtractionConfig)})
+     */
+    public Map<String, String> extract(NormalizedQuery query, ExtractionConfig config) {
         Map<String, String> entities = new HashMap<>();
         
         if (config == null || config.getEntities() == null) {
@@ -30,29 +47,45 @@ public class RunbookEntityExtractor {
             String entityName = entry.getKey();
             EntityConfig entityConfig = entry.getValue();
             
-            String value = extractEntity(query, entityConfig);
+            EntityExtractionEvent event = new EntityExtractionEvent();
+            event.begin();
+            event.matchedPatternIndex = -1;
+            
+            String value = extractEntity(query, entityConfig, event);
+            
+            if (event.shouldCommit()) {
+                event.entity = entityName;
+                event.queryLength = query.length();
+                event.commit();
+            }
             
             if (value != null) {
                 entities.put(entityName, value);
-                log.debug("Extracted entity '{}': {}", entityName, value);
             } else if (entityConfig.isRequired()) {
-                log.warn("Required entity '{}' not found in query: {}", entityName, query);
+                log.atWarn().setMessage("Required entity not found")
+                    .addKeyValue("entity", entityName)
+                    .addKeyValue("query", query::text)
+                    .log();
             }
         }
         
-        log.debug("Extracted entities: {}", entities);
+        log.atDebug().setMessage("Extracted entities").addKeyValue("entities", entities::keySet).log();
         return entities;
     }
     
-    private String extractEntity(String query, EntityConfig config) {
+    private String extractEntity(NormalizedQuery query, EntityConfig config, EntityExtractionEvent event) {
         if (config.getPatterns() == null || config.getPatterns().isEmpty()) {
             return null;
         }
         
         for (String patternStr : config.getPatterns()) {
+            event.patternsTried++;
             try {
-                Pattern pattern = Pattern.compile(patternStr, Pattern.CASE_INSENSITIVE);
-                Matcher matcher = pattern.matcher(query);
+                CompiledPattern pattern = compiledPatterns.computeIfAbsent(patternStr, CompiledPattern::compile);
+                if (pattern.anchor() != null && !query.lower().contains(pattern.anchor())) {
+                    continue;
+                }
+                Matcher matcher = pattern.pattern().matcher(query.text());
                 
                 if (matcher.find()) {
                     String value = matcher.group(1);
@@ -65,6 +98,7 @@ public class RunbookEntityExtractor {
                     
                     // Validate
                     if (validate(value, config.getValidation())) {
+                        event.matchedPatternIndex = event.patternsTried - 1;
                         return value;
                     }
                 }
@@ -76,6 +110,66 @@ public class RunbookEntityExtractor {
         return null;
     }
     
+    /**
+     * A compiled pattern with the lowercased literal text every match starts with, or null when
+     * the pattern does not start with one
+     */
+    record CompiledPattern(Pattern pattern, String anchor) {
+        
+        static CompiledPattern compile(String regex) {
+            return new CompiledPattern(Pattern.compile(regex, Pattern.CASE_INSENSITIVE), anchor(regex));
+        }
+        
+        /**
+         * Leading letters, digits, spaces, '-' and '_' of a pattern without top-level alternatives.
+         * A character followed by a quantifier is not part of every match, so it ends the anchor.
+         * Case-insensitive matching is ASCII only, so a match always contains the lowercased anchor.
+         */
+        static String anchor(String regex) {
+            if (hasTopLevelAlternative(regex)) {
+                return null;
+            }
+            int end = 0;
+            while (end < regex.length() && isLiteral(regex.charAt(end))) {
+                end++;
+            }
+            if (end < regex.length() && "?*+{".indexOf(regex.charAt(end)) >= 0) {
+                end--;
+            }
+            return end > 0 ? regex.substring(0, end).toLowerCase(Locale.ROOT) : null;
+        }
+        
+        private static boolean isLiteral(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == ' ' || c == '-' || c == '_';
+        }
+        
+        private static boolean hasTopLevelAlternative(String regex) {
+            int depth = 0;
+            // Character classes nest ("[a-z&&[^x]]")
+            int classDepth = 0;
+            for (int i = 0; i < regex.length(); i++) {
+                char c = regex.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '[') {
+                    classDepth++;
+                } else if (classDepth > 0) {
+                    if (c == ']') {
+                        classDepth--;
+                    }
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '|' && depth == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
     /**
      * Trim brackets from value if present (handles cases where user copies example with [placeholder])
      */
@@ -0,0 +1,282 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.config.RunbookExecutor;
+import com.lca.productionsupport.model.RunbookExecutionRequest;
+import com.lca.productionsupport.model.StepExecutionEvent;
+import com.lca.productionsupport.model.StepExecutionResponse;
+import com.lca.productionsupport.model.UseCaseDefinition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Executes the steps of a runbook server-side and streams step lifecycle events
+ * (queued, started, downstream-sent, verified, failed, awaiting-approval, completed) as server-sent events.
+ * Steps run in step number order until the first step that is not autoExecutable: that step needs an
+ * operator's approval, so the stream ends with an awaiting-approval event and the remaining steps are
+ * left to the step-by-step endpoint. A failed step is handled by its errorHandling.onFailure: abort
+ * (the default) stops, continue goes on (as does an optional step), alert goes on but reports the
+ * execution as failed, and rollback runs the runbook's rollback steps.
+ */
+@Slf4j
+@Service
+public class RunbookExecutionService {
+
+    private static final String ROLLBACK_STEP_TYPE = "rollback";
+
+    // errorHandling.onFailure values
+    private static final String ON_FAILURE_ABORT = "abort";
+    private static final String ON_FAILURE_CONTINUE = "continue";
+    private static final String ON_FAILURE_ALERT = "alert";
+    private static final String ON_FAILURE_ROLLBACK = "rollback";
+
+    private enum StepOutcome { SUCCEEDED, FAILED, AWAITING_APPROVAL }
+
+    private final RunbookRegistry runbookRegistry;
+    private final StepExecutionService stepExecutionService;
+    private final RunbookExecutor runbookExecutionExecutor;
+    private final Duration emitterTimeout;
+
+    public RunbookExecutionService(
+            RunbookRegistry runbookRegistry,
+            StepExecutionService stepExecutionService,
+            RunbookExecutor runbookExecutionExecutor,
+            @Value("${runbook-execution.sse-timeout:10m}") Duration emitterTimeout) {
+        this.runbookRegistry = runbookRegistry;
+        this.stepExecutionService = stepExecutionService;
+        this.runbookExecutionExecutor = runbookExecutionExecutor;
+        this.emitterTimeout = emitterTimeout;
+    }
+
+    /**
+     * Start executing the runbook in the background, returning the emitter its events are sent to
+     */
+    public SseEmitter execute(RunbookExecutionRequest request) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        AtomicLong eventId = new AtomicLong();
+
+        Consumer<StepExecutionEvent> sink = event -> {
+            try {
+                emitter.send(SseEmitter.event()
+                    .id(Long.toString(eventId.incrementAndGet()))
+                    .name(event.getType().getEventName())
+                    .data(event, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        try {
+            runbookExecutionExecutor.taskExecutor().execute(() -> {
+                try {
+                    run(request, sink);
+                    emitter.complete();
+                } catch (UncheckedIOException e) {
+                    // Client went away, remaining steps are not executed
+                    log.warn("Runbook execution for task {} aborted, client disconnected", request.getTaskId());
+                    emitter.completeWithError(e.getCause());
+                } catch (RuntimeException e) {
+                    log.error("Runbook execution for task {} failed", request.getTaskId(), e);
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Runbook execution for task {} rejected, executor is saturated", request.getTaskId());
+            emitter.completeWithError(e);
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Execute the runbook on the calling thread, passing each lifecycle event to the sink
+     * @return true if every required step succeeded
+     */
+    public boolean run(RunbookExecutionRequest request, Consumer<StepExecutionEvent> sink) {
+        long startTime = System.currentTimeMillis();
+        String taskId = request.getTaskId();
+
+        UseCaseDefinition useCase = runbookRegistry.getUseCase(taskId);
+        if (useCase == null || useCase.getExecution() == null || useCase.getExecution().getSteps() == null) {
+            log.warn("No runbook found for taskId: {}", taskId);
+            sink.accept(completedEvent(taskId, startTime, false, "No runbook found for task " + taskId));
+            return false;
+        }
+
+        List<UseCaseDefinition.StepDefinition> steps = steps(useCase, false);
+
+        log.info("Executing runbook {} ({} steps) for service {}", taskId, steps.size(), request.getDownstreamService());
+
+        for (UseCaseDefinition.StepDefinition step : steps) {
+            sink.accept(stepEvent(StepExecutionEvent.Type.QUEUED, taskId, step, startTime).build());
+        }
+
+        String alert = null;
+        for (UseCaseDefinition.StepDefinition step : steps) {
+            StepOutcome outcome = runStep(request, step, sink, startTime);
+            if (outcome == StepOutcome.AWAITING_APPROVAL) {
+                return false;
+            }
+            if (outcome == StepOutcome.SUCCEEDED) {
+                continue;
+            }
+
+            String onFailure = step.isOptional() ? ON_FAILURE_CONTINUE : onFailure(step);
+            switch (onFailure) {
+                case ON_FAILURE_CONTINUE -> {
+                    // Optional or best-effort step, the next steps do not depend on it
+                }
+                case ON_FAILURE_ALERT -> {
+                    alert = failureMessage(step, "Step " + step.getStepNumber() + " failed");
+                    log.warn("Runbook {} step {} failed, continuing with alert: {}", taskId, step.getStepNumber(), alert);
+                }
+                case ON_FAILURE_ROLLBACK -> {
+                    return rollback(request, useCase, step, sink, startTime);
+                }
+                default -> {
+                    sink.accept(completedEvent(taskId, startTime, false,
+                        "Execution stopped, step " + step.getStepNumber() + " failed"));
+                    return false;
+                }
+            }
+        }
+
+        if (alert != null) {
+            sink.accept(completedEvent(taskId, startTime, false, "All steps run with alerts: " + alert));
+            return false;
+        }
+        sink.accept(completedEvent(taskId, startTime, true, "All steps completed"));
+        return true;
+    }
+
+    /**
+     * Run the runbook's rollback steps after a step failed with onFailure "rollback"
+     */
+    private boolean rollback(RunbookExecutionRequest request, UseCaseDefinition useCase,
+            UseCaseDefinition.StepDefinition failedStep, Consumer<StepExecutionEvent> sink, long startTime) {
+        String taskId = request.getTaskId();
+        boolean enabled = useCase.getRollback() == null || useCase.getRollback().isEnabled();
+        List<UseCaseDefinition.StepDefinition> rollbackSteps = enabled ? steps(useCase, true) : List.of();
+        if (rollbackSteps.isEmpty()) {
+            sink.accept(completedEvent(taskId, startTime, false,
+                "Execution stopped, step " + failedStep.getStepNumber() + " failed and the runbook has no rollback steps"));
+            return false;
+        }
+
+        log.warn("Runbook {} step {} failed, rolling back", taskId, failedStep.getStepNumber());
+        for (UseCaseDefinition.StepDefinition step : rollbackSteps) {
+            StepOutcome outcome = runStep(request, step, sink, startTime);
+            if (outcome == StepOutcome.AWAITING_APPROVAL) {
+                return false;
+            }
+            if (outcome == StepOutcome.FAILED) {
+                sink.accept(completedEvent(taskId, startTime, false,
+                    "Step " + failedStep.getStepNumber() + " failed and rollback step " + step.getStepNumber() + " failed"));
+                return false;
+            }
+        }
+        sink.accept(completedEvent(taskId, startTime, false,
+            "Step " + failedStep.getStepNumber() + " failed, rolled back"));
+        return false;
+    }
+
+    /**
+     * Run one step, or stop at it when it needs an operator's approval
+     */
+    private StepOutcome runStep(RunbookExecutionRequest request, UseCaseDefinition.StepDefinition step,
+            Consumer<StepExecutionEvent> sink, long startTime) {
+        String taskId = request.getTaskId();
+        if (!isAutoExecutable(step)) {
+            log.info("Runbook {} paused, step {} requires approval", taskId, step.getStepNumber());
+            sink.accept(stepEvent(StepExecutionEvent.Type.AWAITING_APPROVAL, taskId, step, startTime)
+                .message("Step " + step.getStepNumber() + " requires approval before it is executed")
+                .build());
+            return StepOutcome.AWAITING_APPROVAL;
+        }
+
+        sink.accept(stepEvent(StepExecutionEvent.Type.STARTED, taskId, step, startTime).build());
+
+        StepExecutionResponse response = stepExecutionService.executeStep(
+            request.toStepRequest(step.getStepNumber()),
+            () -> sink.accept(stepEvent(StepExecutionEvent.Type.DOWNSTREAM_SENT, taskId, step, startTime).build())
+        );
+
+        boolean success = Boolean.TRUE.equals(response.getSuccess());
+        sink.accept(stepEvent(success ? StepExecutionEvent.Type.VERIFIED : StepExecutionEvent.Type.FAILED, taskId, step, startTime)
+            .durationMs(response.getDurationMs())
+            .message(success ? response.getStepResponse() : response.getErrorMessage())
+            .result(response)
+            .build());
+        return success ? StepOutcome.SUCCEEDED : StepOutcome.FAILED;
+    }
+
+    /**
+     * Procedure steps (or only rollback steps) in step number order
+     */
+    private static List<UseCaseDefinition.StepDefinition> steps(UseCaseDefinition useCase, boolean rollback) {
+        return useCase.getExecution().getSteps().stream()
+            .filter(step -> ROLLBACK_STEP_TYPE.equalsIgnoreCase(step.getStepType()) == rollback)
+            .sorted(Comparator.comparingInt(UseCaseDefinition.StepDefinition::getStepNumber))
+            .toList();
+    }
+
+    /**
+     * Local steps make no downstream call, so they never need approval (as in {@link RunbookAdapter})
+     */
+    private static boolean isAutoExecutable(UseCaseDefinition.StepDefinition step) {
+        return step.isAutoExecutable()
+            || "LOCAL_MESSAGE".equalsIgnoreCase(step.getMethod())
+            || "HEADER_CHECK".equalsIgnoreCase(step.getMethod());
+    }
+
+    private static String onFailure(UseCaseDefinition.StepDefinition step) {
+        UseCaseDefinition.ErrorHandling errorHandling = step.getErrorHandling();
+        if (errorHandling == null || errorHandling.getOnFailure() == null) {
+            return ON_FAILURE_ABORT;
+        }
+        return errorHandling.getOnFailure().toLowerCase(Locale.ROOT);
+    }
+
+    private static String failureMessage(UseCaseDefinition.StepDefinition step, String fallback) {
+        UseCaseDefinition.ErrorHandling errorHandling = step.getErrorHandling();
+        return errorHandling != null && errorHandling.getMessage() != null ? errorHandling.getMessage() : fallback;
+    }
+
+    private StepExecutionEvent.StepExecutionEventBuilder stepEvent(
+            StepExecutionEvent.Type type, String taskId, UseCaseDefinition.StepDefinition step, long startTime) {
+        long now = System.currentTimeMillis();
+        return StepExecutionEvent.builder()
+            .type(type)
+            .taskId(taskId)
+            .stepNumber(step.getStepNumber())
+            .stepType(step.getStepType())
+            .stepDescription(step.getDescription())
+            .timestamp(now)
+            .elapsedMs(now - startTime);
+    }
+
+    private StepExecutionEvent completedEvent(String taskId, long startTime, boolean success, String message) {
+        long now = System.currentTimeMillis();
+        return StepExecutionEvent.builder()
+            .type(StepExecutionEvent.Type.COMPLETED)
+            .taskId(taskId)
+            .timestamp(now)
+            .elapsedMs(now - startTime)
+            .durationMs(now - startTime)
+            .success(success)
+            .message(message)
+            .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.lca.productionsupport.service;
 
 import com.lca.productionsupport.model.UseCaseDefinition;
+import com.lca.productionsupport.template.RequestBodyTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
@@ -14,9 +15,12 @@ import org.yaml.snakeyaml.representer.Representer;
 
 import jakarta.annotation.PostConstruct;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Registry that loads and manages all YAML-based runbook definitions
@@ -31,7 +35,7 @@ public class RunbookRegistry {
     @Value("${runbook.enabled:true}")
     private boolean enabled;
     
-    private final Map<String, UseCaseDefinition> useCases = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of());
     private final Yaml yaml;
     
     public RunbookRegistry() {
@@ -45,6 +49,16 @@ public class RunbookRegistry {
     
     @PostConstruct
     public void loadRunbooks() {
+        Map<String, UseCaseDefinition> loaded = new LinkedHashMap<>();
+        try {
+            loadRunbooks(loaded);
+        } finally {
+            // Publish the new set atomically; readers never see a partially loaded registry
+            snapshot = new Snapshot(snapshot.getGeneration() + 1, loaded);
+        }
+    }
+    
+    private void loadRunbooks(Map<String, UseCaseDefinition> useCases) {
         if (!enabled) {
             log.info("Dynamic runbooks are disabled");
             return;
@@ -62,7 +76,10 @@ public class RunbookRegistry {
             }
             
             for (Resource resource : resources) {
-                loadRunbook(resource);
+                UseCaseDefinition definition = loadRunbook(resource);
+                if (definition != null) {
+                    useCases.put(definition.getUseCase().getId(), definition);
+                }
             }
             
             log.info("Successfully loaded {} runbooks: {}", useCases.size(), useCases.keySet());
@@ -72,21 +89,21 @@ public class RunbookRegistry {
         }
     }
     
-    private void loadRunbook(Resource resource) {
+    private UseCaseDefinition loadRunbook(Resource resource) {
         try (InputStream is = resource.getInputStream()) {
             UseCaseDefinition definition = yaml.load(is);
             
             // Validate
             validateRunbook(definition);
-            
-            // Register
-            useCases.put(definition.getUseCase().getId(), definition);
+            compileBodies(definition);
             
             log.debug("Loaded runbook: {} from {}", 
                      definition.getUseCase().getId(), 
                      resource.getFilename());
+            return definition;
         } catch (Exception e) {
             log.error("Failed to load runbook: {}", resource.getFilename(), e);
+            return null;
         }
     }
     
@@ -102,26 +119,83 @@ public class RunbookRegistry {
         }
     }
     
+    /**
+     * Compile each step's request body once per load, so executing a step only fills the template
+     */
+    private void compileBodies(UseCaseDefinition definition) {
+        List<UseCaseDefinition.StepDefinition> steps = new ArrayList<>(definition.getExecution().getSteps());
+        if (definition.getRollback() != null && definition.getRollback().getSteps() != null) {
+            steps.addAll(definition.getRollback().getSteps());
+        }
+        for (UseCaseDefinition.StepDefinition step : steps) {
+            step.setBodyTemplate(RequestBodyTemplate.compile(step.getBody()));
+        }
+    }
+    
     public UseCaseDefinition getUseCase(String id) {
-        return useCases.get(id);
+        return snapshot.getUseCase(id);
     }
     
     public Collection<UseCaseDefinition> getAllUseCases() {
-        return useCases.values();
+        return snapshot.getAllUseCases();
     }
     
     public boolean hasUseCase(String id) {
-        return useCases.containsKey(id);
+        return snapshot.getUseCase(id) != null;
+    }
+    
+    /**
+     * Current runbook set. Callers that need a consistent view across several
+     * lookups (e.g. a batch of requests) should hold on to one snapshot.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Generation of the loaded runbook set, incremented on every (re)load.
+     * Derived data such as cached classifications must not be reused across generations.
+     */
+    public long getGeneration() {
+        return snapshot.getGeneration();
     }
     
     public boolean isEnabled() {
-        return enabled && !useCases.isEmpty();
+        return enabled && !snapshot.isEmpty();
     }
     
     // For hot-reload (optional)
     public void reload() {
-        useCases.clear();
         loadRunbooks();
     }
+    
+    /**
+     * Immutable set of runbooks from one (re)load
+     */
+    public static final class Snapshot {
+        private final long generation;
+        private final Map<String, UseCaseDefinition> useCases;
+        
+        Snapshot(long generation, Map<String, UseCaseDefinition> useCases) {
+            this.generation = generation;
+            this.useCases = Collections.unmodifiableMap(new LinkedHashMap<>(useCases));
+        }
+        
+        public long getGeneration() {
+            return generation;
+        }
+        
+        public UseCaseDefinition getUseCase(String id) {
+            return id != null ? useCases.get(id) : null;
+        }
+        
+        public Collection<UseCaseDefinition> getAllUseCases() {
+            return useCases.values();
+        }
+        
+        public boolean isEmpty() {
+            return useCases.isEmpty();
+        }
+    }
 }
 
@@ -0,0 +1,121 @@
+package com.lca.productionsupport.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lca.productionsupport.model.OperationalResponse;
+import com.lca.productionsupport.model.StepExecutionRequest;
+import com.lca.productionsupport.model.StepExecutionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Writes one JSON record per request that breaches the slow threshold (/process requests and step
+ * executions), with a per-stage timing breakdown. Records go to the {@value #LOGGER_NAME} logger, which
+ * logback-spring.xml routes to an asynchronous rotating file so the request thread never waits on disk.
+ * Nothing is built for requests under the threshold.
+ */
+@Slf4j
+@Component
+public class SlowRequestLog {
+
+    static final String LOGGER_NAME = "production-support.slow-requests";
+
+    private static final Logger SLOW_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final long processThresholdNanos;
+    private final long stepThresholdNanos;
+
+    public SlowRequestLog(@Value("${slow-log.enabled:true}") boolean enabled,
+                          @Value("${slow-log.process-threshold:500ms}") Duration processThreshold,
+                          @Value("${slow-log.step-threshold:2s}") Duration stepThreshold) {
+        this.enabled = enabled;
+        this.processThresholdNanos = processThreshold.toNanos();
+        this.stepThresholdNanos = stepThreshold.toNanos();
+    }
+
+    public boolean isSlowProcess(long durationNanos) {
+        return enabled && durationNanos >= processThresholdNanos;
+    }
+
+    public boolean isSlowStep(long durationNanos) {
+        return enabled && durationNanos >= stepThresholdNanos;
+    }
+
+    /**
+     * Record a slow /process request
+     * @param stageNanos duration of each orchestration stage that ran, in order
+     */
+    public void logProcess(String taskId, String outcome, String downstreamService, long durationNanos,
+                           Map<String, Long> stageNanos, OperationalResponse response) {
+        ObjectNode record = record("process", durationNanos, processThresholdNanos);
+        record.put("taskId", taskId);
+        record.put("outcome", outcome);
+        record.put("downstreamService", downstreamService);
+        ObjectNode stages = record.putObject("stagesMs");
+        stageNanos.forEach((stage, nanos) -> stages.put(stage, toMillis(nanos)));
+        record.put("responseBytes", response != null ? serializedSize(response) : 0);
+        write(record);
+    }
+
+    /**
+     * Record a slow step execution
+     * @param timings downstream and verification timings collected while the step executed
+     */
+    public void logStep(StepExecutionRequest request, StepExecutionResponse response, long durationNanos,
+                        StepTimings timings) {
+        ObjectNode record = record("step", durationNanos, stepThresholdNanos);
+        record.put("taskId", request.getTaskId());
+        record.put("stepNumber", request.getStepNumber());
+        record.put("stepDescription", response.getStepDescription());
+        record.put("method", timings.method());
+        record.put("downstreamService", request.getDownstreamService());
+        record.put("success", Boolean.TRUE.equals(response.getSuccess()));
+        record.put("statusCode", response.getStatusCode());
+        ObjectNode stages = record.putObject("stagesMs");
+        stages.put("prepare", toMillis(durationNanos - timings.downstreamNanos() - timings.verificationNanos()));
+        stages.put("downstream", toMillis(timings.downstreamNanos()));
+        stages.put("verification", toMillis(timings.verificationNanos()));
+        record.put("requestBytes", timings.requestBodyBytes());
+        record.put("responseBytes", timings.responseBodyLength());
+        write(record);
+    }
+
+    private ObjectNode record(String type, long durationNanos, long thresholdNanos) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("timestamp", Instant.now().toString());
+        record.put("type", type);
+        record.put("durationMs", toMillis(durationNanos));
+        record.put("thresholdMs", toMillis(thresholdNanos));
+        return record;
+    }
+
+    private long serializedSize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value).length;
+        } catch (JsonProcessingException e) {
+            return -1;
+        }
+    }
+
+    private void write(ObjectNode record) {
+        try {
+            SLOW_LOG.info(objectMapper.writeValueAsString(record));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not write slow request record", e);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -1,12 +1,15 @@
 package com.lca.productionsupport.service;
 
 import com.lca.productionsupport.config.WebClientRegistry;
+import com.lca.productionsupport.jfr.StepTimingEvent;
 import com.lca.productionsupport.model.OperationalResponse.RunbookStep;
-import com.lca.productionsupport.model.OperationalResponse.StepGroups;
 import com.lca.productionsupport.model.StepExecutionRequest;
 import com.lca.productionsupport.model.StepExecutionResponse;
 import com.lca.productionsupport.model.StepMethod;
 import com.lca.productionsupport.model.UseCaseDefinition;
+import com.lca.productionsupport.template.RequestBodyTemplate;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpMethod;
@@ -14,17 +17,19 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Service to execute runbook steps by making actual API calls
@@ -38,16 +43,78 @@ public class StepExecutionService {
     private final RunbookRegistry runbookRegistry;
     private final RunbookAdapter runbookAdapter;
     private final ErrorMessageTranslator errorMessageTranslator;
+    private final DownstreamMetrics downstreamMetrics;
+    private final Tracer tracer;
+    private final SlowRequestLog slowRequestLog;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
+    private static final byte[] EMPTY_JSON_BODY = "{}".getBytes(StandardCharsets.UTF_8);
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{([A-Za-z0-9_\\-]+)\\}");
+    
     /**
      * Execute a specific step
      */
     public StepExecutionResponse executeStep(StepExecutionRequest request) {
+        return executeStep(request, () -> { });
+    }
+    
+    /**
+     * Execute a specific step, notifying the caller right before the downstream HTTP request is sent
+     * (not called for local steps or when the request cannot be built).
+     * The step is traced as a span that is the parent of the downstream call's span.
+     */
+    public StepExecutionResponse executeStep(StepExecutionRequest request, Runnable onDownstreamSent) {
+        StepTimingEvent event = new StepTimingEvent();
+        event.begin();
+        long start = System.nanoTime();
+        StepTimings.StepTimingsBuilder timings = StepTimings.builder();
+        
+        Span span = tracer.nextSpan().name("production-support.step")
+            .tag("taskId", String.valueOf(request.getTaskId()))
+            .tag("stepNumber", String.valueOf(request.getStepNumber()))
+            .tag("downstreamService", String.valueOf(request.getDownstreamService()))
+            .start();
+        StepExecutionResponse response;
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            response = executeStep(request, onDownstreamSent, timings);
+            span.tag("success", String.valueOf(Boolean.TRUE.equals(response.getSuccess())));
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+        
+        long durationNanos = System.nanoTime() - start;
+        if (slowRequestLog.isSlowStep(durationNanos)) {
+            slowRequestLog.logStep(request, response, durationNanos, timings.build());
+        }
+        
+        // Only filled when the event is recorded
+        if (event.shouldCommit()) {
+            StepTimings stepTimings = timings.build();
+            event.taskId = request.getTaskId();
+            event.stepNumber = request.getStepNumber() != null ? request.getStepNumber() : 0;
+            event.method = stepTimings.method();
+            event.downstreamService = request.getDownstreamService();
+            event.downstreamLatency = stepTimings.downstreamNanos();
+            event.verificationTime = stepTimings.verificationNanos();
+            event.requestBodyBytes = stepTimings.requestBodyBytes();
+            event.responseBodyLength = stepTimings.responseBodyLength();
+            event.success = Boolean.TRUE.equals(response.getSuccess());
+            event.commit();
+        }
+        return response;
+    }
+    
+    private StepExecutionResponse executeStep(StepExecutionRequest request, Runnable onDownstreamSent,
+                                              StepTimings.StepTimingsBuilder timings) {
         long startTime = System.currentTimeMillis();
         
-        // Get the step definition from YAML runbook
-        RunbookStep step = getStepFromRunbook(request.getTaskId(), request.getStepNumber(), request.getEntities());
+        // Get the step definition from YAML runbook and convert only that step
+        UseCaseDefinition.StepDefinition stepDefinition = getStepDefinition(request.getTaskId(), request.getStepNumber());
+        Map<String, String> safeEntities = request.getEntities() != null ? request.getEntities() : new HashMap<>();
+        RunbookStep step = stepDefinition != null ? runbookAdapter.toExecutableStep(stepDefinition, safeEntities) : null;
         
         if (step == null) {
             log.warn("Step not found for taskId: {}, stepNumber: {}", request.getTaskId(), request.getStepNumber());
@@ -61,14 +128,19 @@ public class StepExecutionService {
                 .build();
         }
         
-        log.info("Retrieved step {}: method={}, stepType={}, description={}", 
-            step.getStepNumber(), step.getMethod(), step.getStepType(), step.getDescription());
+        log.atDebug().setMessage("Retrieved step")
+            .addKeyValue("taskId", request.getTaskId())
+            .addKeyValue("stepNumber", step.getStepNumber())
+            .addKeyValue("method", step.getMethod())
+            .addKeyValue("stepType", step.getStepType())
+            .log();
         
         StepMethod method = step.getMethod();
+        timings.method(method != null ? method.name() : null);
         
         // Check if this is a local execution step (no downstream service needed)
         if (method != null && method.isLocalExecution()) {
-            log.info("Executing local step: {}", method);
+            log.atDebug().setMessage("Executing local step").addKeyValue("method", method).log();
             if (method == StepMethod.LOCAL_MESSAGE) {
                 return executeLocalMessage(request, step, startTime);
             } else if (method == StepMethod.HEADER_CHECK) {
@@ -95,15 +167,20 @@ public class StepExecutionService {
                 .build();
         }
         
-        log.info("Executing step {} for service {}: {} {}", 
-                request.getStepNumber(), request.getDownstreamService(), 
-                step.getMethod(), step.getPath());
+        log.atDebug().setMessage("Executing downstream step")
+            .addKeyValue("stepNumber", request.getStepNumber())
+            .addKeyValue("service", request.getDownstreamService())
+            .addKeyValue("method", step.getMethod())
+            .addKeyValue("path", step.getPath())
+            .log();
         
+        long callStart = 0;
         try {
-            // Replace placeholders in path and body
+            // Replace placeholders in path and fill the compiled body template
             String resolvedPath = resolvePlaceholders(step.getPath(), request.getEntities());
-            String resolvedBody = step.getRequestBody() != null ? 
-                resolvePlaceholders(step.getRequestBody(), request.getEntities()) : null;
+            RequestBodyTemplate bodyTemplate = runbookAdapter.getBodyTemplate(stepDefinition);
+            byte[] resolvedBody = bodyTemplate != null ? bodyTemplate.toJsonBytes(request.getEntities()) : null;
+            timings.requestBodyBytes(resolvedBody != null ? resolvedBody.length : 0);
             
             // Merge headers: YAML headers (with placeholders resolved) + request headers (request takes precedence)
             Map<String, String> mergedHeaders = mergeHeaders(step.getHeaders(), request);
@@ -112,23 +189,32 @@ public class StepExecutionService {
             Duration timeout = webClientRegistry.getTimeout(request.getDownstreamService());
             
             // Build and execute the request
+            onDownstreamSent.run();
+            callStart = System.nanoTime();
             String responseBody = executeHttpRequest(
                 webClient,
                 method,
                 resolvedPath,
+                stepDefinition.getPath(),
                 resolvedBody,
                 request.getAuthToken(),
                 request.getUserId(),
                 mergedHeaders,
                 timeout
             );
+            long callNanos = System.nanoTime() - callStart;
+            downstreamMetrics.recordSuccess(request.getDownstreamService(), method.name(), stepDefinition.getPath(), callNanos);
+            timings.downstreamNanos(callNanos);
+            timings.responseBodyLength(responseBody != null ? responseBody.length() : 0);
             
             long duration = System.currentTimeMillis() - startTime;
             
             // Verify response and generate stepResponse if verification config exists
             String stepResponse = null;
             if (step.getVerificationExpectedFields() != null || step.getVerificationRequiredFields() != null) {
+                long verificationStart = System.nanoTime();
                 stepResponse = verifyAndGenerateStepResponse(responseBody, step, request.getEntities(), request);
+                timings.verificationNanos(System.nanoTime() - verificationStart);
             } else if (step.getStepResponseMessage() != null) {
                 // Generate stepResponse from template if no verification but template exists
                 stepResponse = replacePlaceholdersInMessage(step.getStepResponseMessage(), Map.of(), request.getEntities());
@@ -149,8 +235,14 @@ public class StepExecutionService {
         } catch (Exception e) {
             log.error("Failed to execute step {}", request.getStepNumber(), e);
             
-            // Translate technical error to user-friendly message
-            ErrorMessageTranslator.TranslationResult translation = errorMessageTranslator.translate(e.getMessage());
+            // Translate technical error to user-friendly message (by exception type and status first)
+            ErrorMessageTranslator.TranslationResult translation = errorMessageTranslator.translateException(e);
+            if (callStart != 0) {
+                long callNanos = System.nanoTime() - callStart;
+                downstreamMetrics.recordFailure(request.getDownstreamService(), method.name(), stepDefinition.getPath(), e,
+                    translation.getErrorCategory(), callNanos);
+                timings.downstreamNanos(callNanos);
+            }
             
             // Extract API error message from responseBody if available
             String apiErrorMessage = extractApiErrorMessage(translation.getTechnicalDetails());
@@ -184,7 +276,7 @@ public class StepExecutionService {
         String message = step.getRequestBody();  // Message stored in requestBody field
         String stepResponseMessage = step.getStepResponseMessage();  // Optional stepResponseMessage template
         
-        log.info("Executing local message step: {}", message);
+        log.atDebug().setMessage("Executing local message step").addKeyValue("message", message).log();
         
         long duration = System.currentTimeMillis() - startTime;
         
@@ -212,7 +304,7 @@ public class StepExecutionService {
         String stepResponseMessage = step.getStepResponseMessage();  // Success message template
         String stepResponseErrorMessage = step.getStepResponseErrorMessage();  // Error message template
         
-        log.info("Executing entity validation: entity={}", entityName);
+        log.atDebug().setMessage("Executing entity validation").addKeyValue("entity", entityName).log();
         
         // Get the use case definition to access validation rules
         UseCaseDefinition useCaseDef = runbookRegistry.getUseCase(request.getTaskId());
@@ -376,8 +468,11 @@ public class StepExecutionService {
         String stepResponseMessage = step.getStepResponseMessage();  // Success message template
         String stepResponseErrorMessage = step.getStepResponseErrorMessage();  // Error message template
         
-        log.info("Executing header check: header={}, expected={}, actual={}", 
-                headerName, expectedValue, actualValue);
+        log.atDebug().setMessage("Executing header check")
+            .addKeyValue("header", headerName)
+            .addKeyValue("expected", expectedValue)
+            .addKeyValue("actual", actualValue)
+            .log();
         
         // Check if the actual value matches the expected value
         boolean isValid = actualValue != null && actualValue.equals(expectedValue);
@@ -420,8 +515,8 @@ public class StepExecutionService {
     /**
      * Execute HTTP request based on method
      */
-    private String executeHttpRequest(WebClient webClient, StepMethod method, String path, 
-                                     String body, String authToken, String userId, 
+    private String executeHttpRequest(WebClient webClient, StepMethod method, String path,
+                                     String pathTemplate, byte[] body, String authToken, String userId, 
                                      Map<String, String> customHeaders, Duration timeout) {
         
         WebClient.RequestHeadersSpec<?> request;
@@ -429,7 +524,7 @@ public class StepExecutionService {
         switch (method) {
             case GET:
                 // Some GET endpoints require a request body (e.g., getWorkpoolEntry)
-                if (body != null && !body.isEmpty()) {
+                if (body != null && body.length > 0) {
                     // Use method() to support GET with body
                     request = webClient.method(HttpMethod.GET)
                         .uri(path)
@@ -444,26 +539,26 @@ public class StepExecutionService {
                 request = webClient.post()
                     .uri(path)
                     .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(body != null ? body : "{}");
+                    .bodyValue(body != null ? body : EMPTY_JSON_BODY);
                 break;
                 
             case PATCH:
                 request = webClient.patch()
                     .uri(path)
                     .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(body != null ? body : "{}");
+                    .bodyValue(body != null ? body : EMPTY_JSON_BODY);
                 break;
                 
             case PUT:
                 request = webClient.put()
                     .uri(path)
                     .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(body != null ? body : "{}");
+                    .bodyValue(body != null ? body : EMPTY_JSON_BODY);
                 break;
                 
             case DELETE:
                 // Some DELETE endpoints require a request body (e.g., deleteWorkpoolEntry)
-                if (body != null && !body.isEmpty()) {
+                if (body != null && body.length > 0) {
                     // Use method() to support DELETE with body
                     request = webClient.method(HttpMethod.DELETE)
                         .uri(path)
@@ -478,8 +573,11 @@ public class StepExecutionService {
                 throw new IllegalArgumentException("Unsupported HTTP method: " + method);
         }
         
+        // Client metrics and spans are tagged with the runbook path, not the resolved one
+        request = request.attribute(WebClientRegistry.PATH_TEMPLATE_ATTRIBUTE, pathTemplate);
+        
         // Add Content-Type header for GET requests with body
-        if (method == StepMethod.GET && body != null && !body.isEmpty()) {
+        if (method == StepMethod.GET && body != null && body.length > 0) {
             if (customHeaders == null || !customHeaders.containsKey("Content-Type")) {
                 request = request.header("Content-Type", MediaType.APPLICATION_JSON_VALUE);
             }
@@ -516,7 +614,14 @@ public class StepExecutionService {
             .onStatus(
                 status -> status.isError(),
                 response -> response.bodyToMono(String.class)
-                    .flatMap(errorBody -> Mono.error(new RuntimeException("API Error: " + errorBody)))
+                    .flatMap(errorBody -> Mono.error(new WebClientResponseException(
+                        "API Error: " + errorBody,
+                        response.statusCode().value(),
+                        "",
+                        response.headers().asHttpHeaders(),
+                        errorBody.getBytes(StandardCharsets.UTF_8),
+                        StandardCharsets.UTF_8
+                    )))
             )
             .bodyToMono(String.class)
             .timeout(timeout)
@@ -526,35 +631,26 @@ public class StepExecutionService {
     /**
      * Replace placeholders in string with actual values
      * Supports: {case_id}, {status}, {user_id}, etc.
+     * Entity values are inserted as they are (not URI-encoded).
      * Throws IllegalArgumentException if any variable-like placeholders remain unresolved.
      * Note: Only validates placeholders that look like variable names (alphanumeric with underscores/hyphens),
      * not JSON structure braces.
      */
-    private String resolvePlaceholders(String template, java.util.Map<String, String> entities) {
+    String resolvePlaceholders(String template, Map<String, String> entities) {
         if (template == null) {
             return template;
         }
         
-        if (entities == null || entities.isEmpty()) {
-            // Check if template has variable-like placeholders (not JSON braces)
-            java.util.regex.Pattern varPattern = java.util.regex.Pattern.compile("\\{([A-Za-z0-9_\\-]+)\\}");
-            java.util.regex.Matcher matcher = varPattern.matcher(template);
-            if (matcher.find()) {
-                String missingVar = matcher.group(1);
-                throw new IllegalArgumentException("Not enough variable values available to expand '" + missingVar + "'");
-            }
-            return template;
-        }
-        
         String resolved = template;
-        for (java.util.Map.Entry<String, String> entry : entities.entrySet()) {
-            String placeholder = "{" + entry.getKey() + "}";
-            resolved = resolved.replace(placeholder, entry.getValue());
+        if (entities != null) {
+            for (Map.Entry<String, String> entry : entities.entrySet()) {
+                String placeholder = "{" + entry.getKey() + "}";
+                resolved = resolved.replace(placeholder, entry.getValue());
+            }
         }
         
         // Check if any variable-like placeholders remain unresolved (ignore JSON structure)
-        java.util.regex.Pattern varPattern = java.util.regex.Pattern.compile("\\{([A-Za-z0-9_\\-]+)\\}");
-        java.util.regex.Matcher matcher = varPattern.matcher(resolved);
+        Matcher matcher = PATH_VARIABLE.matcher(resolved);
         if (matcher.find()) {
             String missingVar = matcher.group(1);
             throw new IllegalArgumentException("Not enough variable values available to expand '" + missingVar + "'");
@@ -590,7 +686,7 @@ public class StepExecutionService {
      * Resolve placeholders in header values from request context
      * Supports: {api_user}, {lab_id}, {discipline_name}, {time_zone}, {role_name}, {token}, {user_id}, {IDEMPOTENCY_KEY}
      */
-    private String resolveHeaderPlaceholders(String template, StepExecutionRequest request) {
+    String resolveHeaderPlaceholders(String template, StepExecutionRequest request) {
         if (template == null) {
             return template;
         }
@@ -601,8 +697,10 @@ public class StepExecutionService {
         // Resolve from custom headers (request headers)
         if (customHeaders != null) {
             String apiUserValue = customHeaders.getOrDefault("Api-User", "{api_user}");
-            log.debug("Resolving {api_user} placeholder - Api-User header value: {}, customHeaders keys: {}", 
-                    apiUserValue, customHeaders.keySet());
+            log.atDebug().setMessage("Resolving header placeholders")
+                .addKeyValue("apiUser", apiUserValue)
+                .addKeyValue("headers", customHeaders::keySet)
+                .log();
             resolved = resolved.replace("{api_user}", apiUserValue);
             resolved = resolved.replace("{lab_id}", customHeaders.getOrDefault("Lab-Id", "{lab_id}"));
             resolved = resolved.replace("{discipline_name}", customHeaders.getOrDefault("Discipline-Name", "{discipline_name}"));
@@ -632,9 +730,9 @@ public class StepExecutionService {
     }
     
     /**
-     * Get a specific step from YAML runbook
+     * Get a specific step definition from YAML runbook
      */
-    private RunbookStep getStepFromRunbook(String taskId, Integer stepNumber, Map<String, String> entities) {
+    private UseCaseDefinition.StepDefinition getStepDefinition(String taskId, Integer stepNumber) {
         // Handle null taskId
         if (taskId == null) {
             log.warn("TaskId is null, cannot retrieve step");
@@ -648,20 +746,9 @@ public class StepExecutionService {
             return null;
         }
         
-        // Convert to operational response to get steps
-        Map<String, String> safeEntities = entities != null ? entities : new HashMap<>();
-        var response = runbookAdapter.toOperationalResponse(useCase, safeEntities);
-        StepGroups stepGroups = response.getSteps();
-        
         // Find the step by number
-        List<RunbookStep> allSteps = new ArrayList<>();
-        if (stepGroups.getPrechecks() != null) allSteps.addAll(stepGroups.getPrechecks());
-        if (stepGroups.getProcedure() != null) allSteps.addAll(stepGroups.getProcedure());
-        if (stepGroups.getPostchecks() != null) allSteps.addAll(stepGroups.getPostchecks());
-        if (stepGroups.getRollback() != null) allSteps.addAll(stepGroups.getRollback());
-        
-        return allSteps.stream()
-            .filter(s -> s.getStepNumber().equals(stepNumber))
+        return useCase.getExecution().getSteps().stream()
+            .filter(s -> stepNumber != null && s.getStepNumber() == stepNumber)
             .findFirst()
             .orElse(null);
     }
@@ -674,29 +761,7 @@ public class StepExecutionService {
      * Returns the message value, or null if not found
      */
     String extractApiErrorMessage(String responseBody) {
-        if (responseBody == null || responseBody.isEmpty()) {
-            return null;
-        }
-        
-        try {
-            String jsonPart = responseBody;
-            
-            // Remove "API Error: " prefix if present (we add this prefix in executeHttpRequest)
-            if (responseBody.startsWith("API Error: ")) {
-                jsonPart = responseBody.substring("API Error: ".length()).trim();
-            }
-            
-            // Parse JSON and extract message field (this is the actual API response)
-            JsonNode jsonNode = objectMapper.readTree(jsonPart);
-            if (jsonNode.has("message") && jsonNode.get("message").isTextual()) {
-                return jsonNode.get("message").asText();
-            }
-        } catch (Exception e) {
-            // If parsing fails, return null (keep it simple)
-            log.debug("Could not extract API error message from responseBody: {}", responseBody, e);
-        }
-        
-        return null;
+        return errorMessageTranslator.extractApiErrorMessage(responseBody);
     }
     
     /**
@@ -925,7 +990,7 @@ public class StepExecutionService {
     /**
      * Replace placeholders in message template with actual values
      */
-    private String replacePlaceholdersInMessage(String template, Map<String, String> primaryValues, Map<String, String> fallbackValues) {
+    String replacePlaceholdersInMessage(String template, Map<String, String> primaryValues, Map<String, String> fallbackValues) {
         if (template == null) {
             return null;
         }
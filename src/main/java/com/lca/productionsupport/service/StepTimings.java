@@ -0,0 +1,16 @@
+package com.lca.productionsupport.service;
+
+import lombok.Builder;
+
+/**
+ * Where the time of one step execution went and how much data it moved, for the slow request log
+ * @param method step method, null if the step was not found
+ * @param requestBodyBytes size of the request body sent downstream
+ * @param downstreamNanos time spent in the downstream call
+ * @param verificationNanos time spent verifying the downstream response
+ * @param responseBodyLength downstream response body length in characters
+ */
+@Builder
+public record StepTimings(String method, long requestBodyBytes, long downstreamNanos, long verificationNanos,
+                          long responseBodyLength) {
+}
@@ -0,0 +1,56 @@
+package com.lca.productionsupport.service;
+
+import java.util.Map;
+
+/**
+ * Read-only map from words to values that is looked up with a token of a {@link NormalizedQuery}
+ * (its offsets and precomputed hash) instead of a copied substring. Open addressing with linear
+ * probing over a table at most half full.
+ */
+final class TokenMap<V> {
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    TokenMap(Map<String, V> entries) {
+        int capacity = Integer.highestOneBit(Math.max(1, entries.size()) * 2 - 1) * 2;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        entries.forEach((key, value) -> {
+            int slot = slot(key.hashCode());
+            while (keys[slot] != null && !keys[slot].equals(key)) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        });
+    }
+
+    /**
+     * Value of a query token's lowercase text, or null
+     */
+    @SuppressWarnings("unchecked")
+    V get(NormalizedQuery query, int token) {
+        int start = query.tokenStart(token);
+        int length = query.tokenEnd(token) - start;
+        int hash = query.tokenHash(token);
+        for (int slot = slot(hash); keys[slot] != null; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key.length() == length && key.hashCode() == hash && query.lower().regionMatches(start, key, 0, length)) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    boolean containsKey(NormalizedQuery query, int token) {
+        return get(query, token) != null;
+    }
+
+    private int slot(int hash) {
+        // Spread the high bits, as HashMap does, so similar words do not cluster
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
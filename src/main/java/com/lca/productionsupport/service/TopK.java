@@ -0,0 +1,181 @@
+package com.lca.productionsupport.service;
+
+/**
+ * Fixed-size selection of the k highest scoring runbooks, by position in a classifier's index. A binary
+ * min-heap keeps the worst kept candidate at the root, so each offer is O(log k) and nothing outside
+ * the top k is retained. Equal scores rank by an optional tie-break value (higher first), then by
+ * position (earlier first), which keeps results deterministic regardless of the order candidates are
+ * offered in. A selection is reused across queries through {@link #reset(int)}.
+ */
+final class TopK {
+
+    private final int[] docs;
+    private final double[] scores;
+    private final double[] tieBreaks;
+    private int limit;
+    private int size;
+
+    TopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1, got " + k);
+        }
+        docs = new int[k];
+        scores = new double[k];
+        tieBreaks = new double[k];
+        limit = k;
+    }
+
+    /**
+     * A selection of k reusing the given one when it is large enough
+     */
+    static TopK reuse(TopK top, int k) {
+        if (top == null || top.capacity() < k) {
+            return new TopK(k);
+        }
+        top.reset(k);
+        return top;
+    }
+
+    /**
+     * Empty the selection and keep the k best of the next offers
+     * @param k at most the capacity this selection was created with
+     */
+    void reset(int k) {
+        if (k < 1 || k > docs.length) {
+            throw new IllegalArgumentException("k must be between 1 and " + docs.length + ", got " + k);
+        }
+        limit = k;
+        size = 0;
+    }
+
+    int capacity() {
+        return docs.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == limit;
+    }
+
+    /**
+     * Score a candidate must beat (or tie with a better tie-break) to enter a full selection
+     */
+    double threshold() {
+        return scores[0];
+    }
+
+    void offer(int doc, double score) {
+        offer(doc, score, 0.0);
+    }
+
+    /**
+     * @param tieBreak ranks candidates with equal scores, higher first
+     */
+    void offer(int doc, double score, double tieBreak) {
+        if (size < limit) {
+            docs[size] = doc;
+            scores[size] = score;
+            tieBreaks[size] = tieBreak;
+            siftUp(size++);
+        } else if (worse(0, doc, score, tieBreak)) {
+            docs[0] = doc;
+            scores[0] = score;
+            tieBreaks[0] = tieBreak;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Position of the worst kept candidate, whose score is the {@link #threshold()}
+     */
+    int worst() {
+        return docs[0];
+    }
+
+    /**
+     * Remove the worst kept candidate; removing until empty visits the selection worst first
+     */
+    void removeWorst() {
+        size--;
+        docs[0] = docs[size];
+        scores[0] = scores[size];
+        tieBreaks[0] = tieBreaks[size];
+        siftDown(0);
+    }
+
+    /**
+     * Sum of the kept scores
+     */
+    double total() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += scores[i];
+        }
+        return total;
+    }
+
+    /**
+     * Whether the candidate at heap index a ranks below the one at heap index b
+     */
+    private boolean worse(int a, int b) {
+        return worse(a, docs[b], scores[b], tieBreaks[b]);
+    }
+
+    /**
+     * Whether the candidate at heap index a ranks below the given candidate
+     */
+    private boolean worse(int a, int doc, double score, double tieBreak) {
+        if (scores[a] != score) {
+            return scores[a] < score;
+        }
+        if (tieBreaks[a] != tieBreak) {
+            return tieBreaks[a] < tieBreak;
+        }
+        return docs[a] > doc;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!worse(index, parent)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && worse(left, worst)) {
+                worst = left;
+            }
+            if (right < size && worse(right, worst)) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int doc = docs[a];
+        docs[a] = docs[b];
+        docs[b] = doc;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        double tieBreak = tieBreaks[a];
+        tieBreaks[a] = tieBreaks[b];
+        tieBreaks[b] = tieBreak;
+    }
+}
@@ -0,0 +1,191 @@
+package com.lca.productionsupport.template;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Request body of a runbook step, compiled once from the YAML body map.
+ * String values are split into literal text and {placeholder} slots, so rendering a request
+ * only fills the slots and streams compact JSON instead of copying and re-serializing the map.
+ * Supports nested maps, lists (including nested lists) and scalar values.
+ */
+public final class RequestBodyTemplate {
+
+    /**
+     * Variable-like placeholders only (alphanumeric with underscores/hyphens), not JSON braces
+     */
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([A-Za-z0-9_\\-]+)\\}");
+
+    private static final JsonFactory JSON_FACTORY = new ObjectMapper().getFactory();
+
+    private final Node root;
+    private final Set<String> placeholders;
+
+    private RequestBodyTemplate(Node root, Set<String> placeholders) {
+        this.root = root;
+        this.placeholders = Collections.unmodifiableSet(placeholders);
+    }
+
+    /**
+     * Compile a YAML body map into a template
+     * @return the template, or null if the body is null or empty
+     */
+    public static RequestBodyTemplate compile(Map<String, Object> body) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        Set<String> placeholders = new LinkedHashSet<>();
+        return new RequestBodyTemplate(compileNode(body, placeholders), placeholders);
+    }
+
+    /**
+     * Placeholder names referenced by the body, in document order
+     */
+    public Set<String> getPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * Render compact JSON bytes for the execute path.
+     * Throws IllegalArgumentException if any placeholder has no value.
+     */
+    public byte[] toJsonBytes(Map<String, String> values) {
+        for (String name : placeholders) {
+            if (values == null || values.get(name) == null) {
+                throw new IllegalArgumentException("Not enough variable values available to expand '" + name + "'");
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+            root.write(gen, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render request body", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Render compact JSON text for display, leaving unresolved placeholders as-is
+     */
+    public String toJsonString(Map<String, String> values) {
+        StringWriter writer = new StringWriter(128);
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(writer)) {
+            root.write(gen, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render request body", e);
+        }
+        return writer.toString();
+    }
+
+    private static Node compileNode(Object value, Set<String> placeholders) {
+        if (value instanceof Map<?, ?> map) {
+            List<String> keys = new ArrayList<>(map.size());
+            List<Node> children = new ArrayList<>(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                keys.add(String.valueOf(entry.getKey()));
+                children.add(compileNode(entry.getValue(), placeholders));
+            }
+            return new ObjectNode(keys.toArray(new String[0]), children.toArray(new Node[0]));
+        }
+        if (value instanceof List<?> list) {
+            Node[] children = new Node[list.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = compileNode(list.get(i), placeholders);
+            }
+            return new ArrayNode(children);
+        }
+        if (value instanceof String text) {
+            return compileText(text, placeholders);
+        }
+        return new ScalarNode(value);
+    }
+
+    private static Node compileText(String text, Set<String> placeholders) {
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(text);
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int last = 0;
+        while (matcher.find()) {
+            literals.add(text.substring(last, matcher.start()));
+            names.add(matcher.group(1));
+            placeholders.add(matcher.group(1));
+            last = matcher.end();
+        }
+
+        if (names.isEmpty()) {
+            return new ScalarNode(text);
+        }
+        literals.add(text.substring(last));
+        return new TextNode(literals.toArray(new String[0]), names.toArray(new String[0]));
+    }
+
+    private interface Node {
+        void write(JsonGenerator gen, Map<String, String> values) throws IOException;
+    }
+
+    private record ObjectNode(String[] keys, Node[] children) implements Node {
+        @Override
+        public void write(JsonGenerator gen, Map<String, String> values) throws IOException {
+            gen.writeStartObject();
+            for (int i = 0; i < keys.length; i++) {
+                gen.writeFieldName(keys[i]);
+                children[i].write(gen, values);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    private record ArrayNode(Node[] children) implements Node {
+        @Override
+        public void write(JsonGenerator gen, Map<String, String> values) throws IOException {
+            gen.writeStartArray();
+            for (Node child : children) {
+                child.write(gen, values);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * String with placeholder slots: literals[0] name[0] literals[1] ... literals[n]
+     */
+    private record TextNode(String[] literals, String[] names) implements Node {
+        @Override
+        public void write(JsonGenerator gen, Map<String, String> values) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < names.length; i++) {
+                sb.append(literals[i]);
+                String value = values != null ? values.get(names[i]) : null;
+                if (value != null) {
+                    sb.append(value);
+                } else {
+                    sb.append('{').append(names[i]).append('}');
+                }
+            }
+            sb.append(literals[names.length]);
+            gen.writeString(sb.toString());
+        }
+    }
+
+    private record ScalarNode(Object value) implements Node {
+        @Override
+        public void write(JsonGenerator gen, Map<String, String> values) throws IOException {
+            gen.writeObject(value);
+        }
+    }
+}
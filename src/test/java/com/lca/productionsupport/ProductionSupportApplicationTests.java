@@ -1,15 +1,56 @@
 package com.lca.productionsupport;
 
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import com.lca.productionsupport.service.Classifier;
+import com.lca.productionsupport.service.FuzzyMatchingClassifier;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 
-@SpringBootTest
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "slow-log.file=target/slow-requests.json")
 class ProductionSupportApplicationTests {
 
+    @Autowired
+    private Classifier classifier;
+
+    @Autowired
+    private ApplicationContext context;
+
     @Test
     void contextLoads() {
         // This test will pass if the application context loads successfully
     }
 
-}
+    @Test
+    void consoleLoggingIsAsyncAndNeverBlocks() {
+        Logger root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        AsyncAppender console = (AsyncAppender) root.getAppender("ASYNC_CONSOLE");
+
+        assertNotNull(console);
+        assertTrue(console.isStarted());
+        assertTrue(console.isNeverBlock());
+        assertEquals(8192, console.getQueueSize());
+        assertEquals(1638, console.getDiscardingThreshold());
+    }
 
+    @Test
+    void mvcAsyncKeepsBootTaskExecutor() {
+        // Batch and runbook execution pools are not Executor beans, which would replace this one
+        assertEquals(Set.of("applicationTaskExecutor"), context.getBeansOfType(Executor.class).keySet());
+    }
+
+    @Test
+    void classifierDefaultsToFuzzyMatching() {
+        assertInstanceOf(FuzzyMatchingClassifier.class, classifier);
+        assertEquals("CANCEL_CASE", classifier.classify("cancle case 2025123P6732"));
+    }
+
+}
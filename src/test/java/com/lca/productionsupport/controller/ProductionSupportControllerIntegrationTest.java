@@ -1,7 +1,9 @@
 package com.lca.productionsupport.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lca.productionsupport.model.BatchOperationalRequest;
 import com.lca.productionsupport.model.OperationalRequest;
+import com.lca.productionsupport.model.RunbookExecutionRequest;
 import com.lca.productionsupport.model.StepExecutionRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,13 +11,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "slow-log.file=target/slow-requests.json")
 @AutoConfigureMockMvc
 class ProductionSupportControllerIntegrationTest {
 
@@ -67,6 +75,8 @@ class ProductionSupportControllerIntegrationTest {
             .andExpect(jsonPath("$.taskName").value("Cancel Case"))
             .andExpect(jsonPath("$.downstreamService").value("ap-services"))
             .andExpect(jsonPath("$.extractedEntities.case_id").value("2025123P6732"))
+            .andExpect(jsonPath("$.share").isNumber())
+            .andExpect(jsonPath("$.alternatives").isArray())
             .andExpect(jsonPath("$.steps").exists())
             .andExpect(jsonPath("$.warnings").isArray());
     }
@@ -131,6 +141,125 @@ class ProductionSupportControllerIntegrationTest {
             .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void processBatch_returnsResponsesInRequestOrder() throws Exception {
+        BatchOperationalRequest request = BatchOperationalRequest.builder()
+            .requests(List.of(
+                OperationalRequest.builder().query("cancel case 2025123P6732").build(),
+                OperationalRequest.builder().query("hello world").build(),
+                OperationalRequest.builder().query("cancel case 2025999T1111").build()))
+            .build();
+
+        mockMvc.perform(post("/api/v1/process/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.responses.length()").value(3))
+            .andExpect(jsonPath("$.responses[0].extractedEntities.case_id").value("2025123P6732"))
+            .andExpect(jsonPath("$.responses[1].taskId").value("UNKNOWN"))
+            .andExpect(jsonPath("$.responses[2].extractedEntities.case_id").value("2025999T1111"))
+            .andExpect(jsonPath("$.durationMs").exists());
+    }
+
+    @Test
+    void processBatch_emptyQueryInBatch_returnsBadRequest() throws Exception {
+        BatchOperationalRequest request = BatchOperationalRequest.builder()
+            .requests(List.of(
+                OperationalRequest.builder().query("cancel case 2025123P6732").build(),
+                OperationalRequest.builder().query("").build()))
+            .build();
+
+        mockMvc.perform(post("/api/v1/process/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errors['requests[1].query']").exists());
+    }
+
+    @Test
+    void processBatch_emptyBatch_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/process/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"requests\": []}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void processStream_returnsOneLinePerRequest() throws Exception {
+        String body = "{\"query\":\"cancel case 2025123P6732\"}\n{\"query\":\"hello world\"}\n";
+
+        MvcResult result = mockMvc.perform(post("/api/v1/process/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = content.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("CANCEL_CASE", objectMapper.readTree(lines[0]).get("taskId").asText());
+        assertEquals("2025123P6732", objectMapper.readTree(lines[0]).get("extractedEntities").get("case_id").asText());
+        assertEquals("UNKNOWN", objectMapper.readTree(lines[1]).get("taskId").asText());
+    }
+
+    @Test
+    void executeRunbook_streamsStepEventsUntilFailure() throws Exception {
+        RunbookExecutionRequest request = RunbookExecutionRequest.builder()
+            .taskId("CANCEL_CASE")
+            .entities(Map.of("case_id", "2025123P6732"))
+            .build();
+
+        MvcResult result = mockMvc.perform(post("/api/v1/execute-runbook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Role-Name", "Viewer")
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(5000);
+
+        String content = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        // Role check in step 1 fails, so execution stops before any downstream call
+        assertTrue(content.contains("event:queued"));
+        assertTrue(content.contains("event:started"));
+        assertTrue(content.contains("event:failed"));
+        assertTrue(content.contains("event:completed"));
+        assertFalse(content.contains("event:downstream-sent"));
+        assertFalse(content.contains("event:verified"));
+    }
+
+    @Test
+    void executeRunbook_missingTaskId_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/execute-runbook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"entities\": {}}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void actuatorMetrics_exposesStageTimers() throws Exception {
+        OperationalRequest request = OperationalRequest.builder()
+            .query("cancel case 2025123P6732")
+            .build();
+        mockMvc.perform(post("/api/v1/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/production.support.stage").param("tag", "stage:classify"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("production.support.stage"))
+            .andExpect(jsonPath("$.availableTags[?(@.tag == 'taskId')].values[*]").value(hasItem("CANCEL_CASE")));
+    }
+
     @Test
     void processRequest_withExplicitTaskId_usesTaskId() throws Exception {
         OperationalRequest request = OperationalRequest.builder()
@@ -144,7 +273,9 @@ class ProductionSupportControllerIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$.taskId").value("CANCEL_CASE"));
+            .andExpect(jsonPath("$.taskId").value("CANCEL_CASE"))
+            .andExpect(jsonPath("$.share").doesNotExist())
+            .andExpect(jsonPath("$.alternatives").doesNotExist());
     }
 
     @Test
@@ -0,0 +1,488 @@
+package com.lca.productionsupport.corpus;
+
+import lombok.Builder;
+import lombok.Data;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Generates synthetic runbook catalogues in the YAML format of src/main/resources/runbooks, and labelled
+ * queries for them, for benchmarks and accuracy/latency tests at catalogue sizes the shipped runbooks
+ * cannot reach.
+ *
+ * Each runbook is an action (verb) on a lab object, optionally on one attribute of it
+ * (e.g. UPDATE_SLIDE_STATUS), with keywords, synonyms, an id entity (plus a value entity for attribute
+ * runbooks) and 5-10 steps. Generation is deterministic for a given seed.
+ *
+ * <ul>
+ *   <li>overlap: probability that a runbook also gets a generic keyword (the bare verb or object) that
+ *       other runbooks share, so more candidates score for each query</li>
+ *   <li>ambiguity: fraction of queries that leave out the object or attribute, so several runbooks
+ *       match equally well; these are labelled ambiguous</li>
+ *   <li>typos: fraction of queries with one misspelled verb, object or attribute word (a transposed,
+ *       dropped or substituted letter)</li>
+ * </ul>
+ *
+ * Usage: {@code RunbookCorpusGenerator <output-dir> [runbooks] [queriesPerRunbook] [overlap] [ambiguity] [seed] [typos]}
+ */
+public final class RunbookCorpusGenerator {
+
+    static final String QUERIES_FILE = "queries.tsv";
+
+    private static final String[][] VERBS = {
+        {"cancel", "abort", "void"},
+        {"update", "change", "modify"},
+        {"delete", "remove", "purge"},
+        {"create", "add", "register"},
+        {"clear", "empty", "reset"},
+        {"reconcile", "recount", "sync"},
+        {"reassign", "transfer", "hand over"},
+        {"archive", "shelve", "retire"},
+        {"restore", "recover", "reinstate"},
+        {"lock", "freeze", "hold"},
+        {"unlock", "unfreeze", "release hold on"},
+        {"move", "relocate", "shift"},
+        {"merge", "combine", "consolidate"},
+        {"split", "divide", "separate"},
+        {"reprint", "print again", "regenerate"},
+        {"verify", "validate", "audit"},
+        {"approve", "sign off", "accept"},
+        {"reject", "decline", "refuse"},
+        {"reopen", "resume", "revive"},
+        {"escalate", "raise", "flag"}
+    };
+
+    private static final String[][] OBJECTS = {
+        {"case", "accession"},
+        {"sample", "specimen"},
+        {"slide", "glass slide"},
+        {"block", "tissue block"},
+        {"container", "vial"},
+        {"storage unit", "freezer"},
+        {"workpool entry", "queue entry"},
+        {"order", "requisition"},
+        {"label", "sticker"},
+        {"cassette", "capsule"},
+        {"tray", "carrier"},
+        {"rack", "shelf"},
+        {"report", "result"},
+        {"stain", "staining protocol"},
+        {"batch", "run"},
+        {"patient record", "demographics"},
+        {"instrument", "analyzer"},
+        {"courier pickup", "shipment"},
+        {"billing code", "charge"},
+        {"consult request", "referral"}
+    };
+
+    private static final String[] ATTRIBUTES = {
+        "status", "name", "barcode", "location", "priority", "owner", "due date", "comment", "type", "count"
+    };
+
+    private static final Map<String, String> HEADERS = headers();
+
+    private static final String[] METHODS = {"PATCH", "POST", "PUT", "DELETE"};
+
+    /**
+     * Generation settings
+     */
+    @Data
+    @Builder
+    public static class Options {
+        @Builder.Default
+        private int runbooks = 100;
+        @Builder.Default
+        private int queriesPerRunbook = 5;
+        @Builder.Default
+        private double overlap = 0.2;
+        @Builder.Default
+        private double ambiguity = 0.1;
+        @Builder.Default
+        private double typos = 0.0;
+        @Builder.Default
+        private long seed = 42L;
+    }
+
+    /**
+     * A generated runbook: its id and YAML document
+     */
+    @Data
+    public static class GeneratedRunbook {
+        private final String id;
+        private final String yaml;
+    }
+
+    /**
+     * A query and the runbook it was generated for
+     */
+    @Data
+    public static class LabelledQuery {
+        private final String query;
+        private final String expectedTaskId;
+        private final boolean ambiguous;
+    }
+
+    /**
+     * A generated catalogue and its labelled queries
+     */
+    @Data
+    public static class Corpus {
+        private final List<GeneratedRunbook> runbooks;
+        private final List<LabelledQuery> queries;
+
+        /**
+         * Write one YAML file per runbook and the labelled queries ({@value #QUERIES_FILE}:
+         * query, expected task id, ambiguous) to a directory
+         */
+        public void writeTo(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (GeneratedRunbook runbook : runbooks) {
+                String fileName = runbook.getId().toLowerCase(Locale.ROOT).replace('_', '-') + ".yaml";
+                Files.writeString(directory.resolve(fileName), runbook.getYaml());
+            }
+            StringBuilder tsv = new StringBuilder();
+            for (LabelledQuery query : queries) {
+                tsv.append(query.getQuery()).append('\t')
+                    .append(query.getExpectedTaskId()).append('\t')
+                    .append(query.isAmbiguous()).append('\n');
+            }
+            Files.writeString(directory.resolve(QUERIES_FILE), tsv);
+        }
+    }
+
+    private RunbookCorpusGenerator() {
+    }
+
+    /**
+     * Read labelled queries in the {@value #QUERIES_FILE} format; lines starting with # are comments
+     */
+    public static List<LabelledQuery> readQueries(InputStream input) throws IOException {
+        List<LabelledQuery> queries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t");
+                if (columns.length != 3) {
+                    throw new IllegalArgumentException("Expected query, task id and ambiguous flag but got: " + line);
+                }
+                queries.add(new LabelledQuery(columns[0], columns[1], Boolean.parseBoolean(columns[2])));
+            }
+        }
+        return queries;
+    }
+
+    public static Corpus generate(Options options) {
+        int maxRunbooks = VERBS.length * OBJECTS.length * (ATTRIBUTES.length + 1);
+        if (options.getRunbooks() > maxRunbooks) {
+            throw new IllegalArgumentException("At most " + maxRunbooks + " runbooks can be generated");
+        }
+        Random random = new Random(options.getSeed());
+        Yaml yaml = yaml();
+
+        List<GeneratedRunbook> runbooks = new ArrayList<>();
+        List<LabelledQuery> queries = new ArrayList<>();
+        for (int i = 0; i < options.getRunbooks(); i++) {
+            // Walk verbs fastest, then objects, then attributes, so small catalogues are still varied
+            int verb = i % VERBS.length;
+            int object = (i / VERBS.length) % OBJECTS.length;
+            int attribute = i / (VERBS.length * OBJECTS.length) - 1;
+            Spec spec = new Spec(VERBS[verb], OBJECTS[object], attribute >= 0 ? ATTRIBUTES[attribute] : null);
+
+            runbooks.add(new GeneratedRunbook(spec.id(), yaml.dump(runbook(spec, options, random))));
+            for (int q = 0; q < options.getQueriesPerRunbook(); q++) {
+                boolean ambiguous = random.nextDouble() < options.getAmbiguity();
+                String query = query(spec, ambiguous, random);
+                // Only draw when typos are on, so corpora without them stay the same for a seed
+                if (options.getTypos() > 0 && random.nextDouble() < options.getTypos()) {
+                    query = misspell(query, spec, random);
+                }
+                queries.add(new LabelledQuery(query, spec.id(), ambiguous));
+            }
+        }
+        return new Corpus(runbooks, queries);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: RunbookCorpusGenerator <output-dir> [runbooks] [queriesPerRunbook] [overlap] [ambiguity] [seed] [typos]");
+            System.exit(1);
+        }
+        Options.OptionsBuilder options = Options.builder();
+        if (args.length > 1) options.runbooks(Integer.parseInt(args[1]));
+        if (args.length > 2) options.queriesPerRunbook(Integer.parseInt(args[2]));
+        if (args.length > 3) options.overlap(Double.parseDouble(args[3]));
+        if (args.length > 4) options.ambiguity(Double.parseDouble(args[4]));
+        if (args.length > 5) options.seed(Long.parseLong(args[5]));
+        if (args.length > 6) options.typos(Double.parseDouble(args[6]));
+        Corpus corpus = generate(options.build());
+        corpus.writeTo(Path.of(args[0]));
+        System.out.printf("Wrote %d runbooks and %d queries to %s%n", corpus.getRunbooks().size(), corpus.getQueries().size(), args[0]);
+    }
+
+    private record Spec(String[] verb, String[] object, String attribute) {
+
+        String id() {
+            StringJoiner id = new StringJoiner("_");
+            id.add(verb[0]).add(object[0]);
+            if (attribute != null) {
+                id.add(attribute);
+            }
+            return id.toString().toUpperCase(Locale.ROOT).replace(' ', '_');
+        }
+
+        String name() {
+            return capitalize(verb[0]) + " " + capitalize(object[0]) + (attribute != null ? " " + capitalize(attribute) : "");
+        }
+
+        String idEntity() {
+            return object[0].replace(' ', '_') + "_id";
+        }
+
+        String valueEntity() {
+            return attribute != null ? attribute.replace(' ', '_') : null;
+        }
+
+        String resource() {
+            return "/lims-api/" + object[0].replace(' ', '-');
+        }
+    }
+
+    private static Map<String, Object> runbook(Spec spec, Options options, Random random) {
+        Map<String, Object> root = new LinkedHashMap<>();
+
+        Map<String, Object> useCase = new LinkedHashMap<>();
+        useCase.put("id", spec.id());
+        useCase.put("name", spec.name());
+        useCase.put("description", "Generated runbook: " + spec.name().toLowerCase(Locale.ROOT));
+        useCase.put("category", spec.object()[0].replace(' ', '-') + "-management");
+        useCase.put("version", "1.0");
+        useCase.put("downstreamService", "ap-services");
+        useCase.put("exampleQuery", capitalize(spec.verb()[0]) + " " + spec.object()[0] + " [" + spec.idEntity() + "]"
+            + (spec.attribute() != null ? " " + spec.attribute() + " to [" + spec.valueEntity() + "]" : ""));
+        root.put("useCase", useCase);
+
+        List<String> keywords = new ArrayList<>();
+        String target = spec.object()[0] + (spec.attribute() != null ? " " + spec.attribute() : "");
+        keywords.add(spec.verb()[0] + " " + target);
+        keywords.add(spec.verb()[1] + " " + target);
+        keywords.add(spec.verb()[0] + " " + spec.object()[1] + (spec.attribute() != null ? " " + spec.attribute() : ""));
+        if (random.nextDouble() < options.getOverlap()) {
+            keywords.add(spec.verb()[0]);
+        }
+        if (random.nextDouble() < options.getOverlap()) {
+            keywords.add(spec.object()[0]);
+        }
+        Map<String, Object> classification = new LinkedHashMap<>();
+        classification.put("keywords", keywords);
+        Map<String, List<String>> synonyms = new LinkedHashMap<>();
+        synonyms.put(spec.verb()[0], List.of(spec.verb()));
+        synonyms.put(spec.object()[0], List.of(spec.object()));
+        if (spec.attribute() != null) {
+            synonyms.put(spec.attribute(), List.of(spec.attribute()));
+        }
+        classification.put("synonyms", synonyms);
+        List<String> required = new ArrayList<>();
+        required.add(spec.idEntity());
+        if (spec.valueEntity() != null) {
+            required.add(spec.valueEntity());
+        }
+        classification.put("requiredEntities", required);
+        root.put("classification", classification);
+
+        Map<String, Object> entities = new LinkedHashMap<>();
+        entities.put(spec.idEntity(), entity(List.of(
+            "(?:the\\s+)?" + spec.object()[0].replace(" ", "\\s+") + "\\s+(?:id\\s+)?([A-Z]{2}\\d{6})",
+            "\\b([A-Z]{2}\\d{6})\\b"), "^[A-Z]{2}\\d{6}$"));
+        if (spec.valueEntity() != null) {
+            entities.put(spec.valueEntity(), entity(List.of(
+                "to\\s+\\[?([A-Za-z0-9\\s\\.\\-]+?)\\]?$"), "^[A-Za-z0-9\\s\\.\\-]{1,100}$"));
+        }
+        root.put("extraction", Map.of("entities", entities));
+
+        Map<String, Object> execution = new LinkedHashMap<>();
+        execution.put("timeout", 30);
+        execution.put("steps", steps(spec, 5 + random.nextInt(6), random));
+        root.put("execution", execution);
+        return root;
+    }
+
+    private static Map<String, Object> entity(List<String> patterns, String regex) {
+        Map<String, Object> entity = new LinkedHashMap<>();
+        entity.put("type", "string");
+        entity.put("patterns", patterns);
+        entity.put("required", true);
+        entity.put("validation", Map.of("regex", regex));
+        return entity;
+    }
+
+    private static List<Map<String, Object>> steps(Spec spec, int count, Random random) {
+        String idPlaceholder = "{" + spec.idEntity() + "}";
+        String path = spec.resource() + "/" + idPlaceholder;
+        List<Map<String, Object>> steps = new ArrayList<>();
+
+        Map<String, Object> roleCheck = step(steps.size() + 1, "prechecks", "Verify User Role", "HEADER_CHECK");
+        roleCheck.put("path", "Role-Name");
+        roleCheck.put("expectedResponse", "Production Support");
+        steps.add(roleCheck);
+
+        Map<String, Object> lookup = step(steps.size() + 1, "prechecks", "Look Up " + capitalize(spec.object()[0]), "GET");
+        lookup.put("path", path);
+        lookup.put("expectedStatus", 200);
+        steps.add(lookup);
+
+        // Procedure steps fill everything between the prechecks and the final verification
+        while (steps.size() < count - 1) {
+            String method = METHODS[random.nextInt(METHODS.length)];
+            Map<String, Object> procedure = step(steps.size() + 1, "procedure", spec.name() + " (" + steps.size() + ")", method);
+            procedure.put("path", path + (spec.attribute() != null ? "/" + spec.attribute().replace(' ', '-') : ""));
+            if (!"DELETE".equals(method)) {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("id", idPlaceholder);
+                if (spec.valueEntity() != null) {
+                    body.put(spec.valueEntity(), "{" + spec.valueEntity() + "}");
+                }
+                body.put("reason", "Production support: " + spec.name().toLowerCase(Locale.ROOT));
+                procedure.put("body", body);
+            }
+            procedure.put("expectedStatus", 200);
+            procedure.put("stepResponseMessage", spec.name() + " done for " + idPlaceholder);
+            steps.add(procedure);
+        }
+
+        Map<String, Object> verify = step(steps.size() + 1, "postchecks", "Verify " + spec.name(), "GET");
+        verify.put("path", path);
+        verify.put("expectedStatus", 200);
+        verify.put("verification", Map.of("requiredFields", List.of("id")));
+        steps.add(verify);
+        return steps;
+    }
+
+    private static Map<String, Object> step(int number, String type, String name, String method) {
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("stepNumber", number);
+        step.put("stepType", type);
+        step.put("name", name);
+        step.put("description", name);
+        step.put("autoExecutable", true);
+        step.put("method", method);
+        if (!"HEADER_CHECK".equals(method)) {
+            step.put("headers", new LinkedHashMap<>(HEADERS));
+        }
+        return step;
+    }
+
+    private static String query(Spec spec, boolean ambiguous, Random random) {
+        String id = randomId(random);
+        String verb = spec.verb()[random.nextInt(spec.verb().length)];
+        String object = spec.object()[random.nextInt(spec.object().length)];
+        String value = spec.attribute() != null ? " to " + randomValue(random) : "";
+        if (ambiguous) {
+            // Leave out what tells this runbook apart from its neighbours
+            return random.nextBoolean() || spec.attribute() == null
+                ? verb + " " + id + value
+                : verb + " " + object + " " + id + value;
+        }
+        String target = object + " " + id + (spec.attribute() != null ? " " + spec.attribute() + value : "");
+        return switch (random.nextInt(4)) {
+            case 0 -> verb + " " + target;
+            case 1 -> "please " + verb + " the " + target;
+            case 2 -> "I need to " + verb + " " + target;
+            default -> capitalize(verb) + " " + target;
+        };
+    }
+
+    /**
+     * Misspell one of the query's words of at least five letters that name the runbook's verb, object or
+     * attribute (the first letter is kept)
+     */
+    private static String misspell(String query, Spec spec, Random random) {
+        Set<String> vocabulary = new HashSet<>();
+        for (String phrase : spec.verb()) {
+            vocabulary.addAll(List.of(phrase.split(" ")));
+        }
+        for (String phrase : spec.object()) {
+            vocabulary.addAll(List.of(phrase.split(" ")));
+        }
+        if (spec.attribute() != null) {
+            vocabulary.addAll(List.of(spec.attribute().split(" ")));
+        }
+        String[] words = query.split(" ");
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].length() >= 5 && vocabulary.contains(words[i].toLowerCase(Locale.ROOT))) {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return query;
+        }
+        int index = candidates.get(random.nextInt(candidates.size()));
+        StringBuilder word = new StringBuilder(words[index]);
+        int position = 1 + random.nextInt(word.length() - 2);
+        switch (random.nextInt(3)) {
+            case 0 -> {
+                char c = word.charAt(position);
+                word.setCharAt(position, word.charAt(position + 1));
+                word.setCharAt(position + 1, c);
+            }
+            case 1 -> word.deleteCharAt(position);
+            default -> word.setCharAt(position, (char) ('a' + (word.charAt(position) - 'a' + 1 + random.nextInt(25)) % 26));
+        }
+        words[index] = word.toString();
+        return String.join(" ", words);
+    }
+
+    private static String randomId(Random random) {
+        return "" + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26))
+            + String.format("%06d", random.nextInt(1_000_000));
+    }
+
+    private static String randomValue(Random random) {
+        String[] values = {"Completed", "In Progress", "Pending Review", "High", "Low", "Room 12", "Archived"};
+        return values[random.nextInt(values.length)];
+    }
+
+    private static Map<String, String> headers() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Api-User", "{api_user}");
+        headers.put("Lab-Id", "{lab_id}");
+        headers.put("Role-Name", "{role_name}");
+        headers.put("accept", "application/json");
+        headers.put("Authorization", "Bearer {token}");
+        return headers;
+    }
+
+    private static Yaml yaml() {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setIndent(2);
+        options.setIndicatorIndent(2);
+        options.setIndentWithIndicator(true);
+        options.setWidth(200);
+        return new Yaml(options);
+    }
+
+    private static String capitalize(String value) {
+        return value.isEmpty() ? value : Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.lca.productionsupport.corpus;
+
+import com.lca.productionsupport.model.UseCaseDefinition;
+import com.lca.productionsupport.service.FuzzyMatchingClassifier;
+import com.lca.productionsupport.service.RunbookClassifier;
+import com.lca.productionsupport.service.RunbookEntityExtractor;
+import com.lca.productionsupport.service.RunbookRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunbookCorpusGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    private static RunbookRegistry load(Path directory) throws Exception {
+        RunbookRegistry registry = new RunbookRegistry();
+        var locationField = RunbookRegistry.class.getDeclaredField("runbookLocation");
+        locationField.setAccessible(true);
+        locationField.set(registry, directory.toUri().toString());
+
+        var enabledField = RunbookRegistry.class.getDeclaredField("enabled");
+        enabledField.setAccessible(true);
+        enabledField.set(registry, true);
+
+        registry.loadRunbooks();
+        return registry;
+    }
+
+    @Test
+    void generate_sameSeed_isDeterministic() {
+        RunbookCorpusGenerator.Options options = RunbookCorpusGenerator.Options.builder().runbooks(50).build();
+
+        assertEquals(RunbookCorpusGenerator.generate(options), RunbookCorpusGenerator.generate(options));
+    }
+
+    @Test
+    void generate_tooManyRunbooks_throws() {
+        RunbookCorpusGenerator.Options options = RunbookCorpusGenerator.Options.builder().runbooks(100_000).build();
+
+        assertThrows(IllegalArgumentException.class, () -> RunbookCorpusGenerator.generate(options));
+    }
+
+    @Test
+    void writeTo_loadsIntoRegistryWithFiveToTenSteps() throws Exception {
+        RunbookCorpusGenerator.Corpus corpus = RunbookCorpusGenerator.generate(
+            RunbookCorpusGenerator.Options.builder().runbooks(500).build());
+        corpus.writeTo(directory);
+
+        RunbookRegistry registry = load(directory);
+
+        assertEquals(500, registry.getAllUseCases().size());
+        for (UseCaseDefinition useCase : registry.getAllUseCases()) {
+            int steps = useCase.getExecution().getSteps().size();
+            assertTrue(steps >= 5 && steps <= 10, useCase.getUseCase().getId() + " has " + steps + " steps");
+        }
+        try (Stream<String> lines = Files.lines(directory.resolve(RunbookCorpusGenerator.QUERIES_FILE))) {
+            assertEquals(corpus.getQueries().size(), lines.count());
+        }
+    }
+
+    @Test
+    void queries_unambiguous_classifyAndExtractAsLabelled() throws Exception {
+        RunbookCorpusGenerator.Corpus corpus = RunbookCorpusGenerator.generate(
+            RunbookCorpusGenerator.Options.builder().runbooks(200).overlap(0).ambiguity(0).build());
+        corpus.writeTo(directory);
+        RunbookRegistry registry = load(directory);
+        RunbookClassifier classifier = new RunbookClassifier(registry);
+        RunbookEntityExtractor extractor = new RunbookEntityExtractor();
+
+        List<RunbookCorpusGenerator.LabelledQuery> queries = corpus.getQueries();
+        long correct = queries.stream()
+            .filter(query -> query.getExpectedTaskId().equals(classifier.classify(query.getQuery())))
+            .count();
+        assertTrue(correct >= queries.size() * 0.9, correct + "/" + queries.size() + " classified as labelled");
+
+        for (RunbookCorpusGenerator.LabelledQuery query : queries) {
+            UseCaseDefinition useCase = registry.getUseCase(query.getExpectedTaskId());
+            Map<String, String> entities = extractor.extract(query.getQuery(), useCase.getExtraction());
+            assertTrue(entities.keySet().containsAll(useCase.getClassification().getRequiredEntities()),
+                query.getQuery() + " -> " + entities);
+        }
+    }
+
+    @Test
+    void queries_ambiguous_matchSeveralRunbooks() throws Exception {
+        RunbookCorpusGenerator.Corpus corpus = RunbookCorpusGenerator.generate(
+            RunbookCorpusGenerator.Options.builder().runbooks(200).ambiguity(1).build());
+        corpus.writeTo(directory);
+        RunbookClassifier classifier = new RunbookClassifier(load(directory));
+
+        long multiple = corpus.getQueries().stream()
+            .filter(RunbookCorpusGenerator.LabelledQuery::isAmbiguous)
+            .filter(query -> classifier.classifyMultiple(query.getQuery()).size() > 1)
+            .count();
+        assertTrue(multiple >= corpus.getQueries().size() * 0.9, multiple + "/" + corpus.getQueries().size() + " ambiguous");
+    }
+
+    @Test
+    void queries_typos_defeatExactMatchingButNotFuzzyMatching() throws Exception {
+        RunbookCorpusGenerator.Corpus corpus = RunbookCorpusGenerator.generate(
+            RunbookCorpusGenerator.Options.builder().runbooks(200).overlap(0).ambiguity(0).typos(1).build());
+        corpus.writeTo(directory);
+        RunbookRegistry registry = load(directory);
+        RunbookClassifier exact = new RunbookClassifier(registry);
+        FuzzyMatchingClassifier fuzzy = new FuzzyMatchingClassifier(exact, registry);
+
+        List<RunbookCorpusGenerator.LabelledQuery> queries = corpus.getQueries();
+        long exactCorrect = queries.stream()
+            .filter(query -> query.getExpectedTaskId().equals(exact.classify(query.getQuery())))
+            .count();
+        long fuzzyCorrect = queries.stream()
+            .filter(query -> query.getExpectedTaskId().equals(fuzzy.classify(query.getQuery())))
+            .count();
+        assertTrue(exactCorrect < queries.size() * 0.8, exactCorrect + "/" + queries.size() + " classified without fuzzy matching");
+        assertTrue(fuzzyCorrect >= queries.size() * 0.9, fuzzyCorrect + "/" + queries.size() + " classified with fuzzy matching");
+    }
+}
@@ -0,0 +1,90 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.config.BatchExecutor;
+import com.lca.productionsupport.model.OperationalRequest;
+import com.lca.productionsupport.model.OperationalResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for BatchProcessingService
+ */
+class BatchProcessingServiceTest {
+
+    private ExecutorService executor;
+    private BatchProcessingService batchProcessingService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RunbookRegistry registry = new RunbookRegistry();
+        var locationField = RunbookRegistry.class.getDeclaredField("runbookLocation");
+        locationField.setAccessible(true);
+        locationField.set(registry, "classpath:runbooks/");
+        var enabledField = RunbookRegistry.class.getDeclaredField("enabled");
+        enabledField.setAccessible(true);
+        enabledField.set(registry, true);
+        registry.loadRunbooks();
+
+        ProductionSupportOrchestrator orchestrator = new ProductionSupportOrchestrator(
+            registry,
+            new RunbookClassifier(registry),
+            new RunbookEntityExtractor(),
+            new RunbookAdapter(),
+            new QueryTemplater(),
+            new ClassificationCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10)),
+            new OrchestrationMetrics(new SimpleMeterRegistry(), Tracer.NOOP),
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO)
+        );
+        executor = Executors.newFixedThreadPool(4);
+        batchProcessingService = new BatchProcessingService(orchestrator, registry, new BatchExecutor(executor));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void processBatch_returnsResponsesInRequestOrder() {
+        List<OperationalRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String caseId = "2025" + String.format("%03d", i) + "P6732";
+            requests.add(OperationalRequest.builder()
+                .query(i % 2 == 0 ? "cancel case " + caseId : "hello world " + i)
+                .build());
+        }
+
+        List<OperationalResponse> responses = batchProcessingService.processBatch(requests);
+
+        assertEquals(200, responses.size());
+        for (int i = 0; i < 200; i++) {
+            if (i % 2 == 0) {
+                assertEquals("CANCEL_CASE", responses.get(i).getTaskId());
+                assertEquals("2025" + String.format("%03d", i) + "P6732",
+                    responses.get(i).getExtractedEntities().get("case_id"));
+            } else {
+                assertEquals("UNKNOWN", responses.get(i).getTaskId());
+            }
+        }
+    }
+
+    @Test
+    void processBatch_failingRequest_propagatesException() {
+        List<OperationalRequest> requests = new ArrayList<>();
+        requests.add(OperationalRequest.builder().query("cancel case 2025123P6732").build());
+        requests.add(null);
+
+        assertThrows(NullPointerException.class, () -> batchProcessingService.processBatch(requests));
+    }
+}
@@ -0,0 +1,87 @@
+package com.lca.productionsupport.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BkTreeTest {
+
+    @Test
+    void distance_countsInsertionsDeletionsSubstitutionsAndTranspositions() {
+        assertEquals(0, BkTree.distance("cancel", "cancel"));
+        assertEquals(1, BkTree.distance("reconsile", "reconcile"));
+        assertEquals(1, BkTree.distance("slid", "slide"));
+        assertEquals(1, BkTree.distance("cancle", "cancel"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertEquals(4, BkTree.distance("", "case"));
+        // Restricted (optimal string alignment) distance would be 3, breaking the triangle inequality
+        assertEquals(2, BkTree.distance("ca", "abc"));
+    }
+
+    @Test
+    void distance_reusedBuffers_doNotCarryOverBetweenWords() {
+        assertEquals(2, BkTree.distance("spécimen", "specimens"));
+        assertEquals(9, BkTree.distance("reconciliation", "recon"));
+        assertEquals(1, BkTree.distance("cancle", "cancel"));
+        assertEquals(2, BkTree.distance("ca", "abc"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+    }
+
+    @Test
+    void closest_findsNearestWordWithinDistance() {
+        BkTree tree = BkTree.of(List.of("cancel", "case", "clear", "reconcile", "storage", "unit", "case"));
+
+        assertEquals(6, tree.size());
+        assertEquals("cancel", tree.closest("cancle", 1));
+        assertEquals("reconcile", tree.closest("reconsile", 1));
+        assertEquals("storage", tree.closest("storage", 0));
+        assertNull(tree.closest("cancle", 0));
+        assertNull(tree.closest("workpool", 2));
+        assertNull(BkTree.of(List.of()).closest("case", 2));
+    }
+
+    @Test
+    void closest_onTies_returnsAlphabeticallyFirst() {
+        BkTree tree = BkTree.of(List.of("cast", "cash", "case"));
+
+        assertEquals("case", tree.closest("casx", 1));
+    }
+
+    @Test
+    void closest_matchesExhaustiveSearch() {
+        Random random = new Random(7);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            words.add(randomWord(random));
+        }
+        BkTree tree = BkTree.of(words);
+        List<String> sorted = words.stream().distinct().sorted().toList();
+
+        for (int i = 0; i < 200; i++) {
+            String query = randomWord(random);
+            String expected = null;
+            int expectedDistance = 3;
+            for (String word : sorted) {
+                int distance = BkTree.distance(query, word);
+                if (distance < expectedDistance) {
+                    expected = word;
+                    expectedDistance = distance;
+                }
+            }
+            assertEquals(expected, tree.closest(query, 2), query);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 4 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(6)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,198 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.jfr.ClassificationEvent;
+import com.lca.productionsupport.model.UseCaseDefinition;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Bm25ClassifierTest {
+
+    private RunbookRegistry registry;
+    private Bm25Classifier classifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new RunbookRegistry();
+        var locationField = RunbookRegistry.class.getDeclaredField("runbookLocation");
+        locationField.setAccessible(true);
+        locationField.set(registry, "classpath:runbooks/");
+
+        var enabledField = RunbookRegistry.class.getDeclaredField("enabled");
+        enabledField.setAccessible(true);
+        enabledField.set(registry, true);
+
+        registry.loadRunbooks();
+        classifier = new Bm25Classifier(registry);
+    }
+
+    private static UseCaseDefinition useCase(String id, List<String> keywords, Map<String, List<String>> synonyms) {
+        UseCaseDefinition useCase = new UseCaseDefinition();
+        UseCaseDefinition.UseCaseInfo info = new UseCaseDefinition.UseCaseInfo();
+        info.setId(id);
+        useCase.setUseCase(info);
+        UseCaseDefinition.ClassificationConfig classification = new UseCaseDefinition.ClassificationConfig();
+        classification.setKeywords(keywords);
+        classification.setSynonyms(synonyms);
+        useCase.setClassification(classification);
+        return useCase;
+    }
+
+    private static RunbookRegistry.Snapshot snapshot(UseCaseDefinition... useCases) {
+        Map<String, UseCaseDefinition> byId = new LinkedHashMap<>();
+        for (UseCaseDefinition useCase : useCases) {
+            byId.put(useCase.getUseCase().getId(), useCase);
+        }
+        return new RunbookRegistry.Snapshot(1, byId);
+    }
+
+    @Test
+    void classify_shippedRunbooks_matchesCorrectly() {
+        assertEquals("CANCEL_CASE", classifier.classify("please cancel case 2025123P6732"));
+        assertEquals("CANCEL_CASE", classifier.classify("cancellation"));
+        assertEquals("CLEAR_STORAGE_UNIT", classifier.classify("clear storage unit SU-1234"));
+        assertEquals("DELETE_WORKPOOL_ENTRY", classifier.classify("remove entry Microtomy for container BC123456 lab LAB1"));
+        assertEquals("RECONCILE_STORAGE_UNIT_OCCUPIED_COUNT", classifier.classify("reconcile occupied count for storage unit SU-1234"));
+        assertEquals("UPDATE_SAMPLE_STATUS", classifier.classify("update slide status"));
+    }
+
+    @Test
+    void classify_distinctiveTermOutweighsSharedOnes() {
+        // The keyword scorer picks UPDATE_SAMPLE_STATUS for both ("update", "slide", "to" are everywhere)
+        assertEquals("UPDATE_SAMPLE_BARCODE", classifier.classify("please update the barcode of slide BC123456 to BC654321"));
+        assertEquals("UPDATE_STAIN_NAME", classifier.classify("change stain for BC123456 to PAS"));
+    }
+
+    @Test
+    void classify_repeatedTermSaturates() {
+        RunbookRegistry.Snapshot snapshot = snapshot(
+            useCase("UPDATE_SAMPLE", List.of("update", "update sample", "update sample status"), null),
+            useCase("UPDATE_STAIN", List.of("stain name", "update stain"), null));
+
+        assertEquals("UPDATE_STAIN", classifier.classify("update stain", snapshot));
+    }
+
+    @Test
+    void classify_synonymsOnly_doNotCompete() {
+        RunbookRegistry.Snapshot snapshot = snapshot(
+            useCase("ARCHIVE_SLIDE", List.of("archive slide"), Map.of("slide", List.of("case"))));
+
+        assertEquals("UNKNOWN", classifier.classify("case 2025123P6732", snapshot));
+        assertEquals("ARCHIVE_SLIDE", classifier.classify("archive the case", snapshot));
+    }
+
+    @Test
+    void classify_unknownQuery_returnsUnknown() {
+        assertEquals("UNKNOWN", classifier.classify("hello world"));
+        assertEquals("UNKNOWN", classifier.classify("the of to"));
+        assertTrue(classifier.classifyMultiple("hello world").isEmpty());
+    }
+
+    @Test
+    void classify_whenDisabledOrEmpty_returnsUnknown() {
+        RunbookRegistry disabledRegistry = new RunbookRegistry() {
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        };
+        Bm25Classifier disabledClassifier = new Bm25Classifier(disabledRegistry);
+
+        assertEquals("UNKNOWN", disabledClassifier.classify("cancel case"));
+        assertTrue(disabledClassifier.classifyMultiple("cancel case").isEmpty());
+        assertEquals("UNKNOWN", classifier.classify("cancel case", snapshot()));
+    }
+
+    @Test
+    void classify_newSnapshot_rebuildsIndex() {
+        RunbookRegistry.Snapshot first = snapshot(useCase("FIRST", List.of("archive slide"), null));
+        RunbookRegistry.Snapshot second = snapshot(useCase("SECOND", List.of("archive slide"), null));
+
+        assertEquals("FIRST", classifier.classify("archive slide", first));
+        assertEquals("SECOND", classifier.classify("archive slide", second));
+        assertEquals("CANCEL_CASE", classifier.classify("cancel case"));
+    }
+
+    @Test
+    void classifyMultiple_returnsCloseScoresBestFirst() {
+        RunbookRegistry emptyRegistry = new RunbookRegistry() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+        };
+        assertTrue(new Bm25Classifier(emptyRegistry).classifyMultiple("cancel case").isEmpty());
+
+        List<String> matches = classifier.classifyMultiple("add workpool entry");
+        assertEquals("CREATE_WORKPOOL_ENTRY", matches.get(0));
+        assertFalse(matches.contains("CANCEL_CASE"));
+    }
+
+    @Test
+    void classifyTopK_ranksCompetingRunbooksWithShares() {
+        RunbookRegistry.Snapshot snapshot = snapshot(
+            useCase("ARCHIVE_SLIDE", List.of("archive slide"), null),
+            useCase("ARCHIVE_BLOCK", List.of("archive block"), null),
+            useCase("SLIDE_ONLY_SYNONYM", List.of("print label"), Map.of("label", List.of("slide"))));
+
+        Classification classification = classifier.classify("archive the slide", snapshot, 5);
+
+        assertEquals(List.of("ARCHIVE_SLIDE", "ARCHIVE_BLOCK"), classification.taskIds());
+        assertEquals(1.0, classification.matches().stream().mapToDouble(Classification.Match::share).sum(), 1e-9);
+        assertTrue(classification.matches().get(0).share() > classification.matches().get(1).share());
+        assertEquals(List.of("ARCHIVE_SLIDE"), classifier.classify("archive the slide", snapshot, 1).taskIds());
+    }
+
+    @Test
+    void classifyTopK_consecutiveQueries_doNotCarryScoresOver() {
+        RunbookRegistry.Snapshot snapshot = registry.getSnapshot();
+        List<String> queries = List.of("cancel case 2025123P6732", "update sample status", "Cancel CASE case, the case",
+            "clear storage unit", "hello world", "update sample status");
+
+        for (String query : queries) {
+            Bm25Classifier fresh = new Bm25Classifier(registry);
+            assertEquals(fresh.classify(query, snapshot, 3), classifier.classify(query, snapshot, 3), query);
+        }
+        assertEquals(classifier.classify("cancel case", snapshot, 3), classifier.classify("cancel case case CASE", snapshot, 3));
+    }
+
+    @Test
+    void tokenize_lowercasesAndDropsStopWords() {
+        assertEquals(List.of("cancel", "case", "2025123p6732"),
+            List.copyOf(Bm25Classifier.tokenize("Please cancel the CASE 2025123P6732, the case")));
+    }
+
+    @Test
+    void classify_emitsJfrEventWithStrategy() throws Exception {
+        Path file = Files.createTempFile("bm25-classification", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ClassificationEvent.class);
+            recording.start();
+            classifier.classify("cancel case 2025123P6732");
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.lca.productionsupport.Classification"))
+                .toList();
+            assertEquals(1, events.size());
+            RecordedEvent event = events.get(0);
+            assertEquals("bm25", event.getString("strategy"));
+            assertEquals("CANCEL_CASE", event.getString("winner"));
+            assertEquals(8, event.getInt("candidatesScored"));
+            assertTrue(event.getDouble("score") > 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.lca.productionsupport.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ClassificationCache
+ */
+class ClassificationCacheTest {
+
+    private RunbookRegistry registry;
+    private SimpleMeterRegistry meterRegistry;
+    private ClassificationCache cache;
+    private AtomicInteger classifications;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RunbookRegistry();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ClassificationCache(meterRegistry, 100, Duration.ofMinutes(10));
+        classifications = new AtomicInteger();
+    }
+
+    private Classification classify(String template) {
+        classifications.incrementAndGet();
+        return template.startsWith("cancel")
+            ? new Classification(List.of(new Classification.Match("CANCEL_CASE", 2.0, 1.0)))
+            : Classification.NONE;
+    }
+
+    @Test
+    void get_sameTemplate_classifiesOnce() {
+        assertEquals("CANCEL_CASE", cache.get(registry.getSnapshot(), "cancel case <#1>", this::classify).winner());
+        assertEquals("CANCEL_CASE", cache.get(registry.getSnapshot(), "cancel case <#1>", this::classify).winner());
+
+        assertEquals(1, classifications.get());
+    }
+
+    @Test
+    void get_unknownIsCachedToo() {
+        assertEquals("UNKNOWN", cache.get(registry.getSnapshot(), "hello world", this::classify).winner());
+        assertEquals("UNKNOWN", cache.get(registry.getSnapshot(), "hello world", this::classify).winner());
+
+        assertEquals(1, classifications.get());
+    }
+
+    @Test
+    void get_afterRegistryReload_classifiesAgain() {
+        cache.get(registry.getSnapshot(), "cancel case <#1>", this::classify);
+        registry.reload();
+        cache.get(registry.getSnapshot(), "cancel case <#1>", this::classify);
+
+        assertEquals(2, classifications.get());
+    }
+
+    @Test
+    void invalidateAll_dropsEntries() {
+        cache.get(registry.getSnapshot(), "cancel case <#1>", this::classify);
+        cache.invalidateAll();
+        cache.get(registry.getSnapshot(), "cancel case <#1>", this::classify);
+
+        assertEquals(2, classifications.get());
+    }
+
+    @Test
+    void get_exportsHitAndMissMetrics() {
+        cache.get(registry.getSnapshot(), "cancel case <#1>", this::classify);
+        cache.get(registry.getSnapshot(), "cancel case <#1>", this::classify);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "classification").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "classification").tag("result", "miss")
+            .functionCounter().count());
+        assertNotNull(meterRegistry.get("cache.evictions").tag("cache", "classification").functionCounter());
+    }
+}
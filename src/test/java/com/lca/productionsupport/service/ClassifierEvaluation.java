@@ -0,0 +1,122 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.corpus.RunbookCorpusGenerator.LabelledQuery;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Runs a classifier over a labelled query corpus and measures top-1 accuracy, the ambiguity rate and
+ * per-query latency
+ */
+final class ClassifierEvaluation {
+
+    // Small corpora are repeated until at least this many classifications are warmed up and timed
+    private static final int WARMUP_SAMPLES = 20_000;
+    private static final int MEASURED_SAMPLES = 20_000;
+    // Latency is the best of several trials, so a GC pause or a busy build machine during one trial
+    // does not count as a regression
+    private static final int TRIALS = 3;
+    // Latency is the test thread's CPU time where the JVM measures it: on a single-CPU build machine the
+    // JIT compiler threads, still working through earlier tests, otherwise take turns with the thread
+    // under test for seconds at a time
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * A classifier implementation under evaluation
+     * @param classify query to the winning task id, or UNKNOWN
+     * @param classifyMultiple query to every task id that matches
+     */
+    record Candidate(String name, Function<String, String> classify, Function<String, List<String>> classifyMultiple) {
+    }
+
+    /**
+     * @param accuracy top-1 accuracy over the queries not labelled ambiguous
+     * @param ambiguityRate fraction of all queries that match more than one runbook
+     * @param meanCandidates average number of runbooks a query matches
+     */
+    record Result(String classifier, String corpus, int queries, double accuracy, double ambiguityRate,
+                  double meanCandidates, long p50Micros, long p99Micros) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "%s on %s (%d queries): accuracy %.3f, ambiguity %.3f, candidates %.2f, p50 %dus, p99 %dus",
+                classifier, corpus, queries, accuracy, ambiguityRate, meanCandidates, p50Micros, p99Micros);
+        }
+    }
+
+    private ClassifierEvaluation() {
+    }
+
+    static Result evaluate(Candidate candidate, String corpus, List<LabelledQuery> queries) {
+        int labelled = 0;
+        int correct = 0;
+        int ambiguous = 0;
+        long candidates = 0;
+        for (LabelledQuery query : queries) {
+            if (!query.isAmbiguous()) {
+                labelled++;
+                if (query.getExpectedTaskId().equals(candidate.classify().apply(query.getQuery()))) {
+                    correct++;
+                }
+            }
+            int matches = candidate.classifyMultiple().apply(query.getQuery()).size();
+            candidates += matches;
+            if (matches > 1) {
+                ambiguous++;
+            }
+        }
+        if (queries.isEmpty()) {
+            return new Result(candidate.name(), corpus, 0, 1.0, 0.0, 0.0, 0, 0);
+        }
+
+        int warmupRounds = Math.max(1, WARMUP_SAMPLES / queries.size());
+        for (int round = 0; round < warmupRounds; round++) {
+            queries.forEach(query -> candidate.classify().apply(query.getQuery()));
+        }
+        long p50 = Long.MAX_VALUE;
+        long p99 = Long.MAX_VALUE;
+        for (int trial = 0; trial < TRIALS; trial++) {
+            long[] nanos = time(candidate, queries);
+            p50 = Math.min(p50, percentile(nanos, 0.50));
+            p99 = Math.min(p99, percentile(nanos, 0.99));
+        }
+
+        return new Result(candidate.name(), corpus, queries.size(),
+            labelled > 0 ? (double) correct / labelled : 1.0,
+            (double) ambiguous / queries.size(),
+            (double) candidates / queries.size(),
+            p50 / 1_000, p99 / 1_000);
+    }
+
+    /**
+     * Sorted per-query classification times of one trial
+     */
+    private static long[] time(Candidate candidate, List<LabelledQuery> queries) {
+        int rounds = Math.max(1, MEASURED_SAMPLES / queries.size());
+        long[] nanos = new long[queries.size() * rounds];
+        int sample = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (LabelledQuery query : queries) {
+                long start = now();
+                candidate.classify().apply(query.getQuery());
+                nanos[sample++] = now() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long now() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
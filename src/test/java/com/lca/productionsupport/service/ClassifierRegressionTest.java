@@ -0,0 +1,165 @@
+package com.lca.productionsupport.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.lca.productionsupport.corpus.RunbookCorpusGenerator;
+import com.lca.productionsupport.corpus.RunbookCorpusGenerator.LabelledQuery;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Accuracy and latency regression suite for the classifiers: every classifier is evaluated, with fuzzy
+ * matching as configured by default, on the labelled queries for the shipped runbooks and on a generated
+ * 500-runbook catalogue (10% of its queries misspelled), and must stay
+ * within tolerance of its baseline in classifier/baseline.properties. After an intentional change,
+ * run it with -D{@value #PRINT_BASELINE_PROPERTY}=true and update the baseline from the measured values it prints.
+ */
+class ClassifierRegressionTest {
+
+    static final String SHIPPED = "shipped";
+    static final String SYNTHETIC = "synthetic";
+
+    static final String PRINT_BASELINE_PROPERTY = "classifier.print-baseline";
+
+    // Accuracy may drop by at most this much, the ambiguity rate may rise by at most this much
+    private static final double ACCURACY_TOLERANCE = 0.01;
+    private static final double AMBIGUITY_TOLERANCE = 0.02;
+    // The average number of matching runbooks may grow by at most this factor
+    private static final double CANDIDATES_TOLERANCE = 1.1;
+    // Latency may grow by at most this factor plus slack (absorbs slower build machines, coverage
+    // instrumentation and timer resolution on microsecond baselines)
+    private static final double LATENCY_TOLERANCE = 3.0;
+    private static final long LATENCY_SLACK_MICROS = 50;
+
+    private static final Properties BASELINE = new Properties();
+    private static Path syntheticCatalogue;
+
+    private static RunbookRegistry shippedRegistry;
+    private static RunbookRegistry syntheticRegistry;
+    private static List<LabelledQuery> shippedQueries;
+    private static List<LabelledQuery> syntheticQueries;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        try (InputStream baseline = ClassifierRegressionTest.class.getResourceAsStream("/classifier/baseline.properties")) {
+            BASELINE.load(baseline);
+        }
+        try (InputStream queries = ClassifierRegressionTest.class.getResourceAsStream("/classifier/shipped-queries.tsv")) {
+            shippedQueries = RunbookCorpusGenerator.readQueries(queries);
+        }
+        shippedRegistry = registry("classpath:runbooks/");
+
+        RunbookCorpusGenerator.Corpus corpus = RunbookCorpusGenerator.generate(RunbookCorpusGenerator.Options.builder()
+            .runbooks(500)
+            .queriesPerRunbook(4)
+            .overlap(0.2)
+            .ambiguity(0.1)
+            .typos(0.1)
+            .seed(42L)
+            .build());
+        syntheticCatalogue = Files.createTempDirectory("classifier-regression-");
+        corpus.writeTo(syntheticCatalogue);
+        syntheticRegistry = registry(syntheticCatalogue.toUri().toString());
+        syntheticQueries = corpus.getQueries();
+
+        // Misses are logged at WARN, keep thousands of them out of the build output
+        for (Class<?> classifier : List.of(RunbookClassifier.class, Bm25Classifier.class)) {
+            ((Logger) LoggerFactory.getLogger(classifier)).setLevel(Level.ERROR);
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        for (Class<?> classifier : List.of(RunbookClassifier.class, Bm25Classifier.class)) {
+            ((Logger) LoggerFactory.getLogger(classifier)).setLevel(null);
+        }
+        try (Stream<Path> files = Files.walk(syntheticCatalogue)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Names of the classifier implementations under test
+     */
+    static Stream<String> classifiers() {
+        return Stream.of(RunbookClassifier.STRATEGY, Bm25Classifier.STRATEGY);
+    }
+
+    private static ClassifierEvaluation.Candidate candidate(String name, RunbookRegistry registry) {
+        Classifier classifier = switch (name) {
+            case RunbookClassifier.STRATEGY -> new RunbookClassifier(registry);
+            case Bm25Classifier.STRATEGY -> new Bm25Classifier(registry);
+            default -> throw new IllegalArgumentException(name);
+        };
+        Classifier fuzzy = new FuzzyMatchingClassifier(classifier, registry);
+        return new ClassifierEvaluation.Candidate(name, fuzzy::classify, fuzzy::classifyMultiple);
+    }
+
+    @ParameterizedTest
+    @MethodSource("classifiers")
+    void shippedRunbooks_withinBaseline(String classifier) {
+        assertWithinBaseline(ClassifierEvaluation.evaluate(candidate(classifier, shippedRegistry), SHIPPED, shippedQueries));
+    }
+
+    @ParameterizedTest
+    @MethodSource("classifiers")
+    void syntheticCatalogue_withinBaseline(String classifier) {
+        assertWithinBaseline(ClassifierEvaluation.evaluate(candidate(classifier, syntheticRegistry), SYNTHETIC, syntheticQueries));
+    }
+
+    private static void assertWithinBaseline(ClassifierEvaluation.Result result) {
+        String key = result.classifier() + "." + result.corpus() + ".";
+        if (Boolean.getBoolean(PRINT_BASELINE_PROPERTY)) {
+            System.out.printf(Locale.ROOT, "Measured baseline:%n%saccuracy=%.3f%n%sambiguity=%.3f%n%scandidates=%.2f%n%sp99-micros=%d%n",
+                key, result.accuracy(), key, result.ambiguityRate(), key, result.meanCandidates(), key, result.p99Micros());
+        }
+
+        double accuracy = baseline(key + "accuracy");
+        double ambiguity = baseline(key + "ambiguity");
+        double candidates = baseline(key + "candidates");
+        double p99Micros = baseline(key + "p99-micros");
+        assertAll(
+            () -> assertTrue(result.accuracy() >= accuracy - ACCURACY_TOLERANCE,
+                "Top-1 accuracy regressed: " + result + ", baseline " + accuracy),
+            () -> assertTrue(result.ambiguityRate() <= ambiguity + AMBIGUITY_TOLERANCE,
+                "Ambiguity rate regressed: " + result + ", baseline " + ambiguity),
+            () -> assertTrue(result.meanCandidates() <= candidates * CANDIDATES_TOLERANCE,
+                "Candidates per query regressed: " + result + ", baseline " + candidates),
+            () -> assertTrue(result.p99Micros() <= p99Micros * LATENCY_TOLERANCE + LATENCY_SLACK_MICROS,
+                "p99 latency regressed: " + result + ", baseline " + p99Micros + "us"));
+    }
+
+    private static double baseline(String key) {
+        String value = BASELINE.getProperty(key);
+        assertNotNull(value, "No baseline for " + key + " in classifier/baseline.properties");
+        return Double.parseDouble(value);
+    }
+
+    private static RunbookRegistry registry(String location) throws ReflectiveOperationException {
+        RunbookRegistry registry = new RunbookRegistry();
+        var locationField = RunbookRegistry.class.getDeclaredField("runbookLocation");
+        locationField.setAccessible(true);
+        locationField.set(registry, location);
+
+        var enabledField = RunbookRegistry.class.getDeclaredField("enabled");
+        enabledField.setAccessible(true);
+        enabledField.set(registry, true);
+
+        registry.loadRunbooks();
+        return registry;
+    }
+}
@@ -0,0 +1,46 @@
+package com.lca.productionsupport.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for DownstreamMetrics
+ */
+class DownstreamMetricsTest {
+
+    @Test
+    void statusClass_fromResponseExceptionInCauseChain() {
+        WebClientResponseException notFound = new WebClientResponseException(404, "Not Found", null, null, null);
+
+        assertEquals("4xx", DownstreamMetrics.statusClass(notFound));
+        assertEquals("5xx", DownstreamMetrics.statusClass(
+            new RuntimeException(new WebClientResponseException(503, "Service Unavailable", null, null, null))));
+        assertEquals("none", DownstreamMetrics.statusClass(new RuntimeException("Connection refused")));
+        assertEquals("none", DownstreamMetrics.statusClass(null));
+    }
+
+    @Test
+    void record_tagsByServiceMethodPathStatusAndError() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DownstreamMetrics metrics = new DownstreamMetrics(meterRegistry);
+
+        metrics.recordSuccess("ap-services", "GET", "/case/{case_id}", TimeUnit.MILLISECONDS.toNanos(20));
+        metrics.recordSuccess("ap-services", "GET", "/case/{case_id}", TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.recordFailure("ap-services", "PATCH", "/case/{case_id}/cancel",
+            new WebClientResponseException(404, "Not Found", null, null, null), "API_ERROR", TimeUnit.MILLISECONDS.toNanos(5));
+
+        var success = meterRegistry.get(DownstreamMetrics.REQUEST_TIMER)
+            .tags("service", "ap-services", "method", "GET", "path", "/case/{case_id}", "status", "2xx", "error", "none")
+            .timer();
+        assertEquals(2, success.count());
+        assertEquals(60, success.totalTime(TimeUnit.MILLISECONDS), 0.001);
+
+        assertEquals(1, meterRegistry.get(DownstreamMetrics.REQUEST_TIMER)
+            .tags("method", "PATCH", "status", "4xx", "error", "API_ERROR").timer().count());
+    }
+}
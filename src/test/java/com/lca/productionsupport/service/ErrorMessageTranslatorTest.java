@@ -1,7 +1,17 @@
 package com.lca.productionsupport.service;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -10,11 +20,13 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class ErrorMessageTranslatorTest {
 
+    private SimpleMeterRegistry meterRegistry;
     private ErrorMessageTranslator translator;
 
     @BeforeEach
     void setUp() {
-        translator = new ErrorMessageTranslator();
+        meterRegistry = new SimpleMeterRegistry();
+        translator = new ErrorMessageTranslator(meterRegistry, 100_000, Duration.ofMinutes(10));
         translator.init();
     }
 
@@ -292,5 +304,273 @@ class ErrorMessageTranslatorTest {
         assertEquals(technicalError, result.getTechnicalDetails());
         assertEquals("CONNECTION_ERROR", result.getErrorCategory());
     }
-}
 
+    @Test
+    void compiledMappings_firstMatchWinsRegardlessOfPosition() {
+        ErrorMessageTranslator.CompiledMappings mappings = ErrorMessageTranslator.CompiledMappings.compile(List.of(
+            new ErrorMessageTranslator.ErrorMapping("Connection refused", "refused", "CONNECTION_ERROR"),
+            new ErrorMessageTranslator.ErrorMapping("(timeout)|(timed out)", "timeout", "TIMEOUT_ERROR"),
+            new ErrorMessageTranslator.ErrorMapping("API Error: .*404.*", "not found", "NOT_FOUND")
+        ));
+
+        // "timeout" occurs before "Connection refused" in the text, but the refused mapping comes first
+        assertEquals("CONNECTION_ERROR", mappings.match("timeout waiting, then Connection refused").getCategory());
+        assertEquals("TIMEOUT_ERROR", mappings.match("read TIMED OUT").getCategory());
+        assertEquals("NOT_FOUND", mappings.match("API Error: {\"status\":404}").getCategory());
+        assertNull(mappings.match("something else"));
+    }
+
+    @Test
+    void compiledMappings_earlierMappingMatchingLaterInText() {
+        ErrorMessageTranslator.CompiledMappings mappings = ErrorMessageTranslator.CompiledMappings.compile(List.of(
+            new ErrorMessageTranslator.ErrorMapping("bc", "bc", "BC"),
+            new ErrorMessageTranslator.ErrorMapping("ab", "ab", "AB"),
+            new ErrorMessageTranslator.ErrorMapping("(?-i)Xyz", "xyz", "XYZ"),
+            new ErrorMessageTranslator.ErrorMapping("a", "a", "A")
+        ));
+
+        // "ab" matches at position 0, but "bc" comes first in the list and matches at position 1
+        assertEquals("BC", mappings.match("abc").getCategory());
+        assertEquals("AB", mappings.match("ab").getCategory());
+        // Inline flags only apply to their own mapping
+        assertEquals("A", mappings.match("xyz A").getCategory());
+        assertEquals("XYZ", mappings.match("Xyz A").getCategory());
+    }
+
+    @Test
+    void compiledMappings_backreferencesAndInvalidPatterns() {
+        ErrorMessageTranslator.CompiledMappings mappings = ErrorMessageTranslator.CompiledMappings.compile(List.of(
+            new ErrorMessageTranslator.ErrorMapping("([a-z]+)-\\1", "repeated", "REPEATED"),
+            new ErrorMessageTranslator.ErrorMapping("[unclosed", "invalid", "INVALID"),
+            new ErrorMessageTranslator.ErrorMapping("Forbidden", "forbidden", "FORBIDDEN")
+        ));
+
+        assertEquals(2, mappings.size());
+        assertEquals("REPEATED", mappings.match("error abc-abc").getCategory());
+        assertEquals("FORBIDDEN", mappings.match("403 Forbidden").getCategory());
+        assertNull(mappings.match("abc-def"));
+    }
+
+    @Test
+    void compiledMappings_eachCompileHasNewGeneration() {
+        ErrorMessageTranslator.CompiledMappings first = ErrorMessageTranslator.CompiledMappings.compile(List.of());
+        ErrorMessageTranslator.CompiledMappings second = ErrorMessageTranslator.CompiledMappings.compile(List.of());
+
+        // Cached translations are keyed by generation, so a reload never serves a translation of the old mappings
+        assertTrue(second.generation() > first.generation());
+    }
+
+    @Test
+    void translateException_connectExceptionInCauseChain() {
+        RuntimeException error = new RuntimeException("Request failed", new java.net.ConnectException("refused"));
+
+        ErrorMessageTranslator.TranslationResult result = translator.translateException(error);
+
+        assertEquals("CONNECTION_ERROR", result.getErrorCategory());
+        assertEquals("Unable to connect to the downstream service. The service may be unavailable or not responding.",
+                    result.getUserFriendlyMessage());
+        assertEquals("Request failed", result.getTechnicalDetails());
+    }
+
+    @Test
+    void translateException_timeoutAndUnknownHost() {
+        ErrorMessageTranslator.TranslationResult timeout = translator.translateException(
+            reactor.core.Exceptions.propagate(new java.util.concurrent.TimeoutException("Did not observe any item")));
+        assertEquals("TIMEOUT_ERROR", timeout.getErrorCategory());
+
+        ErrorMessageTranslator.TranslationResult unknownHost = translator.translateException(
+            new java.net.UnknownHostException("ap-services.internal"));
+        assertEquals("Unable to resolve the service address. The service may be misconfigured.",
+                    unknownHost.getUserFriendlyMessage());
+    }
+
+    @Test
+    void translateException_usesHttpStatusNotDigitsInBody() {
+        WebClientResponseException notFound = new WebClientResponseException(
+            "API Error: {\"status\":404,\"message\":\"Case 2025401P4012 not found\"}", 404, "", null, null, null);
+
+        ErrorMessageTranslator.TranslationResult result = translator.translateException(notFound);
+
+        assertEquals("API_ERROR", result.getErrorCategory());
+        assertEquals("The requested resource was not found in the system.", result.getUserFriendlyMessage());
+        assertEquals(notFound.getMessage(), result.getTechnicalDetails());
+    }
+
+    @Test
+    void translateException_unmappedStatus_skipsStatusPatterns() {
+        WebClientResponseException conflict = new WebClientResponseException(
+            "API Error: {\"status\":409,\"message\":\"Case 2025401P4012 is locked\"}", 409, "", null, null, null);
+
+        ErrorMessageTranslator.TranslationResult result = translator.translateException(conflict);
+
+        // "401" inside the case id must not be read as an authentication failure
+        assertEquals("UNKNOWN_ERROR", result.getErrorCategory());
+    }
+
+    @Test
+    void translateException_unknownType_fallsBackToPatterns() {
+        assertEquals("CONFIG_ERROR", translator.translateException(new IllegalStateException("Step not found")).getErrorCategory());
+        assertEquals("TIMEOUT_ERROR", translator.translateException(new IllegalStateException("read timed out")).getErrorCategory());
+        assertEquals("UNKNOWN_ERROR", translator.translateException(null).getErrorCategory());
+        assertNull(translator.translateException(null).getTechnicalDetails());
+    }
+
+    @Test
+    void translate_repeatedError_servedFromCache() {
+        String technicalError = "API Error: {\"status\":404,\"message\":\"Accession Case not found\"}";
+
+        ErrorMessageTranslator.TranslationResult first = translator.translate(technicalError);
+        ErrorMessageTranslator.TranslationResult second = translator.translate(technicalError);
+
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+            .tag("cache", ErrorMessageTranslator.TRANSLATION_CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+            .tag("cache", ErrorMessageTranslator.TRANSLATION_CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void translate_textsAboveCacheWeight_notKept() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ErrorMessageTranslator small = new ErrorMessageTranslator(registry, 100, Duration.ofMinutes(10));
+        small.init();
+        String body = "API Error: 500 " + "x".repeat(200);
+
+        assertEquals("API_ERROR", small.translate(body).getErrorCategory());
+
+        // Eviction runs asynchronously after the write
+        FunctionCounter evictions = registry.get("cache.evictions")
+            .tag("cache", ErrorMessageTranslator.TRANSLATION_CACHE_NAME).functionCounter();
+        for (int i = 0; i < 100 && evictions.count() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0, evictions.count());
+        assertEquals(0.0, registry.get("cache.size")
+            .tag("cache", ErrorMessageTranslator.TRANSLATION_CACHE_NAME).gauge().value());
+    }
+
+    @Test
+    void extractApiErrorMessage_parsesOnceAndCachesMissingMessages() {
+        String technicalError = "API Error: {\"status\":404,\"message\":\"Accession Case not found\"}";
+
+        assertEquals("Accession Case not found", translator.extractApiErrorMessage(technicalError));
+        assertEquals("Accession Case not found", translator.extractApiErrorMessage(technicalError));
+        assertNull(translator.extractApiErrorMessage("Connection refused"));
+        assertNull(translator.extractApiErrorMessage("Connection refused"));
+        assertNull(translator.extractApiErrorMessage(null));
+
+        assertEquals(2.0, meterRegistry.get("cache.gets")
+            .tag("cache", ErrorMessageTranslator.API_MESSAGE_CACHE_NAME).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void externalMappings_loadedAndReloadedWhenFileChanges(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("error-messages.yaml");
+        Files.writeString(file, mappingYaml("Connection refused", "Service is down"));
+
+        ErrorMessageTranslator external = externalTranslator(file);
+        try {
+            assertEquals("Service is down", external.translate("Connection refused").getUserFriendlyMessage());
+
+            Files.writeString(file, mappingYaml("Connection refused", "Service is still down"));
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!"Service is still down".equals(external.translate("Connection refused").getUserFriendlyMessage())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals("Service is still down", external.translate("Connection refused").getUserFriendlyMessage());
+        } finally {
+            external.shutdown();
+        }
+    }
+
+    @Test
+    void reload_invalidFile_keepsCurrentMappings(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("error-messages.yaml");
+        Files.writeString(file, mappingYaml("Connection refused", "Service is down"));
+        ErrorMessageTranslator external = externalTranslator(file);
+
+        Files.writeString(file, "errorMappings: [ not: valid");
+        assertFalse(external.reload());
+        Files.writeString(file, "somethingElse: true");
+        assertFalse(external.reload());
+
+        assertEquals("Service is down", external.translate("Connection refused").getUserFriendlyMessage());
+        assertFalse(translator.reload());
+        external.shutdown();
+    }
+
+    @Test
+    void externalMappings_missingFile_usesClasspathMappings(@TempDir Path tempDir) throws Exception {
+        ErrorMessageTranslator external = externalTranslator(tempDir.resolve("missing.yaml"));
+
+        assertEquals("CONNECTION_ERROR", external.translate("Connection refused").getErrorCategory());
+    }
+
+    @Test
+    void externalMappings_invalidFileAtStartup_usesClasspathMappings(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("error-messages.yaml");
+        Files.writeString(file, "errorMappings: [ not: valid");
+
+        ErrorMessageTranslator external = externalTranslator(file);
+        try {
+            // Only the classpath mappings know this error, the built-in defaults do not
+            assertEquals("AUTH_ERROR", external.translate("401 Unauthorized").getErrorCategory());
+
+            Files.writeString(file, mappingYaml("Connection refused", "Service is down"));
+            assertTrue(external.reload());
+            assertEquals("Service is down", external.translate("Connection refused").getUserFriendlyMessage());
+        } finally {
+            external.shutdown();
+        }
+    }
+
+    @Test
+    void externalMappings_configMapDataSwap_reloaded(@TempDir Path tempDir) throws Exception {
+        // Layout of a mounted ConfigMap: file -> ..data/file, ..data -> timestamped directory
+        Path firstVersion = Files.createDirectory(tempDir.resolve("..2026_01_01"));
+        Files.writeString(firstVersion.resolve("error-messages.yaml"), mappingYaml("Connection refused", "Service is down"));
+        Files.createSymbolicLink(tempDir.resolve("..data"), firstVersion.getFileName());
+        Path file = Files.createSymbolicLink(tempDir.resolve("error-messages.yaml"), Path.of("..data", "error-messages.yaml"));
+
+        ErrorMessageTranslator external = externalTranslator(file);
+        try {
+            assertEquals("Service is down", external.translate("Connection refused").getUserFriendlyMessage());
+
+            // An update writes a new directory and renames a new ..data symlink over the old one
+            Path secondVersion = Files.createDirectory(tempDir.resolve("..2026_01_02"));
+            Files.writeString(secondVersion.resolve("error-messages.yaml"), mappingYaml("Connection refused", "Service is still down"));
+            Path newLink = Files.createSymbolicLink(tempDir.resolve("..data_tmp"), secondVersion.getFileName());
+            Files.move(newLink, tempDir.resolve("..data"), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!"Service is still down".equals(external.translate("Connection refused").getUserFriendlyMessage())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals("Service is still down", external.translate("Connection refused").getUserFriendlyMessage());
+        } finally {
+            external.shutdown();
+        }
+    }
+
+    private ErrorMessageTranslator externalTranslator(Path file) throws Exception {
+        ErrorMessageTranslator external = new ErrorMessageTranslator(new SimpleMeterRegistry(), 100_000, Duration.ofMinutes(10));
+        var locationField = ErrorMessageTranslator.class.getDeclaredField("mappingsLocation");
+        locationField.setAccessible(true);
+        locationField.set(external, file.toString());
+        var watchField = ErrorMessageTranslator.class.getDeclaredField("watchEnabled");
+        watchField.setAccessible(true);
+        watchField.set(external, true);
+        external.init();
+        return external;
+    }
+
+    private String mappingYaml(String pattern, String userMessage) {
+        return "errorMappings:\n"
+            + "  - pattern: \"" + pattern + "\"\n"
+            + "    userMessage: \"" + userMessage + "\"\n"
+            + "    category: \"CONNECTION_ERROR\"\n";
+    }
+}
@@ -0,0 +1,108 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.model.UseCaseDefinition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyMatchingClassifierTest {
+
+    private RunbookRegistry registry;
+    private FuzzyMatchingClassifier classifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new RunbookRegistry();
+        var locationField = RunbookRegistry.class.getDeclaredField("runbookLocation");
+        locationField.setAccessible(true);
+        locationField.set(registry, "classpath:runbooks/");
+
+        var enabledField = RunbookRegistry.class.getDeclaredField("enabled");
+        enabledField.setAccessible(true);
+        enabledField.set(registry, true);
+
+        registry.loadRunbooks();
+        classifier = new FuzzyMatchingClassifier(new RunbookClassifier(registry), registry);
+    }
+
+    @Test
+    void classify_misspelledQueries_matchLikeCorrectOnes() {
+        RunbookClassifier exact = new RunbookClassifier(registry);
+        assertEquals("UNKNOWN", exact.classify("cancle 2025123P6732"));
+        assertEquals("CLEAR_STORAGE_UNIT", exact.classify("reconsile storage unit SU-1234"));
+
+        assertEquals("CANCEL_CASE", classifier.classify("cancle 2025123P6732"));
+        assertEquals("RECONCILE_STORAGE_UNIT_OCCUPIED_COUNT", classifier.classify("reconsile storage unit SU-1234"));
+        assertEquals("CLEAR_STORAGE_UNIT", classifier.classify("clear storgae unit SU-1234"));
+    }
+
+    @Test
+    void classify_wrapsBm25Too() {
+        FuzzyMatchingClassifier bm25 = new FuzzyMatchingClassifier(new Bm25Classifier(registry), registry);
+
+        assertEquals("CANCEL_CASE", bm25.classify("cancle case 2025123P6732"));
+    }
+
+    @Test
+    void classify_unknownQuery_staysUnknown() {
+        assertEquals("UNKNOWN", classifier.classify("hello world"));
+        assertTrue(classifier.classifyMultiple("hello world").isEmpty());
+    }
+
+    @Test
+    void classifyTopK_correctsQuery() {
+        Classification classification = classifier.classify("cancle case", registry.getSnapshot(), 3);
+
+        assertEquals("CANCEL_CASE", classification.winner());
+    }
+
+    @Test
+    void classifyMultiple_correctsQuery() {
+        assertTrue(classifier.classifyMultiple("cancle case").contains("CANCEL_CASE"));
+    }
+
+    @Test
+    void classify_whenDisabled_delegates() {
+        RunbookRegistry disabledRegistry = new RunbookRegistry() {
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        };
+        FuzzyMatchingClassifier disabled = new FuzzyMatchingClassifier(new RunbookClassifier(disabledRegistry), disabledRegistry);
+
+        assertEquals("UNKNOWN", disabled.classify("cancle case"));
+        assertTrue(disabled.classifyMultiple("cancle case").isEmpty());
+    }
+
+    @Test
+    void correct_leavesKnownShortStopAndDigitWordsAlone() {
+        RunbookRegistry.Snapshot snapshot = registry.getSnapshot();
+        NormalizedQuery query = NormalizedQuery.of("Please cancel case 2025123P6732 BC123456 <#1> the xyz");
+
+        assertSame(query, classifier.correct(query, snapshot));
+        assertEquals("cancel the case 2025123p6732",
+            classifier.correct(NormalizedQuery.of("Cancle the case 2025123P6732"), snapshot).text());
+    }
+
+    @Test
+    void correct_newSnapshot_rebuildsVocabulary() {
+        UseCaseDefinition useCase = new UseCaseDefinition();
+        UseCaseDefinition.UseCaseInfo info = new UseCaseDefinition.UseCaseInfo();
+        info.setId("ARCHIVE_SLIDE");
+        useCase.setUseCase(info);
+        UseCaseDefinition.ClassificationConfig classification = new UseCaseDefinition.ClassificationConfig();
+        classification.setKeywords(List.of("archive slide"));
+        classification.setSynonyms(Map.of("archive", List.of("shelve")));
+        useCase.setClassification(classification);
+        RunbookRegistry.Snapshot snapshot = new RunbookRegistry.Snapshot(2, Map.of("ARCHIVE_SLIDE", useCase));
+
+        assertEquals("shelve slide", classifier.correct(NormalizedQuery.of("shelv slide"), snapshot).text());
+        assertEquals("ARCHIVE_SLIDE", classifier.classify("archiv slide", snapshot));
+        assertEquals("CANCEL_CASE", classifier.classify("cancle case"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.lca.productionsupport.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lca.productionsupport.config.BatchExecutor;
+import com.lca.productionsupport.model.OperationalResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for NdjsonProcessingService
+ */
+class NdjsonProcessingServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExecutorService executor;
+    private NdjsonProcessingService ndjsonProcessingService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RunbookRegistry registry = new RunbookRegistry();
+        var locationField = RunbookRegistry.class.getDeclaredField("runbookLocation");
+        locationField.setAccessible(true);
+        locationField.set(registry, "classpath:runbooks/");
+        var enabledField = RunbookRegistry.class.getDeclaredField("enabled");
+        enabledField.setAccessible(true);
+        enabledField.set(registry, true);
+        registry.loadRunbooks();
+
+        ProductionSupportOrchestrator orchestrator = new ProductionSupportOrchestrator(
+            registry,
+            new RunbookClassifier(registry),
+            new RunbookEntityExtractor(),
+            new RunbookAdapter(),
+            new QueryTemplater(),
+            new ClassificationCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10)),
+            new OrchestrationMetrics(new SimpleMeterRegistry(), Tracer.NOOP),
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO)
+        );
+        executor = Executors.newFixedThreadPool(4);
+        ndjsonProcessingService = new NdjsonProcessingService(
+            orchestrator, new BatchExecutor(executor), Validation.buildDefaultValidatorFactory().getValidator(), 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void process_writesOneResponseLinePerRequestInOrder() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            String caseId = "2025" + String.format("%03d", i) + "P6732";
+            String query = i % 2 == 0 ? "cancel case " + caseId : "hello world " + i;
+            input.append("{\"query\":\"").append(query).append("\"}\n");
+        }
+
+        List<OperationalResponse> responses = process(input.toString());
+
+        assertEquals(100, responses.size());
+        for (int i = 0; i < 100; i++) {
+            if (i % 2 == 0) {
+                assertEquals("CANCEL_CASE", responses.get(i).getTaskId());
+                assertEquals("2025" + String.format("%03d", i) + "P6732",
+                    responses.get(i).getExtractedEntities().get("case_id"));
+            } else {
+                assertEquals("UNKNOWN", responses.get(i).getTaskId());
+            }
+        }
+    }
+
+    @Test
+    void process_invalidLines_produceWarningsWithoutFailingStream() throws Exception {
+        String input = "{\"query\":\"cancel case 2025123P6732\"}\n"
+            + "not json\n"
+            + "\n"
+            + "{\"query\":\"\"}\n"
+            + "{\"query\":\"cancel case 2025999P1111\"}";
+
+        List<OperationalResponse> responses = process(input);
+
+        assertEquals(4, responses.size());
+        assertEquals("CANCEL_CASE", responses.get(0).getTaskId());
+        assertEquals("UNKNOWN", responses.get(1).getTaskId());
+        assertEquals(List.of("Invalid request on line 2: Malformed JSON"), responses.get(1).getWarnings());
+        assertEquals("UNKNOWN", responses.get(2).getTaskId());
+        assertTrue(responses.get(2).getWarnings().get(0).startsWith("Invalid request on line 4: "));
+        assertEquals("2025999P1111", responses.get(3).getExtractedEntities().get("case_id"));
+    }
+
+    @Test
+    void process_emptyInput_writesNothing() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long processed = ndjsonProcessingService.process(new ByteArrayInputStream(new byte[0]), output);
+
+        assertEquals(0, processed);
+        assertEquals(0, output.size());
+    }
+
+    private List<OperationalResponse> process(String input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ndjsonProcessingService.process(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<OperationalResponse> responses = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                responses.add(objectMapper.readValue(line, OperationalResponse.class));
+            }
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,74 @@
+package com.lca.productionsupport.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizedQueryTest {
+
+    @Test
+    void of_lowercasesAndKeepsOffsets() {
+        NormalizedQuery query = NormalizedQuery.of("Cancel CASE [2025123P6732]");
+
+        assertEquals("Cancel CASE [2025123P6732]", query.text());
+        assertEquals("cancel case [2025123p6732]", query.lower());
+        assertEquals(query.text().length(), query.lower().length());
+        assertEquals(List.of("cancel", "case", "2025123p6732"), tokens(query));
+        assertEquals(13, query.tokenStart(2));
+        assertEquals(25, query.tokenEnd(2));
+    }
+
+    @Test
+    void of_lowercaseQuery_sharesText() {
+        NormalizedQuery query = NormalizedQuery.of("cancel case");
+
+        assertSame(query.text(), query.lower());
+    }
+
+    @Test
+    void charClass_classifiesAsciiLettersDigitsUnderscoreAndWhitespace() {
+        NormalizedQuery query = NormalizedQuery.of("aZ9_ \t-é");
+
+        assertEquals(NormalizedQuery.LETTER, query.charClass(0));
+        assertEquals(NormalizedQuery.LETTER, query.charClass(1));
+        assertEquals(NormalizedQuery.DIGIT, query.charClass(2));
+        assertEquals(NormalizedQuery.UNDERSCORE, query.charClass(3));
+        assertEquals(NormalizedQuery.SPACE, query.charClass(4));
+        assertEquals(NormalizedQuery.SPACE, query.charClass(5));
+        assertEquals(NormalizedQuery.OTHER, query.charClass(6));
+        assertEquals(NormalizedQuery.OTHER, query.charClass(7));
+    }
+
+    @Test
+    void tokens_splitOnEverythingButLettersAndDigits() {
+        NormalizedQuery query = NormalizedQuery.of("2025322P284448-A_1_1, re-run!");
+
+        assertEquals(List.of("2025322p284448", "a", "1", "1", "re", "run"), tokens(query));
+        assertFalse(query.isLetters(0));
+        assertTrue(query.isLetters(1));
+        for (int t = 0; t < query.tokenCount(); t++) {
+            assertEquals(query.token(t).hashCode(), query.tokenHash(t));
+        }
+    }
+
+    @Test
+    void of_null_isEmpty() {
+        NormalizedQuery query = NormalizedQuery.of(null);
+
+        assertEquals("", query.text());
+        assertEquals(0, query.length());
+        assertEquals(0, query.tokenCount());
+        assertEquals(0, NormalizedQuery.EMPTY.tokenCount());
+    }
+
+    private static List<String> tokens(NormalizedQuery query) {
+        List<String> tokens = new ArrayList<>();
+        for (int t = 0; t < query.tokenCount(); t++) {
+            tokens.add(query.token(t));
+        }
+        return tokens;
+    }
+}
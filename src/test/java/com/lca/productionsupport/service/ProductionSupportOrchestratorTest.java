@@ -1,11 +1,28 @@
 package com.lca.productionsupport.service;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lca.productionsupport.model.OperationalRequest;
 import com.lca.productionsupport.model.OperationalResponse;
 import com.lca.productionsupport.model.TaskInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,6 +34,8 @@ class ProductionSupportOrchestratorTest {
     private RunbookClassifier runbookClassifier;
     private RunbookEntityExtractor entityExtractor;
     private RunbookAdapter runbookAdapter;
+    private ClassificationCache classificationCache;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -25,12 +44,18 @@ class ProductionSupportOrchestratorTest {
         runbookClassifier = new RunbookClassifier(runbookRegistry);
         entityExtractor = new RunbookEntityExtractor();
         runbookAdapter = new RunbookAdapter();
+        classificationCache = new ClassificationCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+        meterRegistry = new SimpleMeterRegistry();
         
         orchestrator = new ProductionSupportOrchestrator(
             runbookRegistry, 
             runbookClassifier, 
             entityExtractor, 
-            runbookAdapter
+            runbookAdapter,
+            new QueryTemplater(),
+            classificationCache,
+            new OrchestrationMetrics(meterRegistry, Tracer.NOOP),
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO)
         );
     }
     
@@ -160,6 +185,52 @@ class ProductionSupportOrchestratorTest {
         assertEquals("ap-services", response.getDownstreamService());
     }
 
+    @Test
+    void processRequest_sameQueryShapeDifferentCaseNumber_sharesClassificationButExtractsOwnEntities() {
+        OperationalResponse first = orchestrator.processRequest(OperationalRequest.builder()
+            .query("cancel case 2025123P6732")
+            .build());
+        OperationalResponse second = orchestrator.processRequest(OperationalRequest.builder()
+            .query("Cancel case 2025999T1111")
+            .build());
+
+        assertEquals("CANCEL_CASE", first.getTaskId());
+        assertEquals("CANCEL_CASE", second.getTaskId());
+        assertEquals("2025123P6732", first.getExtractedEntities().get("case_id"));
+        assertEquals("2025999T1111", second.getExtractedEntities().get("case_id"));
+    }
+
+    @Test
+    void processRequest_classified_returnsShareAndAlternates() {
+        OperationalResponse response = orchestrator.processRequest(OperationalRequest.builder()
+            .query("update sample status to Completed - Microtomy")
+            .build());
+
+        assertEquals("UPDATE_SAMPLE_STATUS", response.getTaskId());
+        List<OperationalResponse.Alternative> alternatives = response.getAlternatives();
+        assertFalse(alternatives.isEmpty());
+        assertTrue(alternatives.size() <= 2);
+        double total = response.getShare();
+        for (OperationalResponse.Alternative alternative : alternatives) {
+            assertNotEquals("UPDATE_SAMPLE_STATUS", alternative.getTaskId());
+            assertNotNull(alternative.getTaskName());
+            assertTrue(alternative.getShare() <= response.getShare());
+            total += alternative.getShare();
+        }
+        assertEquals(1.0, total, 1e-9);
+    }
+
+    @Test
+    void processRequest_withExplicitTaskId_hasNoShare() {
+        OperationalResponse response = orchestrator.processRequest(OperationalRequest.builder()
+            .query("2025123P6732")
+            .taskId("CANCEL_CASE")
+            .build());
+
+        assertNull(response.getShare());
+        assertNull(response.getAlternatives());
+    }
+
     // ========== Explicit Task ID Tests ==========
 
     @Test
@@ -654,4 +725,124 @@ class ProductionSupportOrchestratorTest {
         // Empty string should trigger classification
         assertEquals("CANCEL_CASE", response.getTaskId());
     }
+
+    @Test
+    void processRequest_recordsStageTimersByTaskIdAndOutcome() {
+        orchestrator.processRequest(OperationalRequest.builder().query("cancel case 2025123P6732").build());
+        orchestrator.processRequest(OperationalRequest.builder().query("hello world").build());
+        orchestrator.processRequest(OperationalRequest.builder().query("x").taskId("NOT_A_TASK").build());
+
+        for (String stage : List.of("classify", "extract", "convert", "process")) {
+            assertEquals(1, meterRegistry.get(OrchestrationMetrics.STAGE_TIMER)
+                .tags("stage", stage, "taskId", "CANCEL_CASE", "outcome", "success").timer().count(), stage);
+        }
+        assertEquals(1, meterRegistry.get(OrchestrationMetrics.STAGE_TIMER)
+            .tags("stage", "classify", "taskId", "UNKNOWN", "outcome", "unknown").timer().count());
+        // Free-text task ids from the request never become tag values
+        assertEquals(2, meterRegistry.get(OrchestrationMetrics.STAGE_TIMER)
+            .tags("stage", "process", "taskId", "UNKNOWN", "outcome", "unknown").timer().count());
+        assertTrue(meterRegistry.find(OrchestrationMetrics.STAGE_TIMER).tag("taskId", "NOT_A_TASK").timers().isEmpty());
+    }
+
+    @Test
+    void processRequest_tracesStagesAsChildrenOfProcessSpan() {
+        InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+            .build();
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(tracerProvider.get("test"), currentTraceContext, event -> { },
+            new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+        ProductionSupportOrchestrator tracedOrchestrator = new ProductionSupportOrchestrator(
+            runbookRegistry, runbookClassifier, entityExtractor, runbookAdapter, new QueryTemplater(),
+            classificationCache, new OrchestrationMetrics(meterRegistry, tracer),
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
+
+        tracedOrchestrator.processRequest(OperationalRequest.builder()
+            .query("cancel case 2025123P6732")
+            .build());
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        tracerProvider.close();
+
+        SpanData process = spans.stream()
+            .filter(span -> span.getName().equals("production-support.process"))
+            .findFirst().orElseThrow();
+        assertEquals("CANCEL_CASE", process.getAttributes().get(AttributeKey.stringKey("taskId")));
+        assertEquals("success", process.getAttributes().get(AttributeKey.stringKey("outcome")));
+        for (String stage : List.of("classify", "extract", "convert")) {
+            SpanData span = spans.stream()
+                .filter(s -> s.getName().equals("production-support." + stage))
+                .findFirst().orElseThrow();
+            assertEquals(process.getSpanId(), span.getParentSpanId());
+        }
+    }
+
+    @Test
+    void processRequest_classifierThrows_endsSpansAndRestoresScope() {
+        InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+            .build();
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(tracerProvider.get("test"), currentTraceContext, event -> { },
+            new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+        Classifier failing = new RunbookClassifier(runbookRegistry) {
+            @Override
+            public Classification classify(NormalizedQuery query, RunbookRegistry.Snapshot snapshot, int k) {
+                throw new IllegalStateException("classifier failed");
+            }
+        };
+        ProductionSupportOrchestrator tracedOrchestrator = new ProductionSupportOrchestrator(
+            runbookRegistry, failing, entityExtractor, runbookAdapter, new QueryTemplater(),
+            classificationCache, new OrchestrationMetrics(meterRegistry, tracer),
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
+
+        assertThrows(IllegalStateException.class, () -> tracedOrchestrator.processRequest(OperationalRequest.builder()
+            .query("cancel case 2025123P6732")
+            .build()));
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        tracerProvider.close();
+
+        // No span is left in scope on the thread to parent the next request's spans
+        assertNull(tracer.currentSpan());
+        assertEquals(List.of("production-support.classify", "production-support.process"),
+            spans.stream().map(SpanData::getName).toList());
+        assertEquals("error", spans.get(0).getAttributes().get(AttributeKey.stringKey("outcome")));
+        assertEquals(1, meterRegistry.get(OrchestrationMetrics.STAGE_TIMER)
+            .tags("stage", "classify", "taskId", "UNKNOWN", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void processRequest_overSlowThreshold_logsStageBreakdown() throws Exception {
+        ProductionSupportOrchestrator slowLogged = new ProductionSupportOrchestrator(
+            runbookRegistry, runbookClassifier, entityExtractor, runbookAdapter, new QueryTemplater(),
+            classificationCache, new OrchestrationMetrics(meterRegistry, Tracer.NOOP),
+            new SlowRequestLog(true, Duration.ZERO, Duration.ZERO));
+        Logger slowLogger = (Logger) LoggerFactory.getLogger(SlowRequestLog.LOGGER_NAME);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        slowLogger.addAppender(appender);
+        try {
+            slowLogged.processRequest(OperationalRequest.builder()
+                .query("cancel case 2025123P6732")
+                .downstreamService("ap-services")
+                .build());
+        } finally {
+            slowLogger.detachAppender(appender);
+        }
+
+        assertEquals(1, appender.list.size());
+        JsonNode record = new ObjectMapper().readTree(appender.list.get(0).getFormattedMessage());
+        assertEquals("CANCEL_CASE", record.get("taskId").asText());
+        assertEquals("success", record.get("outcome").asText());
+        assertEquals(List.of("classify", "extract", "convert"), iteratorToList(record.get("stagesMs").fieldNames()));
+        assertTrue(record.get("responseBytes").asLong() > 0);
+    }
+
+    private static List<String> iteratorToList(Iterator<String> iterator) {
+        List<String> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
 }
+
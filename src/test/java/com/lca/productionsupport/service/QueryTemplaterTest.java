@@ -0,0 +1,108 @@
+package com.lca.productionsupport.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for QueryTemplater
+ */
+class QueryTemplaterTest {
+
+    private QueryTemplater templater;
+
+    @BeforeEach
+    void setUp() {
+        templater = new QueryTemplater();
+    }
+
+    @Test
+    void template_caseNumbers_shareTemplate() {
+        assertEquals("cancel case <#1>", templater.template("cancel case 2025123P6732"));
+        assertEquals(templater.template("cancel case 2025123P6732"), templater.template("Cancel  case 2025999T1111 "));
+    }
+
+    @Test
+    void template_bracketedCaseNumber() {
+        assertEquals("cancel case [<#1>]", templater.template("cancel case [2025251T115466]"));
+    }
+
+    @Test
+    void template_specimenBarcode_notSplitIntoCaseNumber() {
+        assertEquals("add workpool entry staining for sample <#2> lab code foraz",
+            templater.template("add workpool entry Staining for sample 2025322P284448-A_1_1 lab code FORAZ"));
+    }
+
+    @Test
+    void template_prefixedIdAndNumber() {
+        assertEquals("update sample status to completed for sample <#3>",
+            templater.template("update sample status to Completed for sample BC123456"));
+        assertEquals("update stain for sample <#4>", templater.template("update stain for sample 123456"));
+    }
+
+    @Test
+    void template_keepsKeywordsAndShortTokens() {
+        assertEquals("clear storage unit cs-foraz85449-1", templater.template("clear storage unit CS-FORAZ85449-1"));
+        assertEquals("cancel case abc", templater.template("cancel case ABC"));
+    }
+
+    @Test
+    void template_null_returnsEmpty() {
+        assertEquals("", templater.template((String) null));
+    }
+
+    @Test
+    void template_normalizedQuery_returnsNormalizedTemplate() {
+        NormalizedQuery template = templater.template(NormalizedQuery.of(" Cancel\tCASE 2025123P6732 "));
+
+        assertEquals("cancel case <#1>", template.text());
+        assertSame(template.text(), template.lower());
+    }
+
+    @Test
+    void template_matchesRegexSlots() {
+        Random random = new Random(7);
+        String[] separators = {" ", "  ", "\t", "\n", "-", "_", "[", "]", ".", "<#1>", "\u0001", ""};
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder query = new StringBuilder();
+            int pieces = random.nextInt(8);
+            for (int p = 0; p < pieces; p++) {
+                switch (random.nextInt(3)) {
+                    case 0 -> query.append(random.nextLong(1_000_000_000_000L) >>> random.nextInt(40));
+                    case 1 -> {
+                        int letters = 1 + random.nextInt(4);
+                        for (int i = 0; i < letters; i++) {
+                            char letter = (char) ('a' + random.nextInt(26));
+                            query.append(random.nextBoolean() ? Character.toUpperCase(letter) : letter);
+                        }
+                    }
+                    default -> query.append(separators[random.nextInt(separators.length)]);
+                }
+            }
+            String raw = query.toString();
+            assertEquals(regexTemplate(raw), templater.template(raw), raw);
+        }
+    }
+
+    /**
+     * The templater as one regex pass per slot type, for comparison
+     */
+    private static String regexTemplate(String query) {
+        String[][] slots = {
+            {"\\b\\d{7,}[A-Za-z]\\d{4,}[\\-_][A-Za-z0-9\\-_]*", "<#2>"},
+            {"\\b\\d{7,}[A-Za-z]\\d{4,}\\b", "<#1>"},
+            {"\\b[A-Za-z]{1,3}\\d{4,}\\b", "<#3>"},
+            {"\\b\\d{4,}\\b", "<#4>"}
+        };
+        String result = query;
+        for (String[] slot : slots) {
+            result = Pattern.compile(slot[0]).matcher(result).replaceAll(slot[1]);
+        }
+        return result.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,6 +3,7 @@ package com.lca.productionsupport.service;
 import com.lca.productionsupport.model.OperationalResponse;
 import com.lca.productionsupport.model.StepMethod;
 import com.lca.productionsupport.model.UseCaseDefinition;
+import com.lca.productionsupport.template.RequestBodyTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -770,6 +771,55 @@ class RunbookAdapterTest {
     }
 
     // Helper method to create a basic use case for testing
+    @Test
+    void toExecutableStep_doesNotRenderRequestBody() {
+        UseCaseDefinition.StepDefinition httpStep = new UseCaseDefinition.StepDefinition();
+        httpStep.setStepNumber(2);
+        httpStep.setMethod("POST");
+        httpStep.setPath("/api/cases/{case_id}");
+        httpStep.setBody(Map.of("caseId", "{case_id}"));
+        httpStep.setStepType("procedure");
+
+        OperationalResponse.RunbookStep step = adapter.toExecutableStep(httpStep, Map.of("case_id", "2025123P6732"));
+
+        assertEquals("/api/cases/2025123P6732", step.getPath());
+        assertNull(step.getRequestBody());
+    }
+
+    @Test
+    void getBodyTemplate_compiledOncePerBody() {
+        UseCaseDefinition.StepDefinition httpStep = new UseCaseDefinition.StepDefinition();
+        httpStep.setBody(Map.of("caseId", "{case_id}"));
+
+        RequestBodyTemplate first = adapter.getBodyTemplate(httpStep);
+
+        assertNotNull(first);
+        assertSame(first, adapter.getBodyTemplate(httpStep));
+        assertEquals(java.util.Set.of("case_id"), first.getPlaceholders());
+    }
+
+    @Test
+    void getBodyTemplate_newBody_recompiles() {
+        UseCaseDefinition.StepDefinition httpStep = new UseCaseDefinition.StepDefinition();
+        httpStep.setBody(Map.of("caseId", "{case_id}"));
+        RequestBodyTemplate first = adapter.getBodyTemplate(httpStep);
+
+        httpStep.setBody(Map.of("status", "{status}"));
+
+        RequestBodyTemplate second = adapter.getBodyTemplate(httpStep);
+        assertNotSame(first, second);
+        assertEquals(java.util.Set.of("status"), second.getPlaceholders());
+    }
+
+    @Test
+    void getBodyTemplate_noBody_returnsNull() {
+        UseCaseDefinition.StepDefinition httpStep = new UseCaseDefinition.StepDefinition();
+
+        assertNull(adapter.getBodyTemplate(httpStep));
+        httpStep.setBody(new HashMap<>());
+        assertNull(adapter.getBodyTemplate(httpStep));
+    }
+
     private UseCaseDefinition createBasicUseCase() {
         UseCaseDefinition useCase = new UseCaseDefinition();
         
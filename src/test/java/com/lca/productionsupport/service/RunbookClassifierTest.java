@@ -1,9 +1,15 @@
 package com.lca.productionsupport.service;
 
+import com.lca.productionsupport.jfr.ClassificationEvent;
 import com.lca.productionsupport.model.UseCaseDefinition;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -345,5 +351,111 @@ class RunbookClassifierTest {
         String result = testClassifier.classify("test query match");
         assertEquals("HIGH_SCORE", result);
     }
-}
 
+    @Test
+    void classify_emitsJfrEvent() throws Exception {
+        Path dump = Files.createTempFile("classification", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ClassificationEvent.class);
+            recording.start();
+            classifier.classify("cancel case 2025123P6732");
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.deleteIfExists(dump);
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("CANCEL_CASE", event.getString("winner"));
+        assertEquals("cancel case 2025123P6732".length(), event.getInt("queryLength"));
+        assertTrue(event.getInt("candidatesScored") >= 1);
+        assertTrue(event.getInt("candidatesScored") <= registry.getAllUseCases().size());
+        assertTrue(event.getInt("candidatesMatched") >= 1);
+        assertTrue(event.getDouble("score") > 0);
+    }
+
+    private static UseCaseDefinition useCase(String id, String... keywords) {
+        UseCaseDefinition useCase = new UseCaseDefinition();
+        UseCaseDefinition.UseCaseInfo info = new UseCaseDefinition.UseCaseInfo();
+        info.setId(id);
+        useCase.setUseCase(info);
+        UseCaseDefinition.ClassificationConfig classification = new UseCaseDefinition.ClassificationConfig();
+        classification.setKeywords(List.of(keywords));
+        useCase.setClassification(classification);
+        return useCase;
+    }
+
+    @Test
+    void classifyTopK_returnsWinnerAndAlternatesWithShares() {
+        Classification classification = classifier.classify("update sample status", registry.getSnapshot(), 3);
+
+        List<Classification.Match> matches = classification.matches();
+        assertEquals("UPDATE_SAMPLE_STATUS", classification.winner());
+        assertTrue(matches.size() > 1 && matches.size() <= 3, matches.toString());
+        for (int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).score() >= matches.get(i).score());
+        }
+        assertEquals(1.0, matches.stream().mapToDouble(Classification.Match::share).sum(), 1e-9);
+        assertEquals(matches.get(0).score() / matches.stream().mapToDouble(Classification.Match::score).sum(),
+            matches.get(0).share(), 1e-9);
+    }
+
+    @Test
+    void classifyTopK_matchesFullRanking() {
+        RunbookClassifier.Index index = new RunbookClassifier.Index(registry.getAllUseCases());
+        for (String query : List.of("cancel case", "update sample status", "clear storage unit", "delete entry", "slide")) {
+            List<Classification.Match> all = index.rank(query, index.ids.length).classification().matches();
+            for (int k = 1; k <= 3; k++) {
+                assertEquals(all.subList(0, Math.min(k, all.size())).stream().map(Classification.Match::taskId).toList(),
+                    index.rank(query, k).classification().taskIds(), query + " top " + k);
+            }
+        }
+    }
+
+    @Test
+    void classifyTopK_stopsOnceRemainingRunbooksCannotBeatKthScore() {
+        RunbookRegistry.Snapshot snapshot = new RunbookRegistry.Snapshot(1, Map.of(
+            "ARCHIVE_SLIDE", useCase("ARCHIVE_SLIDE", "archive slide", "archive", "slide"),
+            "CANCEL_SLIDE", useCase("CANCEL_SLIDE", "cancel slide"),
+            "DELETE_SLIDE", useCase("DELETE_SLIDE", "delete slide")));
+        RunbookClassifier.Index index = new RunbookClassifier.Index(snapshot.getAllUseCases());
+
+        RunbookClassifier.Ranking top1 = index.rank("archive slide", 1);
+        assertEquals("ARCHIVE_SLIDE", top1.classification().winner());
+        assertEquals(1, top1.scored());
+
+        RunbookClassifier.Ranking top2 = index.rank("archive slide", 2);
+        assertEquals(3, top2.scored());
+        assertEquals(List.of("ARCHIVE_SLIDE"), top2.classification().taskIds());
+        assertEquals(1.0, top2.classification().matches().get(0).share());
+    }
+
+    @Test
+    void classifyTopK_equalScores_preferLongerMatches() {
+        RunbookRegistry.Snapshot snapshot = new RunbookRegistry.Snapshot(1, Map.of(
+            "LOCK_CASE", useCase("LOCK_CASE", "lock"),
+            "UNLOCK_CASE", useCase("UNLOCK_CASE", "unlock")));
+
+        Classification classification = classifier.classify("unlock case", snapshot, 2);
+
+        assertEquals(List.of("UNLOCK_CASE", "LOCK_CASE"), classification.taskIds());
+        assertEquals(classification.matches().get(0).score(), classification.matches().get(1).score());
+    }
+
+    @Test
+    void classifyTopK_consecutiveQueries_matchFreshIndex() {
+        RunbookClassifier.Index index = new RunbookClassifier.Index(registry.getAllUseCases());
+        for (String query : List.of("cancel case", "update sample status", "hello world", "clear storage unit", "cancel case")) {
+            RunbookClassifier.Index fresh = new RunbookClassifier.Index(registry.getAllUseCases());
+            assertEquals(fresh.rank(query, 3).classification(), index.rank(query, 3).classification(), query);
+        }
+    }
+
+    @Test
+    void classifyTopK_rejectsEmptySelection() {
+        assertThrows(IllegalArgumentException.class, () -> classifier.classify("cancel case", registry.getSnapshot(), 0));
+        assertSame(Classification.NONE, classifier.classify("cancel case", new RunbookRegistry.Snapshot(1, Map.of()), 3));
+    }
+}
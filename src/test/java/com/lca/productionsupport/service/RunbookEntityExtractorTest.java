@@ -1,9 +1,15 @@
 package com.lca.productionsupport.service;
 
+import com.lca.productionsupport.jfr.EntityExtractionEvent;
 import com.lca.productionsupport.model.UseCaseDefinition;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -636,5 +642,59 @@ class RunbookEntityExtractorTest {
         assertEquals("BC123", result3.get("barcode"));
         assertEquals("H. Pylori", result3.get("stainName"));
     }
-}
 
+    @Test
+    void extract_emitsJfrEventPerEntity() throws Exception {
+        UseCaseDefinition.EntityConfig caseId = new UseCaseDefinition.EntityConfig();
+        caseId.setPatterns(List.of("barcode (\\w+)", "case (\\d{7}[A-Z]\\d{4})"));
+        UseCaseDefinition.EntityConfig status = new UseCaseDefinition.EntityConfig();
+        status.setPatterns(List.of("status (\\w+)"));
+        UseCaseDefinition.ExtractionConfig config = new UseCaseDefinition.ExtractionConfig();
+        config.setEntities(Map.of("case_id", caseId, "status", status));
+
+        Path dump = Files.createTempFile("extraction", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EntityExtractionEvent.class);
+            recording.start();
+            extractor.extract("cancel case 2025123P6732", config);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.deleteIfExists(dump);
+
+        assertEquals(2, events.size());
+        RecordedEvent caseEvent = events.stream().filter(e -> "case_id".equals(e.getString("entity"))).findFirst().orElseThrow();
+        assertEquals(2, caseEvent.getInt("patternsTried"));
+        assertEquals(1, caseEvent.getInt("matchedPatternIndex"));
+        RecordedEvent statusEvent = events.stream().filter(e -> "status".equals(e.getString("entity"))).findFirst().orElseThrow();
+        assertEquals(1, statusEvent.getInt("patternsTried"));
+        assertEquals(-1, statusEvent.getInt("matchedPatternIndex"));
+    }
+
+    @Test
+    void anchor_leadingLiteralOfPattern() {
+        assertEquals("barcode", RunbookEntityExtractor.CompiledPattern.anchor("barcode\\s+([A-Za-z0-9\\-_]{4,50})"));
+        assertEquals("case number", RunbookEntityExtractor.CompiledPattern.anchor("Case Number\\s*(\\d+)"));
+        // The quantified last letter is optional
+        assertEquals("case", RunbookEntityExtractor.CompiledPattern.anchor("cases?\\s+(\\d+)"));
+        assertEquals("to", RunbookEntityExtractor.CompiledPattern.anchor("to\\s+\\[?((?:Completed|Hold))\\]?"));
+        assertNull(RunbookEntityExtractor.CompiledPattern.anchor("(?:sample|slide)\\s+(\\w+)"));
+        assertNull(RunbookEntityExtractor.CompiledPattern.anchor("case (\\d+)|barcode (\\w+)"));
+        assertNull(RunbookEntityExtractor.CompiledPattern.anchor("s?\\s+(\\w+)"));
+        assertEquals("id ", RunbookEntityExtractor.CompiledPattern.anchor("id ([a|b]+)"));
+    }
+
+    @Test
+    void extract_anchoredPatterns_matchCaseInsensitivelyAndSkipAbsentWords() {
+        UseCaseDefinition.EntityConfig barcode = new UseCaseDefinition.EntityConfig();
+        barcode.setPatterns(List.of("slide\\s+(\\w+)", "barcode\\s+(\\w+)"));
+        UseCaseDefinition.ExtractionConfig config = new UseCaseDefinition.ExtractionConfig();
+        config.setEntities(Map.of("barcode", barcode));
+
+        assertEquals("BC1234", extractor.extract("Relabel BARCODE BC1234", config).get("barcode"));
+        assertEquals("SL99", extractor.extract(NormalizedQuery.of("Relabel Slide SL99 barcode BC1234"), config).get("barcode"));
+        assertTrue(extractor.extract("relabel sample BC1234", config).isEmpty());
+    }
+}
@@ -0,0 +1,280 @@
+package com.lca.productionsupport.service;
+
+import com.lca.productionsupport.config.DownstreamServiceProperties;
+import com.lca.productionsupport.config.RunbookExecutor;
+import com.lca.productionsupport.config.WebClientRegistry;
+import com.lca.productionsupport.model.RunbookExecutionRequest;
+import com.lca.productionsupport.model.StepExecutionEvent;
+import com.lca.productionsupport.model.StepExecutionRequest;
+import com.lca.productionsupport.model.StepExecutionResponse;
+import com.lca.productionsupport.model.UseCaseDefinition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RunbookExecutionService
+ */
+class RunbookExecutionServiceTest {
+
+    private RunbookRegistry registry;
+    private StepExecutionService stepExecutionService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new RunbookRegistry();
+        var locationField = RunbookRegistry.class.getDeclaredField("runbookLocation");
+        locationField.setAccessible(true);
+        locationField.set(registry, "classpath:runbooks/");
+        var enabledField = RunbookRegistry.class.getDeclaredField("enabled");
+        enabledField.setAccessible(true);
+        enabledField.set(registry, true);
+        registry.loadRunbooks();
+
+        ErrorMessageTranslator errorMessageTranslator = new ErrorMessageTranslator(new SimpleMeterRegistry(), 100_000, Duration.ofMinutes(10));
+        errorMessageTranslator.init();
+        stepExecutionService = new StepExecutionService(
+            new WebClientRegistry(new DownstreamServiceProperties(), ObservationRegistry.NOOP), registry, new RunbookAdapter(), errorMessageTranslator,
+            new DownstreamMetrics(new SimpleMeterRegistry()), Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
+    }
+
+    @Test
+    void run_stopsBeforeStepThatNeedsApproval() {
+        List<Integer> executed = new ArrayList<>();
+        List<StepExecutionEvent> events = new ArrayList<>();
+
+        boolean success = service(stub(executed, step -> true)).run(request("Production Support"), events::add);
+
+        // Step 3 (PATCH /lims-api/case/{case_id}/cancel) is not autoExecutable, so it is never called
+        assertFalse(success);
+        assertEquals(List.of(1, 2), executed);
+        assertEquals(List.of(
+            "queued:1", "queued:2", "queued:3", "queued:4", "queued:5",
+            "started:1", "downstream-sent:1", "verified:1",
+            "started:2", "downstream-sent:2", "verified:2",
+            "awaiting-approval:3"), sequence(events));
+        assertEquals("ok 1", events.get(7).getMessage());
+        assertEquals("Step 3 requires approval before it is executed", events.get(events.size() - 1).getMessage());
+    }
+
+    @Test
+    void run_stopsAtFirstFailedAbortStep() {
+        List<StepExecutionEvent> events = new ArrayList<>();
+
+        // The role check in step 1 fails and its onFailure is abort
+        boolean success = service(stepExecutionService).run(request("Viewer"), events::add);
+
+        assertFalse(success);
+        assertEquals(List.of(
+            "queued:1", "queued:2", "queued:3", "queued:4", "queued:5",
+            "started:1", "failed:1",
+            "completed"), sequence(events));
+
+        StepExecutionEvent failed = events.get(6);
+        assertNotNull(failed.getResult());
+        assertNotNull(failed.getDurationMs());
+
+        StepExecutionEvent completed = events.get(events.size() - 1);
+        assertFalse(completed.getSuccess());
+        assertEquals("Execution stopped, step 1 failed", completed.getMessage());
+        assertTrue(completed.getElapsedMs() >= 0);
+    }
+
+    @Test
+    void run_allStepsSucceed_completesSuccessfully() {
+        List<Integer> executed = new ArrayList<>();
+        List<StepExecutionEvent> events = new ArrayList<>();
+
+        boolean success = service(runbook(step("abort", true), step("abort", true)), stub(executed, step -> true))
+            .run(request("Production Support"), events::add);
+
+        assertTrue(success);
+        assertEquals(List.of(1, 2), executed);
+        StepExecutionEvent completed = events.get(events.size() - 1);
+        assertTrue(completed.getSuccess());
+        assertEquals("All steps completed", completed.getMessage());
+    }
+
+    @Test
+    void run_continueAndAlertSteps_runRemainingSteps() {
+        List<Integer> executed = new ArrayList<>();
+        List<StepExecutionEvent> events = new ArrayList<>();
+        UseCaseDefinition.StepDefinition alert = step("alert", true);
+        alert.getErrorHandling().setMessage("Case status was not updated");
+        UseCaseDefinition.StepDefinition optional = step("abort", true);
+        optional.setOptional(true);
+
+        boolean success = service(runbook(step("continue", true), alert, optional, step("abort", true)), stub(executed, step -> step == 4))
+            .run(request("Production Support"), events::add);
+
+        assertFalse(success);
+        assertEquals(List.of(1, 2, 3, 4), executed);
+        StepExecutionEvent completed = events.get(events.size() - 1);
+        assertEquals(StepExecutionEvent.Type.COMPLETED, completed.getType());
+        assertFalse(completed.getSuccess());
+        assertEquals("All steps run with alerts: Case status was not updated", completed.getMessage());
+    }
+
+    @Test
+    void run_rollbackStep_runsRollbackSteps() {
+        List<Integer> executed = new ArrayList<>();
+        List<StepExecutionEvent> events = new ArrayList<>();
+        UseCaseDefinition.StepDefinition undo = step("abort", true);
+        undo.setStepType("rollback");
+
+        boolean success = service(runbook(step("rollback", true), step("abort", true), undo), stub(executed, step -> step == 3))
+            .run(request("Production Support"), events::add);
+
+        assertFalse(success);
+        assertEquals(List.of(1, 3), executed);
+        assertEquals(List.of(
+            "queued:1", "queued:2",
+            "started:1", "downstream-sent:1", "failed:1",
+            "started:3", "downstream-sent:3", "verified:3",
+            "completed"), sequence(events));
+        assertEquals("Step 1 failed, rolled back", events.get(events.size() - 1).getMessage());
+    }
+
+    @Test
+    void run_failedRollbackStep_stops() {
+        List<Integer> executed = new ArrayList<>();
+        List<StepExecutionEvent> events = new ArrayList<>();
+        UseCaseDefinition.StepDefinition undo = step("abort", true);
+        undo.setStepType("rollback");
+
+        service(runbook(step("rollback", true), undo), stub(executed, step -> false)).run(request("Production Support"), events::add);
+
+        assertEquals(List.of(1, 2), executed);
+        assertEquals("Step 1 failed and rollback step 2 failed", events.get(events.size() - 1).getMessage());
+    }
+
+    @Test
+    void run_rollbackStepNeedingApproval_stopsBeforeIt() {
+        List<Integer> executed = new ArrayList<>();
+        List<StepExecutionEvent> events = new ArrayList<>();
+        UseCaseDefinition.StepDefinition undo = step("abort", false);
+        undo.setStepType("rollback");
+
+        service(runbook(step("rollback", true), undo), stub(executed, step -> false)).run(request("Production Support"), events::add);
+
+        assertEquals(List.of(1), executed);
+        List<String> sequence = sequence(events);
+        assertEquals("awaiting-approval:2", sequence.get(sequence.size() - 1));
+    }
+
+    @Test
+    void run_rollbackDisabled_stops() {
+        List<Integer> executed = new ArrayList<>();
+        List<StepExecutionEvent> events = new ArrayList<>();
+        UseCaseDefinition.StepDefinition undo = step("abort", true);
+        undo.setStepType("rollback");
+        RunbookRegistry runbook = runbook(step("rollback", true), undo);
+        runbook.getUseCase("CANCEL_CASE").setRollback(new UseCaseDefinition.RollbackConfig());
+
+        service(runbook, stub(executed, step -> false)).run(request("Production Support"), events::add);
+
+        assertEquals(List.of(1), executed);
+        assertEquals("Execution stopped, step 1 failed and the runbook has no rollback steps",
+            events.get(events.size() - 1).getMessage());
+    }
+
+    @Test
+    void run_unknownTask_emitsFailedCompletion() {
+        List<StepExecutionEvent> events = new ArrayList<>();
+        RunbookExecutionRequest request = RunbookExecutionRequest.builder().taskId("NOT_A_TASK").build();
+
+        boolean success = service(stepExecutionService).run(request, events::add);
+
+        assertFalse(success);
+        assertEquals(1, events.size());
+        assertEquals(StepExecutionEvent.Type.COMPLETED, events.get(0).getType());
+        assertEquals("No runbook found for task NOT_A_TASK", events.get(0).getMessage());
+    }
+
+    private RunbookExecutionService service(StepExecutionService steps) {
+        return service(registry, steps);
+    }
+
+    private RunbookExecutionService service(RunbookRegistry runbooks, StepExecutionService steps) {
+        return new RunbookExecutionService(runbooks, steps, new RunbookExecutor(new ThreadPoolTaskExecutor()), Duration.ofMinutes(1));
+    }
+
+    /**
+     * Step execution that records the steps it is asked to run, succeeding where the predicate holds
+     */
+    private StepExecutionService stub(List<Integer> executed, IntPredicate succeeds) {
+        return new StepExecutionService(null, registry, new RunbookAdapter(), null, null, null, null) {
+            @Override
+            public StepExecutionResponse executeStep(StepExecutionRequest request, Runnable onDownstreamSent) {
+                executed.add(request.getStepNumber());
+                onDownstreamSent.run();
+                boolean success = succeeds.test(request.getStepNumber());
+                return StepExecutionResponse.builder()
+                    .success(success)
+                    .stepNumber(request.getStepNumber())
+                    .stepResponse(success ? "ok " + request.getStepNumber() : null)
+                    .errorMessage(success ? null : "failed " + request.getStepNumber())
+                    .durationMs(1L)
+                    .build();
+            }
+        };
+    }
+
+    /**
+     * Registry whose CANCEL_CASE runbook is made of the given steps, numbered from 1
+     */
+    private static RunbookRegistry runbook(UseCaseDefinition.StepDefinition... steps) {
+        for (int i = 0; i < steps.length; i++) {
+            steps[i].setStepNumber(i + 1);
+        }
+        UseCaseDefinition.ExecutionConfig execution = new UseCaseDefinition.ExecutionConfig();
+        execution.setSteps(List.of(steps));
+        UseCaseDefinition useCase = new UseCaseDefinition();
+        useCase.setExecution(execution);
+        return new RunbookRegistry() {
+            @Override
+            public UseCaseDefinition getUseCase(String id) {
+                return useCase;
+            }
+        };
+    }
+
+    private static UseCaseDefinition.StepDefinition step(String onFailure, boolean autoExecutable) {
+        UseCaseDefinition.ErrorHandling errorHandling = new UseCaseDefinition.ErrorHandling();
+        errorHandling.setOnFailure(onFailure);
+        UseCaseDefinition.StepDefinition step = new UseCaseDefinition.StepDefinition();
+        step.setStepType("procedure");
+        step.setMethod("GET");
+        step.setAutoExecutable(autoExecutable);
+        step.setErrorHandling(errorHandling);
+        return step;
+    }
+
+    private static List<String> sequence(List<StepExecutionEvent> events) {
+        return events.stream()
+            .map(e -> e.getType().getEventName() + (e.getStepNumber() != null ? ":" + e.getStepNumber() : ""))
+            .toList();
+    }
+
+    private RunbookExecutionRequest request(String userRole) {
+        return RunbookExecutionRequest.builder()
+            .taskId("CANCEL_CASE")
+            .downstreamService("ap-services")
+            .entities(Map.of("case_id", "2025123P6732"))
+            .userId("user123")
+            .userRole(userRole)
+            .build();
+    }
+}
@@ -59,6 +59,16 @@ class RunbookRegistryTest {
         assertEquals("UPDATE_SAMPLE_STATUS", updateStatus.getUseCase().getId());
     }
 
+    @Test
+    void loadRunbooks_compilesStepBodies() {
+        for (UseCaseDefinition useCase : registry.getAllUseCases()) {
+            for (UseCaseDefinition.StepDefinition step : useCase.getExecution().getSteps()) {
+                boolean hasBody = step.getBody() != null && !step.getBody().isEmpty();
+                assertEquals(hasBody, step.getBodyTemplate() != null, useCase.getUseCase().getId() + " step " + step.getStepNumber());
+            }
+        }
+    }
+
     @Test
     void getUseCase_returnsNullForNonExistent() {
         UseCaseDefinition result = registry.getUseCase("NON_EXISTENT");
@@ -132,6 +142,22 @@ class RunbookRegistryTest {
         assertTrue(registry.hasUseCase("CANCEL_CASE"));
     }
 
+    @Test
+    void reload_publishesNewSnapshotAndKeepsOldOneIntact() {
+        RunbookRegistry.Snapshot before = registry.getSnapshot();
+        
+        registry.reload();
+        
+        RunbookRegistry.Snapshot after = registry.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals(before.getGeneration() + 1, after.getGeneration());
+        assertEquals(after.getGeneration(), registry.getGeneration());
+        assertNotNull(before.getUseCase("CANCEL_CASE"));
+        assertEquals(before.getAllUseCases().size(), after.getAllUseCases().size());
+        assertNull(after.getUseCase(null));
+        assertThrows(UnsupportedOperationException.class, () -> after.getAllUseCases().clear());
+    }
+
     @Test
     void loadRunbook_validatesUseCaseId() {
         RunbookRegistry testRegistry = new RunbookRegistry();
@@ -0,0 +1,109 @@
+package com.lca.productionsupport.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lca.productionsupport.model.OperationalResponse;
+import com.lca.productionsupport.model.StepExecutionRequest;
+import com.lca.productionsupport.model.StepExecutionResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestLogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Logger slowLogger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        slowLogger = (Logger) LoggerFactory.getLogger(SlowRequestLog.LOGGER_NAME);
+        appender = new ListAppender<>();
+        appender.start();
+        slowLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowLogger.detachAppender(appender);
+    }
+
+    @Test
+    void isSlow_comparesAgainstThresholds() {
+        SlowRequestLog slowRequestLog = new SlowRequestLog(true, Duration.ofMillis(500), Duration.ofSeconds(2));
+
+        assertFalse(slowRequestLog.isSlowProcess(Duration.ofMillis(499).toNanos()));
+        assertTrue(slowRequestLog.isSlowProcess(Duration.ofMillis(500).toNanos()));
+        assertFalse(slowRequestLog.isSlowStep(Duration.ofMillis(1999).toNanos()));
+        assertTrue(slowRequestLog.isSlowStep(Duration.ofSeconds(3).toNanos()));
+    }
+
+    @Test
+    void isSlow_falseWhenDisabled() {
+        SlowRequestLog slowRequestLog = new SlowRequestLog(false, Duration.ZERO, Duration.ZERO);
+
+        assertFalse(slowRequestLog.isSlowProcess(Long.MAX_VALUE));
+        assertFalse(slowRequestLog.isSlowStep(Long.MAX_VALUE));
+    }
+
+    @Test
+    void logProcess_writesJsonRecordWithStageBreakdown() throws Exception {
+        SlowRequestLog slowRequestLog = new SlowRequestLog(true, Duration.ofMillis(500), Duration.ofSeconds(2));
+        Map<String, Long> stages = new LinkedHashMap<>();
+        stages.put("classify", 400_000_000L);
+        stages.put("extract", 150_000_000L);
+        OperationalResponse response = OperationalResponse.builder().taskId("CANCEL_CASE").build();
+
+        slowRequestLog.logProcess("CANCEL_CASE", "success", "ap-services", 600_000_000L, stages, response);
+
+        assertEquals(1, appender.list.size());
+        JsonNode record = objectMapper.readTree(appender.list.get(0).getFormattedMessage());
+        assertEquals("process", record.get("type").asText());
+        assertEquals(600.0, record.get("durationMs").asDouble());
+        assertEquals(500.0, record.get("thresholdMs").asDouble());
+        assertEquals("CANCEL_CASE", record.get("taskId").asText());
+        assertEquals("ap-services", record.get("downstreamService").asText());
+        assertEquals(400.0, record.get("stagesMs").get("classify").asDouble());
+        assertEquals(150.0, record.get("stagesMs").get("extract").asDouble());
+        assertEquals(objectMapper.writeValueAsBytes(response).length, record.get("responseBytes").asLong());
+    }
+
+    @Test
+    void logStep_writesJsonRecordWithDownstreamTimings() throws Exception {
+        SlowRequestLog slowRequestLog = new SlowRequestLog(true, Duration.ofMillis(500), Duration.ofSeconds(2));
+        StepTimings timings = StepTimings.builder()
+            .method("PATCH")
+            .downstreamNanos(2_000_000_000L)
+            .verificationNanos(5_000_000L)
+            .requestBodyBytes(42)
+            .responseBodyLength(1024)
+            .build();
+
+        slowRequestLog.logStep(
+            StepExecutionRequest.builder().taskId("CANCEL_CASE").stepNumber(3).downstreamService("ap-services").build(),
+            StepExecutionResponse.builder().success(true).stepNumber(3).stepDescription("Cancel the case").statusCode(200).build(),
+            2_010_000_000L, timings);
+
+        JsonNode record = objectMapper.readTree(appender.list.get(0).getFormattedMessage());
+        assertEquals("step", record.get("type").asText());
+        assertEquals(3, record.get("stepNumber").asInt());
+        assertEquals("Cancel the case", record.get("stepDescription").asText());
+        assertEquals("PATCH", record.get("method").asText());
+        assertTrue(record.get("success").asBoolean());
+        assertEquals(5.0, record.get("stagesMs").get("prepare").asDouble());
+        assertEquals(2000.0, record.get("stagesMs").get("downstream").asDouble());
+        assertEquals(5.0, record.get("stagesMs").get("verification").asDouble());
+        assertEquals(42, record.get("requestBytes").asLong());
+        assertEquals(1024, record.get("responseBytes").asLong());
+    }
+}
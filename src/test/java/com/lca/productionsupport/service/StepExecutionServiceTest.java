@@ -2,13 +2,39 @@ package com.lca.productionsupport.service;
 
 import com.lca.productionsupport.config.DownstreamServiceProperties;
 import com.lca.productionsupport.config.WebClientRegistry;
+import com.lca.productionsupport.jfr.StepTimingEvent;
 import com.lca.productionsupport.model.OperationalResponse;
 import com.lca.productionsupport.model.StepExecutionRequest;
 import com.lca.productionsupport.model.StepExecutionResponse;
 import com.lca.productionsupport.model.UseCaseDefinition;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +53,8 @@ class StepExecutionServiceTest {
     private WebClientRegistry webClientRegistry;
     private ErrorMessageTranslator errorMessageTranslator;
     private DownstreamServiceProperties serviceProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private DownstreamMetrics downstreamMetrics;
 
     @BeforeEach
     void setUp() {
@@ -40,13 +68,16 @@ class StepExecutionServiceTest {
         serviceProperties.setServices(services);
         
         // Create registry and adapter
-        webClientRegistry = new WebClientRegistry(serviceProperties);
+        webClientRegistry = new WebClientRegistry(serviceProperties, ObservationRegistry.NOOP);
         runbookRegistry = new TestRunbookRegistry();
         runbookAdapter = new RunbookAdapter();
-        errorMessageTranslator = new ErrorMessageTranslator();
+        errorMessageTranslator = new ErrorMessageTranslator(new SimpleMeterRegistry(), 100_000, Duration.ofMinutes(10));
         errorMessageTranslator.init();
+        meterRegistry = new SimpleMeterRegistry();
+        downstreamMetrics = new DownstreamMetrics(meterRegistry);
         
-        stepExecutionService = new StepExecutionService(webClientRegistry, runbookRegistry, runbookAdapter, errorMessageTranslator);
+        stepExecutionService = new StepExecutionService(webClientRegistry, runbookRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
     }
     
     // Test-specific runbook registry that loads YAMLs properly
@@ -432,7 +463,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_PUT")
@@ -480,7 +512,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_DELETE")
@@ -528,7 +561,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_DELETE_NO_BODY")
@@ -3053,7 +3087,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_STEP_RESPONSE")
@@ -3155,7 +3190,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_HEADER_DEFAULT")
@@ -3208,7 +3244,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_HEADER_ERROR_DEFAULT")
@@ -3261,7 +3298,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_LOCAL_DEFAULT")
@@ -3312,7 +3350,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_PROC_ERROR_DEFAULT")
@@ -3367,7 +3406,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_PROC_SUCCESS_MSG")
@@ -3431,7 +3471,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_MISSING_ENTITY_NULL_MSG")
@@ -3521,7 +3562,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_REGEX_VALIDATION")
@@ -3583,7 +3625,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_ENUM_ALREADY_IN_MESSAGE")
@@ -3638,7 +3681,8 @@ class StepExecutionServiceTest {
         };
         
         StepExecutionService testService = new StepExecutionService(
-            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator);
+            webClientRegistry, testRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
         
         StepExecutionRequest request = StepExecutionRequest.builder()
             .taskId("TEST_NO_ENTITY_CONFIG")
@@ -3656,4 +3700,197 @@ class StepExecutionServiceTest {
         assertEquals(500, response.getStatusCode());
         assertTrue(response.getErrorMessage().contains("No validation configuration found"));
     }
+
+    @Test
+    void executeStep_downstreamCall_recordsTimerWithPathTemplate() {
+        DownstreamServiceProperties.ServiceConfig closedPort = new DownstreamServiceProperties.ServiceConfig();
+        closedPort.setBaseUrl("http://localhost:1");
+        closedPort.setTimeout(5);
+        DownstreamServiceProperties properties = new DownstreamServiceProperties();
+        properties.setServices(Map.of("closed-service", closedPort));
+        StepExecutionService service = new StepExecutionService(
+            new WebClientRegistry(properties, ObservationRegistry.NOOP), runbookRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+            new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
+
+        StepExecutionResponse response = service.executeStep(StepExecutionRequest.builder()
+            .taskId("CANCEL_CASE")
+            .downstreamService("closed-service")
+            .stepNumber(3)
+            .entities(Map.of("case_id", "2025123P6732"))
+            .customHeaders(Map.of("Api-User", "user", "Lab-Id", "lab", "Discipline-Name", "AP",
+                "Time-Zone", "UTC", "Role-Name", "Production Support"))
+            .build());
+
+        assertFalse(response.getSuccess());
+        var timer = meterRegistry.get(DownstreamMetrics.REQUEST_TIMER)
+            .tags("service", "closed-service", "method", "PATCH", "path", "/lims-api/case/{case_id}/cancel",
+                "status", "none", "error", "CONNECTION_ERROR")
+            .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void executeStep_failureBeforeCall_recordsNothing() {
+        stepExecutionService.executeStep(StepExecutionRequest.builder()
+            .taskId("CANCEL_CASE")
+            .downstreamService("unknown-service")
+            .stepNumber(3)
+            .entities(Map.of("case_id", "2025123P6732"))
+            .build());
+
+        assertNull(meterRegistry.find(DownstreamMetrics.REQUEST_TIMER).timer());
+    }
+
+    @Test
+    void executeStep_emitsJfrEvent() throws Exception {
+        Path dump = Files.createTempFile("step", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(StepTimingEvent.class);
+            recording.start();
+            stepExecutionService.executeStep(StepExecutionRequest.builder()
+                .taskId("CANCEL_CASE")
+                .downstreamService("ap-services")
+                .stepNumber(2)
+                .entities(Map.of("case_id", "2025123P6732"))
+                .build());
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.deleteIfExists(dump);
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("CANCEL_CASE", event.getString("taskId"));
+        assertEquals(2, event.getInt("stepNumber"));
+        assertEquals("LOCAL_MESSAGE", event.getString("method"));
+        assertEquals("ap-services", event.getString("downstreamService"));
+        assertTrue(event.getBoolean("success"));
+        assertEquals(0, event.getLong("downstreamLatency"));
+    }
+
+    @Test
+    void executeStep_entityValuesInsertedRawAndMetricsTaggedWithPathTemplate() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meters));
+        List<String> uris = new java.util.concurrent.CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            uris.add(exchange.getRequestURI().getRawPath() + " ? " + exchange.getRequestURI().getRawQuery());
+            byte[] body = "{}".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        StepExecutionResponse reserved;
+        try {
+            DownstreamServiceProperties.ServiceConfig stub = new DownstreamServiceProperties.ServiceConfig();
+            stub.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+            stub.setTimeout(5);
+            DownstreamServiceProperties properties = new DownstreamServiceProperties();
+            properties.setServices(Map.of("stub-service", stub));
+            StepExecutionService service = new StepExecutionService(
+                new WebClientRegistry(properties, observationRegistry), runbookRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, Tracer.NOOP,
+                new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
+            Map<String, String> headers = Map.of("Api-User", "user", "Lab-Id", "lab", "Discipline-Name", "AP",
+                "Time-Zone", "UTC", "Role-Name", "Production Support");
+
+            reserved = service.executeStep(StepExecutionRequest.builder()
+                .taskId("CANCEL_CASE").downstreamService("stub-service").stepNumber(3)
+                .entities(Map.of("case_id", "2025/12+P%41?x=1"))
+                .customHeaders(headers)
+                .build());
+            Map<String, String> entities = new HashMap<>();
+            entities.put("case_id", null);
+            StepExecutionRequest nullValue = StepExecutionRequest.builder()
+                .taskId("CANCEL_CASE").downstreamService("stub-service").stepNumber(3)
+                .entities(entities)
+                .customHeaders(headers)
+                .build();
+            // An entity with a null value is rejected while the step is resolved, before anything is sent
+            assertThrows(NullPointerException.class, () -> service.executeStep(nullValue));
+        } finally {
+            server.stop(0);
+        }
+
+        // Entity values are spliced into the path before it is encoded: '/', '?' and '+' keep their meaning,
+        // only characters not allowed in a URI ('%' here) are encoded
+        assertTrue(reserved.getSuccess());
+        assertEquals(List.of("/lims-api/case/2025/12+P%2541 ? x=1/cancel"), uris);
+        assertEquals(1, meters.get("http.client.requests").tag("uri", "/lims-api/case/{case_id}/cancel").timer().count());
+    }
+
+    @Test
+    void executeStep_downstreamCall_propagatesTraceContext() throws Exception {
+        InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+        OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder()
+            .setTracerProvider(SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(spanExporter)).build())
+            .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+            .build();
+        io.opentelemetry.api.trace.Tracer otelTracer = openTelemetry.getTracer("test");
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(otelTracer, currentTraceContext, event -> { },
+            new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(
+            new PropagatingSenderTracingObservationHandler<>(tracer, new OtelPropagator(openTelemetry.getPropagators(), otelTracer)));
+
+        List<String> traceparents = new java.util.concurrent.CopyOnWriteArrayList<>();
+        List<String> paths = new java.util.concurrent.CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            traceparents.add(exchange.getRequestHeaders().getFirst("traceparent"));
+            paths.add(exchange.getRequestURI().getPath());
+            byte[] body = "{}".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        List<SpanData> spans;
+        try {
+            DownstreamServiceProperties.ServiceConfig stub = new DownstreamServiceProperties.ServiceConfig();
+            stub.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+            stub.setTimeout(5);
+            DownstreamServiceProperties properties = new DownstreamServiceProperties();
+            properties.setServices(Map.of("stub-service", stub));
+            StepExecutionService service = new StepExecutionService(
+                new WebClientRegistry(properties, observationRegistry), runbookRegistry, runbookAdapter, errorMessageTranslator, downstreamMetrics, tracer,
+                new SlowRequestLog(false, Duration.ZERO, Duration.ZERO));
+
+            service.executeStep(StepExecutionRequest.builder()
+                .taskId("CANCEL_CASE")
+                .downstreamService("stub-service")
+                .stepNumber(3)
+                .entities(Map.of("case_id", "2025123P6732"))
+                .customHeaders(Map.of("Api-User", "user", "Lab-Id", "lab", "Discipline-Name", "AP",
+                    "Time-Zone", "UTC", "Role-Name", "Production Support"))
+                .build());
+            spans = spanExporter.getFinishedSpanItems();
+        } finally {
+            server.stop(0);
+            openTelemetry.close();
+        }
+
+        SpanData stepSpan = spans.stream()
+            .filter(span -> span.getName().equals("production-support.step"))
+            .findFirst().orElseThrow();
+        assertEquals("CANCEL_CASE", stepSpan.getAttributes().get(AttributeKey.stringKey("taskId")));
+        assertEquals("3", stepSpan.getAttributes().get(AttributeKey.stringKey("stepNumber")));
+        SpanData clientSpan = spans.stream()
+            .filter(span -> span.getParentSpanId().equals(stepSpan.getSpanId()))
+            .findFirst().orElseThrow();
+
+        assertEquals(1, traceparents.size());
+        assertEquals("00-" + stepSpan.getTraceId() + "-" + clientSpan.getSpanId() + "-01", traceparents.get(0));
+        // The client span is tagged with the path template, the request goes to the expanded path
+        assertEquals("/lims-api/case/{case_id}/cancel", clientSpan.getAttributes().get(AttributeKey.stringKey("uri")));
+        assertEquals(List.of("/lims-api/case/2025123P6732/cancel"), paths);
+    }
 }
+
@@ -0,0 +1,46 @@
+package com.lca.productionsupport.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenMapTest {
+
+    @Test
+    void get_looksUpQueryTokensInPlace() {
+        TokenMap<Integer> map = new TokenMap<>(Map.of("cancel", 1, "case", 2, "stain", 3));
+        NormalizedQuery query = NormalizedQuery.of("Cancel the CASE, cases");
+
+        assertEquals(1, map.get(query, 0));
+        assertNull(map.get(query, 1));
+        assertEquals(2, map.get(query, 2));
+        assertFalse(map.containsKey(query, 3));
+    }
+
+    @Test
+    void get_manyKeys_findsEveryOne() {
+        Map<String, Integer> entries = new HashMap<>();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            entries.put("w" + i, i);
+            text.append("W").append(i).append(' ');
+        }
+        TokenMap<Integer> map = new TokenMap<>(entries);
+        NormalizedQuery query = NormalizedQuery.of(text.toString());
+
+        for (int t = 0; t < query.tokenCount(); t++) {
+            assertEquals(t, map.get(query, t));
+        }
+        assertNull(map.get(NormalizedQuery.of("w1000"), 0));
+    }
+
+    @Test
+    void get_emptyMap_findsNothing() {
+        TokenMap<Integer> map = new TokenMap<>(Map.of());
+
+        assertNull(map.get(NormalizedQuery.of("case"), 0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.lca.productionsupport.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void removeWorst_visitsHighestScoresWorstFirst() {
+        TopK top = new TopK(3);
+        double[] scores = {1.0, 5.0, 3.0, 4.0, 2.0};
+        for (int doc = 0; doc < scores.length; doc++) {
+            top.offer(doc, scores[doc]);
+        }
+
+        assertTrue(top.isFull());
+        assertEquals(3.0, top.threshold());
+        assertEquals(12.0, top.total());
+        assertArrayEquals(new int[]{1, 3, 2}, bestFirst(top));
+        assertEquals(0, top.size());
+    }
+
+    @Test
+    void offer_equalScores_keepEarlierPositions() {
+        TopK top = new TopK(2);
+        top.offer(4, 1.0);
+        top.offer(2, 1.0);
+        top.offer(3, 1.0);
+        top.offer(0, 1.0);
+
+        assertArrayEquals(new int[]{0, 2}, bestFirst(top));
+    }
+
+    @Test
+    void offer_equalScores_rankByTieBreakBeforePosition() {
+        TopK top = new TopK(2);
+        top.offer(0, 1.0, 4);
+        top.offer(1, 1.0, 6);
+        top.offer(2, 1.0, 6);
+        top.offer(3, 2.0, 0);
+
+        assertArrayEquals(new int[]{3, 1}, bestFirst(top));
+    }
+
+    @Test
+    void bestFirst_matchesFullSort() {
+        Random random = new Random(3);
+        double[] scores = new double[500];
+        for (int doc = 0; doc < scores.length; doc++) {
+            scores[doc] = random.nextInt(50);
+        }
+        TopK top = new TopK(10);
+        for (int doc = 0; doc < scores.length; doc++) {
+            top.offer(doc, scores[doc]);
+        }
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+            .sorted(Comparator.comparingDouble((Integer doc) -> -scores[doc]).thenComparingInt(doc -> doc))
+            .limit(10)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        int[] docs = bestFirst(top);
+        assertArrayEquals(expected, docs, Arrays.toString(docs));
+    }
+
+    @Test
+    void reset_reusesSelectionWithSmallerK() {
+        TopK top = new TopK(3);
+        top.offer(0, 1.0);
+        top.offer(1, 2.0);
+
+        top.reset(1);
+        assertEquals(0, top.size());
+        top.offer(2, 1.0);
+        top.offer(3, 3.0);
+        top.offer(4, 2.0);
+
+        assertEquals(3, top.capacity());
+        assertArrayEquals(new int[]{3}, bestFirst(top));
+        assertThrows(IllegalArgumentException.class, () -> top.reset(4));
+        assertThrows(IllegalArgumentException.class, () -> top.reset(0));
+    }
+
+    @Test
+    void constructor_rejectsEmptySelection() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK(0));
+    }
+
+    private static int[] bestFirst(TopK top) {
+        int[] docs = new int[top.size()];
+        for (int i = docs.length - 1; i >= 0; i--) {
+            docs[i] = top.worst();
+            top.removeWorst();
+        }
+        return docs;
+    }
+}
@@ -0,0 +1,87 @@
+package com.lca.productionsupport.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RequestBodyTemplate
+ */
+class RequestBodyTemplateTest {
+
+    @Test
+    void compile_nullOrEmptyBody_returnsNull() {
+        assertNull(RequestBodyTemplate.compile(null));
+        assertNull(RequestBodyTemplate.compile(Map.of()));
+    }
+
+    @Test
+    void toJsonBytes_writesCompactJsonInOrder() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("reason", "operational_request");
+        body.put("caseId", "{case_id}");
+        body.put("notify", true);
+        body.put("count", 3);
+
+        RequestBodyTemplate template = RequestBodyTemplate.compile(body);
+        String json = new String(template.toJsonBytes(Map.of("case_id", "2025123P6732")), StandardCharsets.UTF_8);
+
+        assertEquals("{\"reason\":\"operational_request\",\"caseId\":\"2025123P6732\",\"notify\":true,\"count\":3}", json);
+    }
+
+    @Test
+    void toJsonBytes_resolvesPlaceholdersInNestedMapsAndLists() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("id", "case-{case_id}");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("data", nested);
+        body.put("barcodes", List.of("{barcode}", List.of("{barcode}-{case_id}", 1)));
+
+        RequestBodyTemplate template = RequestBodyTemplate.compile(body);
+        String json = new String(
+            template.toJsonBytes(Map.of("case_id", "C1", "barcode", "BC123456")), StandardCharsets.UTF_8);
+
+        assertEquals("{\"data\":{\"id\":\"case-C1\"},\"barcodes\":[\"BC123456\",[\"BC123456-C1\",1]]}", json);
+        assertEquals(List.of("case_id", "barcode"), List.copyOf(template.getPlaceholders()));
+    }
+
+    @Test
+    void toJsonBytes_missingValue_throwsIllegalArgumentException() {
+        RequestBodyTemplate template = RequestBodyTemplate.compile(Map.of("sampleStatus", "{sampleStatus}"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> template.toJsonBytes(Map.of("barcode", "BC123456")));
+        assertEquals("Not enough variable values available to expand 'sampleStatus'", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> template.toJsonBytes(null));
+    }
+
+    @Test
+    void toJsonBytes_jsonBracesInLiteral_notTreatedAsPlaceholder() {
+        RequestBodyTemplate template = RequestBodyTemplate.compile(Map.of("filter", "{\"a\": 1}"));
+
+        String json = new String(template.toJsonBytes(null), StandardCharsets.UTF_8);
+
+        assertEquals("{\"filter\":\"{\\\"a\\\": 1}\"}", json);
+        assertTrue(template.getPlaceholders().isEmpty());
+    }
+
+    @Test
+    void toJsonString_keepsUnresolvedPlaceholders() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("key1", "{barcode}");
+        body.put("key2", null);
+
+        RequestBodyTemplate template = RequestBodyTemplate.compile(body);
+
+        String resolved = template.toJsonString(Map.of("barcode", "BC123456"));
+        assertTrue(resolved.contains("\"key1\":\"BC123456\""));
+        assertTrue(resolved.contains("\"key2\":null"));
+        assertTrue(template.toJsonString(null).contains("\"key1\":\"{barcode}\""));
+    }
+}